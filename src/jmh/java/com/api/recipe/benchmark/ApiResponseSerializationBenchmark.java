@@ -0,0 +1,69 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.common.dto.response.ApiResponse;
+import com.api.recipe.common.dto.response.PageResponse;
+import com.api.recipe.main.dto.response.RecipeViewDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serializing a search response, {@code ApiResponse<PageResponse<RecipeViewDto>>}, to JSON bytes with
+ * an object mapper configured like the application's. Needs no database:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=ApiResponseSerializationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ApiResponseSerializationBenchmark {
+
+    private static final int INGREDIENTS_PER_RECIPE = 8;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<PageResponse<RecipeViewDto>> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<RecipeViewDto> recipes = IntStream.range(0, pageSize)
+                .mapToObj(ApiResponseSerializationBenchmark::buildRecipeViewDto)
+                .toList();
+        response = new ApiResponse<>(true, "Recipes found",
+                new PageResponse<>(new PageImpl<>(recipes, PageRequest.of(0, pageSize), 10_000)));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private static RecipeViewDto buildRecipeViewDto(int number) {
+        RecipeViewDto recipeViewDto = new RecipeViewDto();
+        recipeViewDto.setUuid(UUID.randomUUID());
+        recipeViewDto.setCreatedAt(OffsetDateTime.now());
+        recipeViewDto.setTitle("Benchmark recipe " + number);
+        recipeViewDto.setDescription("Recipe serialized by ApiResponseSerializationBenchmark");
+        recipeViewDto.setInstruction("Mix everything and simmer for " + number + " minutes.");
+        recipeViewDto.setVegetarian(number % 2 == 0);
+        recipeViewDto.setServings(1 + number % 6);
+        recipeViewDto.setIngredients(IntStream.range(0, INGREDIENTS_PER_RECIPE)
+                .mapToObj(index -> RecipeViewDto.fromIngredientName("Ingredient " + index))
+                .toList());
+        return recipeViewDto;
+    }
+}
@@ -0,0 +1,70 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.repository.RecipeRepository;
+import com.api.recipe.main.search.IngredientSuggestIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Top-10 ingredient name suggestions from {@link IngredientSuggestIndex} holding 100,000 distinct names, for
+ * prefixes of one to four letters: the shorter the prefix, the more names its range of the index holds.
+ * Needs no database:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=IngredientSuggestBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IngredientSuggestBenchmark {
+
+    private static final int NAMES = 100_000;
+
+    @Param({"s", "sa", "sal", "salt"})
+    private String prefix;
+
+    private IngredientSuggestIndex ingredientSuggestIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Random names over a 16-letter alphabet, so a one-letter prefix covers about 6,000 names
+        Random random = new Random(42);
+        SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        List<IngredientCountProjection> counts = IntStream.range(0, NAMES)
+                .mapToObj(index -> projectionFactory.createProjection(IngredientCountProjection.class, Map.of(
+                        "name", randomName(random) + " " + index,
+                        "count", (long) random.nextInt(1000) + 1)))
+                .toList();
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.countIngredientsByName()).thenReturn(counts);
+
+        ingredientSuggestIndex = new IngredientSuggestIndex(recipeRepository,
+                mock(PlatformTransactionManager.class), true);
+        ingredientSuggestIndex.rebuild();
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0, length = 4 + random.nextInt(8); i < length; i++) {
+            name.append("abcdeghilmnoprst".charAt(random.nextInt(16)));
+        }
+        return name.toString();
+    }
+
+    @Benchmark
+    public List<IngredientSuggestIndex.Suggestion> suggest() {
+        return ingredientSuggestIndex.suggest(prefix, 10).orElseThrow();
+    }
+}
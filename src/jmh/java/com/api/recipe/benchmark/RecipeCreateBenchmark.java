@@ -0,0 +1,85 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.RecipeApplication;
+import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.dto.response.RecipeBatchItemDto;
+import com.api.recipe.main.service.RecipeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Recipes created per second through the single-create path (one transaction and one INSERT per row,
+ * as behind each POST /api/recipe) and through the batch path behind POST /api/recipe/batch.
+ * <p>
+ * Runs against the database configured by the DB_* environment variables and leaves the created
+ * rows behind, so point it at a scratch database:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=RecipeCreateBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class RecipeCreateBenchmark {
+
+    private static final int RECIPES_PER_INVOCATION = 100;
+
+    private ConfigurableApplicationContext context;
+    private RecipeService recipeService;
+    private List<RecipeRequestDto> recipeRequestDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RecipeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        recipeService = context.getBean(RecipeService.class);
+        recipeRequestDtos = IntStream.range(0, RECIPES_PER_INVOCATION)
+                .mapToObj(RecipeCreateBenchmark::buildRecipeRequestDto)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECIPES_PER_INVOCATION)
+    public void createOneByOne(Blackhole blackhole) {
+        for (RecipeRequestDto recipeRequestDto : recipeRequestDtos) {
+            blackhole.consume(recipeService.createRecipe(recipeRequestDto));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECIPES_PER_INVOCATION)
+    public List<RecipeBatchItemDto> createBatch() {
+        return recipeService.createRecipes(recipeRequestDtos);
+    }
+
+    private static RecipeRequestDto buildRecipeRequestDto(int number) {
+        RecipeRequestDto recipeRequestDto = new RecipeRequestDto();
+        recipeRequestDto.setTitle("Benchmark recipe " + number);
+        recipeRequestDto.setDescription("Recipe created by RecipeCreateBenchmark");
+        recipeRequestDto.setInstruction("Mix everything and simmer for " + number + " minutes.");
+        recipeRequestDto.setVegetarian(number % 2 == 0);
+        recipeRequestDto.setServings(1 + number % 6);
+        recipeRequestDto.setIngredients(IntStream.range(0, 8)
+                .mapToObj(index -> {
+                    RecipeRequestDto.IngredientRequestDto ingredient = new RecipeRequestDto.IngredientRequestDto();
+                    ingredient.setName("Ingredient " + index);
+                    return ingredient;
+                })
+                .toList());
+        return recipeRequestDto;
+    }
+}
@@ -0,0 +1,111 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.RecipeApplication;
+import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.service.RecipeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Short, database-bound search requests (one page of recipes and their ingredients) served over HTTP under
+ * heavy concurrency, in the default platform-thread mode and in the virtual-threads profile (virtual threads
+ * plus the connection permit limiter). Reports throughput and, in sample mode, the latency percentiles
+ * (p0.99). Tomcat keeps its default 200 worker threads in platform mode, fewer than the {@value #CLIENTS}
+ * concurrent clients.
+ * <p>
+ * The virtual mode needs a Java 21 runtime. Runs against the database configured by the DB_* environment
+ * variables and seeds recipes into it, so point it at a scratch database:
+ * {@code mvn -Pbenchmark,java21 test-compile exec:exec -Djmh.args=RecipeLoadBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(RecipeLoadBenchmark.CLIENTS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 15)
+public class RecipeLoadBenchmark {
+
+    static final int CLIENTS = 400;
+
+    private static final int SEEDED_RECIPES = 2000;
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest searchRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threading);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime, running " + Runtime.version());
+        }
+
+        SpringApplicationBuilder application = new SpringApplicationBuilder(RecipeApplication.class)
+                .properties("server.port=0", "server.tomcat.accept-count=" + CLIENTS);
+        if (virtual) {
+            application.profiles("virtual-threads");
+        }
+        context = application.run();
+
+        RecipeService recipeService = context.getBean(RecipeService.class);
+        for (int offset = 0; offset < SEEDED_RECIPES; offset += 500) {
+            recipeService.createRecipes(IntStream.range(offset, offset + 500)
+                    .mapToObj(RecipeLoadBenchmark::buildRecipeRequestDto)
+                    .toList());
+        }
+        // Fresh statistics, so the plans do not depend on whether autovacuum has seen the seeded rows yet
+        context.getBean(JdbcTemplate.class).execute("ANALYZE recipe, recipe_ingredient, ingredient_name");
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        searchRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/api/recipe/search?vegetarian=true&servings=3&withTotal=false&size=20"))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int search() throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(searchRequest, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Search failed with status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private static RecipeRequestDto buildRecipeRequestDto(int number) {
+        RecipeRequestDto recipeRequestDto = new RecipeRequestDto();
+        recipeRequestDto.setTitle("Load recipe " + number);
+        recipeRequestDto.setDescription("Recipe created by RecipeLoadBenchmark");
+        recipeRequestDto.setInstruction("Mix everything and simmer for " + number + " minutes.");
+        recipeRequestDto.setVegetarian(number % 2 == 0);
+        recipeRequestDto.setServings(1 + number % 6);
+        recipeRequestDto.setIngredients(IntStream.range(0, 8)
+                .mapToObj(index -> {
+                    RecipeRequestDto.IngredientRequestDto ingredient = new RecipeRequestDto.IngredientRequestDto();
+                    ingredient.setName("Ingredient " + (number + index) % 50);
+                    return ingredient;
+                })
+                .toList());
+        return recipeRequestDto;
+    }
+}
@@ -0,0 +1,97 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.main.dto.response.RecipeViewDto;
+import com.api.recipe.main.entity.IngredientName;
+import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.mapper.RecipeMapper;
+import com.api.recipe.main.projection.RecipeViewProjection;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of turning one recipe into a {@link RecipeViewDto}: reflective {@link BeanUtils#copyProperties}
+ * (the previous mapping) against the generated {@link RecipeMapper}, for a search row (an entity plus
+ * its ingredients loaded for the whole page) and for a single recipe read through the Spring Data
+ * projection proxy. Needs no database:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=RecipeMappingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecipeMappingBenchmark {
+
+    private static final int INGREDIENTS_PER_RECIPE = 8;
+
+    private RecipeMapper recipeMapper;
+    private Recipe recipe;
+    private List<RecipeViewDto.IngredientViewDto> ingredientViews;
+    private RecipeViewProjection recipeViewProjection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        recipeMapper = Mappers.getMapper(RecipeMapper.class);
+
+        recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setUuid(UUID.randomUUID());
+        recipe.setCreatedAt(OffsetDateTime.now());
+        recipe.setTitle("Chicken adobo");
+        recipe.setDescription("Braised chicken in vinegar and soy sauce");
+        recipe.setInstruction("Marinate the chicken, then simmer until tender.");
+        recipe.setVegetarian(false);
+        recipe.setServings(4);
+        recipe.replaceIngredients(IntStream.range(0, INGREDIENTS_PER_RECIPE)
+                .mapToObj(index -> {
+                    IngredientName ingredient = new IngredientName();
+                    ingredient.setId(index);
+                    ingredient.setName("Ingredient " + index);
+                    return ingredient;
+                })
+                .toList());
+
+        ingredientViews = recipe.getIngredients().values().stream()
+                .map(ingredient -> RecipeViewDto.fromIngredientName(ingredient.getName()))
+                .toList();
+        recipeViewProjection = new SpelAwareProxyProjectionFactory()
+                .createProjection(RecipeViewProjection.class, recipe);
+    }
+
+    @Benchmark
+    public RecipeViewDto searchRowBeanUtils() {
+        RecipeViewDto dto = new RecipeViewDto();
+        BeanUtils.copyProperties(recipe, dto, Recipe.Fields.INGREDIENTS);
+        dto.setIngredients(ingredientViews);
+        return dto;
+    }
+
+    @Benchmark
+    public RecipeViewDto searchRowMapper() {
+        return recipeMapper.toViewDto(recipe, ingredientViews);
+    }
+
+    @Benchmark
+    public RecipeViewDto projectionBeanUtils() {
+        RecipeViewDto dto = new RecipeViewDto();
+        BeanUtils.copyProperties(recipeViewProjection, dto);
+        dto.setIngredients(recipeViewProjection.getIngredients().values().stream()
+                .map(ingredient -> RecipeViewDto.fromIngredientName(ingredient.getName()))
+                .toList());
+        return dto;
+    }
+
+    @Benchmark
+    public RecipeViewDto projectionMapper() {
+        return recipeMapper.toViewDto(recipeViewProjection);
+    }
+}
@@ -0,0 +1,76 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.main.entity.IngredientName;
+import com.api.recipe.main.entity.Recipe;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.api.recipe.main.specification.RecipeSpecification.*;
+
+/**
+ * Building the criteria query of a recipe search, as done for every search request, with a growing
+ * number of included and excluded ingredient terms. Hibernate is bootstrapped without a database
+ * connection, so no database is needed:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=RecipeSpecificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecipeSpecificationBenchmark {
+
+    @Param({"0", "1", "5", "10", "20"})
+    private int ingredients;
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+    private List<String> includedIngredients;
+    private List<String> excludedIngredients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                .build())
+                .addAnnotatedClass(Recipe.class)
+                .addAnnotatedClass(IngredientName.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+        includedIngredients = IntStream.range(0, ingredients).mapToObj(index -> "included " + index).toList();
+        excludedIngredients = IntStream.range(0, ingredients).mapToObj(index -> "excluded " + index).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Recipe> searchQuery() {
+        Specification<Recipe> specification = isVegetarian(true)
+                .and(hasServings(4))
+                .and(includeIngredients(includedIngredients))
+                .and(excludeIngredients(excludedIngredients))
+                .and(containsInstruction("simmer"));
+
+        CriteriaQuery<Recipe> query = criteriaBuilder.createQuery(Recipe.class);
+        Root<Recipe> root = query.from(Recipe.class);
+        return query.where(specification.toPredicate(root, query, criteriaBuilder));
+    }
+}
@@ -0,0 +1,84 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.common.dto.response.ApiResponse;
+import com.api.recipe.common.service.TranslatorService;
+import com.api.recipe.main.dto.response.RecipeCreatedDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the response of a create request, {@code ApiResponse<RecipeCreatedDto>}:
+ * with the message resolved through the message source and the envelope written by the default bean
+ * serializer, as every request did before, and with the compiled, pre-encoded message of
+ * {@link TranslatorService#message}. The small payload leaves the envelope as most of the work; compare
+ * gc.alloc.rate.norm for the bytes allocated per response. Needs no database:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=ResponseEnvelopeBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseEnvelopeBenchmark {
+
+    private static final String MESSAGE_KEY = "recipe.create.success";
+
+    private ResourceBundleMessageSource messageSource;
+    private TranslatorService translatorService;
+    private ObjectMapper objectMapper;
+    private ObjectMapper beanObjectMapper;
+    private RecipeCreatedDto recipeCreatedDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        translatorService = new TranslatorService(messageSource);
+        ReflectionTestUtils.setField(translatorService, "languageKey", "en");
+        translatorService.compileMessages();
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        beanObjectMapper = Jackson2ObjectMapperBuilder.json()
+                .mixIn(ApiResponse.class, DefaultSerialization.class)
+                .build();
+
+        recipeCreatedDto = new RecipeCreatedDto();
+        recipeCreatedDto.setUuid(UUID.randomUUID());
+        recipeCreatedDto.setCreatedAt(OffsetDateTime.now());
+        recipeCreatedDto.setTitle("Benchmark recipe");
+        recipeCreatedDto.setVersion(0L);
+    }
+
+    @Benchmark
+    public byte[] messageSource() throws JsonProcessingException {
+        String message = messageSource.getMessage(MESSAGE_KEY, new Object[0], Locale.forLanguageTag("en"));
+        return beanObjectMapper.writeValueAsBytes(new ApiResponse<>(true, message, recipeCreatedDto));
+    }
+
+    @Benchmark
+    public byte[] preEncoded() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new ApiResponse<>(true,
+                translatorService.message(MESSAGE_KEY, Locale.ENGLISH), recipeCreatedDto));
+    }
+
+    // Puts back the bean serializer of ApiResponse, leaving out the pre-encoded message
+    @JsonSerialize(using = JsonSerializer.None.class)
+    abstract static class DefaultSerialization {
+        @com.fasterxml.jackson.annotation.JsonIgnore
+        abstract Object getEncodedMessage();
+    }
+}
@@ -0,0 +1,122 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.common.dto.response.ApiResponse;
+import com.api.recipe.common.dto.response.PageResponse;
+import com.api.recipe.common.dto.response.ResponseFormat;
+import com.api.recipe.main.dto.response.RecipeViewDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding a search response page of 20 recipes with long instructions in each response
+ * format, and as gzip-compressed JSON like the server sends it to clients accepting gzip. Decoding reads
+ * the document into a tree. The encoded size of every format is reported as the payloadBytes counter of encode.
+ * Needs no database:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=ResponseFormatBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseFormatBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int INGREDIENTS_PER_RECIPE = 8;
+    private static final int INSTRUCTION_STEPS = 12;
+
+    @Param({"JSON", "JSON_GZIP", "CBOR", "SMILE"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private ApiResponse<PageResponse<RecipeViewDto>> response;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        gzip = format.endsWith("_GZIP");
+        objectMapper = ResponseFormat.valueOf(format.replace("_GZIP", ""))
+                .createObjectMapper(Jackson2ObjectMapperBuilder.json());
+        List<RecipeViewDto> recipes = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(ResponseFormatBenchmark::buildRecipeViewDto)
+                .toList();
+        response = new ApiResponse<>(true, "Recipes found successfully",
+                new PageResponse<>(new PageImpl<>(recipes, PageRequest.of(0, PAGE_SIZE), 10_000)));
+        payload = write();
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadCounters counters) throws IOException {
+        byte[] bytes = write();
+        counters.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public JsonNode decode() throws IOException {
+        InputStream inputStream = new ByteArrayInputStream(payload);
+        if (gzip) {
+            inputStream = new GZIPInputStream(inputStream);
+        }
+        return objectMapper.readTree(inputStream);
+    }
+
+    /**
+     * Size of the last encoded payload, reported next to the encoding time
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadCounters {
+
+        public long payloadBytes;
+    }
+
+    private byte[] write() throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(response);
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            objectMapper.writeValue(gzipOutputStream, response);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static RecipeViewDto buildRecipeViewDto(int number) {
+        RecipeViewDto recipeViewDto = new RecipeViewDto();
+        recipeViewDto.setUuid(UUID.randomUUID());
+        recipeViewDto.setCreatedAt(OffsetDateTime.now());
+        recipeViewDto.setTitle("Benchmark recipe " + number);
+        recipeViewDto.setDescription("Recipe encoded by ResponseFormatBenchmark");
+        recipeViewDto.setInstruction(IntStream.rangeClosed(1, INSTRUCTION_STEPS)
+                .mapToObj(step -> step + ". Stir the pot gently and simmer for " + (step + number)
+                        + " minutes, until the sauce thickens and coats the back of a spoon.")
+                .collect(Collectors.joining("\n")));
+        recipeViewDto.setVegetarian(number % 2 == 0);
+        recipeViewDto.setServings(1 + number % 6);
+        recipeViewDto.setIngredients(IntStream.range(0, INGREDIENTS_PER_RECIPE)
+                .mapToObj(index -> RecipeViewDto.fromIngredientName("Ingredient " + index))
+                .toList());
+        return recipeViewDto;
+    }
+}
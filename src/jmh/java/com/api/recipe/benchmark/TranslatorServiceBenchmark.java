@@ -0,0 +1,49 @@
+package com.api.recipe.benchmark;
+
+import com.api.recipe.common.service.TranslatorService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving response messages through {@link TranslatorService}, once with the default locale and
+ * once with arguments and a request locale, against a message source set up like Spring Boot's
+ * default one. Needs no database:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=TranslatorServiceBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TranslatorServiceBenchmark {
+
+    private TranslatorService translatorService;
+    private Object[] args;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        translatorService = new TranslatorService(messageSource);
+        ReflectionTestUtils.setField(translatorService, "languageKey", "en");
+        translatorService.compileMessages();
+        args = new Object[]{"2", "3"};
+    }
+
+    @Benchmark
+    public String defaultLocale() {
+        return translatorService.process("recipe.search.success");
+    }
+
+    @Benchmark
+    public String withArguments() {
+        return translatorService.process("recipe.batch.create.success", args, Locale.ENGLISH);
+    }
+}
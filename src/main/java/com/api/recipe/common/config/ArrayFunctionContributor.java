@@ -0,0 +1,29 @@
+package com.api.recipe.common.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL array comparison used by the search specifications, so a set of values can be
+ * bound as a single array parameter instead of one parameter per value. Registered through META-INF/services.
+ */
+public class ArrayFunctionContributor implements FunctionContributor {
+
+    /**
+     * any_of(value, array): whether the array contains the value, i.e. value = ANY(array)
+     */
+    public static final String ANY_OF = "any_of";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry basicTypeRegistry = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern(
+                ANY_OF,
+                "(?1 = any(?2))",
+                basicTypeRegistry.resolve(StandardBasicTypes.BOOLEAN)
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package com.api.recipe.common.config;
+
+import com.api.recipe.common.datasource.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConcurrencyLimitingDataSource} in front of the application connection pool when
+ * recipe.datasource.concurrency-limit.enabled is set and requests run on virtual threads
+ * (spring.threads.virtual.enabled on a Java 21 runtime), as in the virtual-threads profile. The number of
+ * permits defaults to the pool size, so requests beyond it wait in the semaphore rather than in the pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "recipe.datasource.concurrency-limit.enabled", havingValue = "true")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DataSourceConcurrencyConfig {
+
+    // Bean name of the connection pool Spring Boot configures from spring.datasource.*
+    static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(
+            @Value("${recipe.datasource.concurrency-limit.permits:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int permits,
+            @Value("${recipe.datasource.concurrency-limit.acquire-timeout:30s}") Duration acquireTimeout,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConcurrencyLimiter(permits, acquireTimeout, meterRegistry);
+    }
+
+    // Wraps only the application pool, before any other post-processor such as the replica routing wraps it,
+    // so that the permits match the pool they guard
+    @RequiredArgsConstructor
+    static class ConcurrencyLimiter implements BeanPostProcessor, Ordered {
+
+        private final int permits;
+        private final Duration acquireTimeout;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!APPLICATION_DATA_SOURCE.equals(beanName) || !(bean instanceof HikariDataSource dataSource)) {
+                return bean;
+            }
+
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            Timer waitTimer = registry == null ? null : Timer.builder("recipe.datasource.permit.wait")
+                    .description("Time spent waiting for a database connection permit")
+                    .register(registry);
+            ConcurrencyLimitingDataSource limitingDataSource =
+                    new ConcurrencyLimitingDataSource(dataSource, permits, acquireTimeout, waitTimer);
+            if (registry != null) {
+                Gauge.builder("recipe.datasource.permit.waiting", limitingDataSource,
+                                ConcurrencyLimitingDataSource::getWaitingCount)
+                        .description("Callers waiting for a database connection permit")
+                        .register(registry);
+            }
+            return limitingDataSource;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
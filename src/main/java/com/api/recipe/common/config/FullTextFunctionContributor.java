@@ -0,0 +1,91 @@
+package com.api.recipe.common.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Registers the PostgreSQL full-text functions used by the search specifications, so they can be
+ * called from criteria queries. Both take a text column and a query in websearch_to_tsquery syntax
+ * (quoted phrases, OR, -excluded words), and read the tsvector the database generates from the column
+ * into {@code <column>_tsv}; the tsvector itself is not mapped, so loading an entity never reads it.
+ * Registered through META-INF/services.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    // Must match the configuration of the generated tsvector columns
+    public static final String TEXT_SEARCH_CONFIG = "english";
+
+    // Suffix of the generated tsvector column of a text column
+    public static final String TSVECTOR_COLUMN_SUFFIX = "_tsv";
+
+    /**
+     * fulltext_match(column, query): whether the document matches the query
+     */
+    public static final String FULLTEXT_MATCH = "fulltext_match";
+
+    /**
+     * fulltext_rank(column, query): ts_rank of the document for the query
+     */
+    public static final String FULLTEXT_RANK = "fulltext_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry basicTypeRegistry = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().register(FULLTEXT_MATCH, new FullTextFunction(
+                FULLTEXT_MATCH, "(", " @@ ", ")", basicTypeRegistry.resolve(StandardBasicTypes.BOOLEAN)));
+        functionContributions.getFunctionRegistry().register(FULLTEXT_RANK, new FullTextFunction(
+                FULLTEXT_RANK, "ts_rank(", ", ", ")", basicTypeRegistry.resolve(StandardBasicTypes.DOUBLE)));
+    }
+
+    // Renders <prefix><qualifier>.<column>_tsv<infix>websearch_to_tsquery(config, <query>)<suffix>
+    private static class FullTextFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private final String prefix;
+        private final String infix;
+        private final String suffix;
+
+        FullTextFunction(String name, String prefix, String infix, String suffix, BasicType<?> returnType) {
+            super(name, StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(returnType),
+                    StandardFunctionArgumentTypeResolvers.NULL);
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+            ColumnReference column = ((Expression) arguments.get(0)).getColumnReference();
+            if (column == null) {
+                throw new IllegalArgumentException(getName() + " expects a column as its first argument");
+            }
+
+            sqlAppender.appendSql(prefix);
+            if (column.getQualifier() != null) {
+                sqlAppender.appendSql(column.getQualifier());
+                sqlAppender.appendSql('.');
+            }
+            sqlAppender.appendSql(column.getColumnExpression() + TSVECTOR_COLUMN_SUFFIX);
+            sqlAppender.appendSql(infix + "websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', ");
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql(")" + suffix);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.api.recipe.common.config;
+
+import com.api.recipe.common.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Puts a {@link ReplicaRoutingDataSource} in front of the primary connection pool when
+ * recipe.datasource.replicas.enabled is set, as in the read-replicas profile, with one connection pool per
+ * URL in recipe.datasource.replicas.urls. The replica pools are named replica-1, replica-2, ... in the
+ * hikaricp.* metrics, and do not fail the startup when a replica is down. A write keeps on the primary only
+ * the reads of the same caller: the authenticated user of the request when there is one, otherwise the client
+ * address, taken from X-Forwarded-For behind a proxy (server.forward-headers-strategy). Clients that share an
+ * address, behind the same NAT or a proxy that does not forward it, share their reads after a write.
+ */
+@Configuration
+@ConditionalOnProperty(name = "recipe.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public static BeanPostProcessor readReplicaRouting(
+            @Value("${recipe.datasource.replicas.urls}") List<String> urls,
+            @Value("${recipe.datasource.replicas.username:${spring.datasource.username}}") String username,
+            @Value("${recipe.datasource.replicas.password:${spring.datasource.password}}") String password,
+            @Value("${recipe.datasource.replicas.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int poolSize,
+            @Value("${recipe.datasource.replicas.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${recipe.datasource.replicas.balancing:ROUND_ROBIN}") ReplicaRoutingDataSource.Balancing balancing,
+            @Value("${recipe.datasource.replicas.primary-after-write:1s}") Duration primaryAfterWrite,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                List<DataSource> replicas = IntStream.range(0, urls.size())
+                        .mapToObj(index -> {
+                            HikariConfig config = new HikariConfig();
+                            config.setPoolName("replica-" + (index + 1));
+                            config.setJdbcUrl(urls.get(index).trim());
+                            config.setUsername(username);
+                            config.setPassword(password);
+                            config.setMaximumPoolSize(poolSize);
+                            config.setConnectionTimeout(connectionTimeout.toMillis());
+                            config.setReadOnly(true);
+                            // Start even when the replica is down; it is skipped until it accepts connections
+                            config.setInitializationFailTimeout(-1);
+                            if (registry != null) {
+                                config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                            }
+                            return (DataSource) new HikariDataSource(config);
+                        })
+                        .toList();
+                return new ReplicaRoutingDataSource(dataSource, replicas, balancing, primaryAfterWrite,
+                        ReadReplicaConfig::currentCaller);
+            }
+        };
+    }
+
+    // User name or client address of the current request, null outside a request
+    private static Object currentCaller() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+
+        Principal principal = attributes.getRequest().getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : attributes.getRequest().getRemoteAddr();
+    }
+}
@@ -0,0 +1,15 @@
+package com.api.recipe.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} background refreshes, such as the one of the unfiltered search facets, and the
+ * {@code @Async} ones on the application task executor, such as the index reloads after an import
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class SchedulingConfig {
+}
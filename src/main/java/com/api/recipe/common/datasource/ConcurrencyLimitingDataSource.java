@@ -0,0 +1,95 @@
+package com.api.recipe.common.datasource;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets at most a fixed number of connections be open at once, making further callers wait on a fair
+ * semaphore until one is closed. With one virtual thread per request, thousands of requests may ask for a
+ * connection at the same moment; they park cheaply in the semaphore queue, in arrival order, instead of
+ * all spinning and queueing inside the connection pool. A caller that gets no permit within the acquire
+ * timeout fails like a pool timeout, with a {@link SQLTransientConnectionException}.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Timer waitTimer;
+
+    /**
+     * @param waitTimer records how long each caller waited for a permit, may be null
+     */
+    public ConcurrencyLimitingDataSource(DataSource targetDataSource, int permits, Duration acquireTimeout,
+                                         Timer waitTimer) {
+        super(targetDataSource);
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.waitTimer = waitTimer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        return limit(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermit();
+        return limit(() -> super.getConnection(username, password));
+    }
+
+    /**
+     * Callers currently waiting for a permit
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    private void acquirePermit() throws SQLException {
+        long startedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection permit", e);
+        } finally {
+            if (waitTimer != null) {
+                waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (!acquired) {
+            throw new SQLTransientConnectionException("No database connection permit available within "
+                    + Duration.ofNanos(acquireTimeoutNanos).toMillis() + "ms");
+        }
+    }
+
+    // Hands out the connection with close() releasing the permit (once), or releases it right away
+    // if the connection could not be opened
+    private Connection limit(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        return ConnectionCloseHook.onClose(connection, permits::release);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
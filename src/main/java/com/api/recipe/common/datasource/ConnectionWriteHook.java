@@ -0,0 +1,78 @@
+package com.api.recipe.common.datasource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps a PostgreSQL connection so that a callback runs once something it wrote is committed. PostgreSQL only
+ * assigns a transaction id once the transaction writes, so that is asked just before each commit; a
+ * transaction that only read, or was rolled back, runs no callback. Statements run in auto-commit mode commit
+ * on their own, so closing a connection that prepared one in that mode runs the callback as well. Every other
+ * call goes to the connection, which stays reachable through {@link ConnectionProxy#getTargetConnection()}.
+ */
+final class ConnectionWriteHook {
+
+    private static final String HAS_WRITTEN = "SELECT txid_current_if_assigned() IS NOT NULL";
+
+    private ConnectionWriteHook() {
+    }
+
+    static Connection onWrite(Connection connection, Runnable callback) {
+        AtomicBoolean autoCommitStatements = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "getTargetConnection" -> connection;
+                    case "commit" -> {
+                        boolean written = hasWritten(connection);
+                        connection.commit();
+                        if (written) {
+                            callback.run();
+                        }
+                        yield null;
+                    }
+                    case "createStatement", "prepareStatement", "prepareCall" -> {
+                        if (connection.getAutoCommit()) {
+                            autoCommitStatements.set(true);
+                        }
+                        yield invoke(connection, method, args);
+                    }
+                    case "close" -> {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (autoCommitStatements.getAndSet(false)) {
+                                callback.run();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+    private static boolean hasWritten(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(HAS_WRITTEN);
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() && resultSet.getBoolean(1);
+        }
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
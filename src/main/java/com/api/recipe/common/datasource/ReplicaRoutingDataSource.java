@@ -0,0 +1,233 @@
+package com.api.recipe.common.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Sends read-only connections to replica databases and every other connection to the primary. Connections
+ * are handed out lazily (see {@link LazyConnectionDataSourceProxy}), so the database is only chosen at the
+ * first statement, once the transaction has marked the connection read-only: {@code @Transactional(readOnly
+ * = true)} reads go to a replica, picked round-robin or by fewest open connections, while read-write
+ * transactions stay on the primary.
+ * <p>
+ * For a while after a write is committed, read-only connections of the same caller go to the primary as well, so a read that follows a write is not served by a replica that has not replayed it yet; the reads of
+ * other callers keep going to the replicas. Reads whose result is kept for every caller, such as cache loads,
+ * run in {@link #readFromPrimary(Supplier)} instead, since a replica behind the write of another caller would
+ * have its stale rows kept. A replica that cannot give a connection is skipped; if none can, the read goes to
+ * the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+    public enum Balancing {
+        /**
+         * Each replica in turn
+         */
+        ROUND_ROBIN,
+        /**
+         * The replica with the fewest connections open through this data source
+         */
+        LEAST_CONNECTIONS
+    }
+
+    // Bounds the memory of the pins when many callers write within primaryAfterWrite
+    private static final int MAX_PINNED_CALLERS = 100_000;
+
+    // Set while the read-only connections of the current thread are taken from the primary
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Balancing balancing;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Supplier<Object> caller;
+
+    // Callers that wrote recently, whose reads stay on the primary until their entry expires
+    private final Cache<Object, Boolean> pinnedCallers;
+
+    /**
+     * @param primaryAfterWrite how long the reads of a caller stay on the primary after its write, at least the
+     *                          replication lag
+     * @param caller            key of the caller a connection is taken for, such as its user or client address;
+     *                          when it gives null, the current thread is the caller
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Balancing balancing,
+                                    Duration primaryAfterWrite, Supplier<Object> caller) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(index -> new Replica(index + 1, replicas.get(index)))
+                .toList();
+        this.balancing = balancing;
+        this.caller = caller;
+        this.pinnedCallers = Caffeine.newBuilder()
+                .expireAfterWrite(primaryAfterWrite)
+                .maximumSize(MAX_PINNED_CALLERS)
+                .build();
+        setTargetDataSource(new WriteDataSource());
+        setReadOnlyDataSource(new ReadDataSource());
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs the call with the read-only connections it takes coming from the primary. Connections are only taken
+     * at the first statement, so this covers the transactions started inside the call as well as one started
+     * before it that has not run a statement yet.
+     */
+    public static <T> T readFromPrimary(Supplier<T> call) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READS.remove();
+            } else {
+                PRIMARY_READS.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Reads the default auto-commit and isolation from a primary connection, like the superclass, but
+     * without the probe counting as a write
+     */
+    @Override
+    public void checkDefaultConnectionProperties() {
+        if (defaultAutoCommit() != null && defaultTransactionIsolation() != null) {
+            return;
+        }
+
+        try (Connection connection = primary.getConnection()) {
+            checkDefaultConnectionProperties(connection);
+        } catch (SQLException e) {
+            log.debug("Could not read the default auto-commit and isolation of the primary", e);
+        }
+    }
+
+    /**
+     * Closes the primary and the replica pools
+     */
+    @Override
+    public void destroy() {
+        close(primary);
+        replicas.forEach(replica -> close(replica.dataSource));
+    }
+
+    private Object currentCaller() {
+        return Objects.requireNonNullElseGet(caller.get(), Thread::currentThread);
+    }
+
+    private boolean isPrimaryPinned() {
+        return pinnedCallers.getIfPresent(currentCaller()) != null;
+    }
+
+    // Index of the replica to try first
+    private int pickReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        if (balancing == Balancing.ROUND_ROBIN) {
+            return start;
+        }
+
+        // Scan from the round-robin start, so replicas with equally few connections still take turns
+        int picked = start;
+        for (int i = 1; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            if (replicas.get(index).open.get() < replicas.get(picked).open.get()) {
+                picked = index;
+            }
+        }
+        return picked;
+    }
+
+    private static void close(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Could not close data source {}", dataSource, e);
+            }
+        }
+    }
+
+    // Primary connections that are not read-only; committing a write on one keeps the following reads of its
+    // caller on the primary
+    private class WriteDataSource extends DelegatingDataSource {
+
+        WriteDataSource() {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Object writer = currentCaller();
+            return ConnectionWriteHook.onWrite(primary.getConnection(), () -> pinPrimary(writer));
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            Object writer = currentCaller();
+            return ConnectionWriteHook.onWrite(primary.getConnection(username, password), () -> pinPrimary(writer));
+        }
+
+        private void pinPrimary(Object writer) {
+            pinnedCallers.put(writer, Boolean.TRUE);
+        }
+    }
+
+    private class ReadDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (replicas.isEmpty() || PRIMARY_READS.get() != null || isPrimaryPinned()) {
+                return primary.getConnection();
+            }
+
+            int first = pickReplica();
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((first + i) % replicas.size());
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    log.warn("Replica {} gave no connection, trying the next one: {}", replica.number, e.getMessage());
+                }
+            }
+            log.warn("No replica gave a connection, reading from the primary");
+            return primary.getConnection();
+        }
+
+        // Replica pools connect with their own configured credentials
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Read-only connections use the credentials of the replica pools");
+        }
+    }
+
+    private record Replica(int number, DataSource dataSource, AtomicInteger open) {
+
+        Replica(int number, DataSource dataSource) {
+            this(number, dataSource, new AtomicInteger());
+        }
+
+        Connection getConnection() throws SQLException {
+            Connection connection = dataSource.getConnection();
+            open.incrementAndGet();
+            return ConnectionCloseHook.onClose(connection, open::decrementAndGet);
+        }
+    }
+}
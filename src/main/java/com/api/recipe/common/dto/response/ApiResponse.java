@@ -1,10 +1,14 @@
 package com.api.recipe.common.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 
 import java.util.List;
 
 @Data
+@JsonSerialize(using = ApiResponseSerializer.class)
 public class ApiResponse<T> {
 
     private boolean success;
@@ -12,6 +16,10 @@ public class ApiResponse<T> {
     private T result;
     private List<String> errors;
 
+    // Pre-encoded message, when built from a ResponseMessage
+    @JsonIgnore
+    private SerializedString encodedMessage;
+
     public ApiResponse(boolean success, String message, T result, List<String> errors) {
         super();
         this.success = success;
@@ -32,5 +40,19 @@ public class ApiResponse<T> {
         this.success = success;
         this.message = message;
     }
-}
 
+    public ApiResponse(boolean success, ResponseMessage message, T result) {
+        this(success, message.getText(), result);
+        this.encodedMessage = message.getEncoded();
+    }
+
+    public ApiResponse(boolean success, ResponseMessage message) {
+        this(success, message.getText());
+        this.encodedMessage = message.getEncoded();
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+        this.encodedMessage = null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.api.recipe.common.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link ApiResponse} envelope from pre-encoded parts: the property names are encoded once
+ * here, and a message built from a {@link ResponseMessage} is copied as already quoted UTF-8 bytes,
+ * so only the result and the errors are serialized per response. The output is the same as the
+ * default bean serialization: success, message, result, errors, nulls included.
+ */
+public class ApiResponseSerializer extends StdSerializer<ApiResponse<?>> {
+
+    private static final SerializedString SUCCESS = new SerializedString("success");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString RESULT = new SerializedString("result");
+    private static final SerializedString ERRORS = new SerializedString("errors");
+
+    @SuppressWarnings("unchecked")
+    public ApiResponseSerializer() {
+        super((Class<ApiResponse<?>>) (Class<?>) ApiResponse.class);
+    }
+
+    @Override
+    public void serialize(ApiResponse<?> response, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(response);
+        generator.writeFieldName(SUCCESS);
+        generator.writeBoolean(response.isSuccess());
+        generator.writeFieldName(MESSAGE);
+        if (response.getEncodedMessage() != null) {
+            generator.writeString(response.getEncodedMessage());
+        } else {
+            generator.writeString(response.getMessage());
+        }
+        generator.writeFieldName(RESULT);
+        provider.defaultSerializeValue(response.getResult(), generator);
+        generator.writeFieldName(ERRORS);
+        provider.defaultSerializeValue(response.getErrors(), generator);
+        generator.writeEndObject();
+    }
+}
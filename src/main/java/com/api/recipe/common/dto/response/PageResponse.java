@@ -1,18 +1,25 @@
 package com.api.recipe.common.dto.response;
 
+import com.api.recipe.common.util.CursorUtil;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
 @Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     private final List<T> content;
-    private final int pageNumber;
+    private final Integer pageNumber;
     private final int pageSize;
-    private final long totalElements;
-    private final int totalPages;
+    private final Long totalElements;
+    private final Integer totalPages;
     private final boolean last;
+    private final boolean hasNext;
+    private final String nextCursor;
 
     public PageResponse(Page<T> page) {
         this.content = page.getContent();
@@ -21,5 +28,37 @@ public class PageResponse<T> {
         this.totalElements = page.getTotalElements();
         this.totalPages = page.getTotalPages();
         this.last = page.isLast();
+        this.hasNext = page.hasNext();
+        this.nextCursor = null;
+    }
+
+    /**
+     * Count-free page: only tells whether another page follows, without totals
+     */
+    public PageResponse(Slice<T> slice) {
+        this.content = slice.getContent();
+        this.pageNumber = slice.getNumber();
+        this.pageSize = slice.getSize();
+        this.totalElements = null;
+        this.totalPages = null;
+        this.last = slice.isLast();
+        this.hasNext = slice.hasNext();
+        this.nextCursor = null;
+    }
+
+    /**
+     * Cursor (keyset) page: no page number or totals, only the cursor to resume after the last row
+     */
+    public PageResponse(Window<T> window) {
+        this.content = window.getContent();
+        this.pageNumber = null;
+        this.pageSize = window.size();
+        this.totalElements = null;
+        this.totalPages = null;
+        this.last = !window.hasNext();
+        this.hasNext = window.hasNext();
+        this.nextCursor = window.hasNext() && !window.isEmpty()
+                ? CursorUtil.encode(window.positionAt(window.size() - 1))
+                : null;
     }
 }
@@ -0,0 +1,66 @@
+package com.api.recipe.common.dto.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Encodings a response can be negotiated to through the Accept header. The binary ones carry the same
+ * document as the JSON, in fewer bytes and cheaper to parse.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ResponseFormat {
+    JSON(MediaType.APPLICATION_JSON, null),
+    CBOR(MediaType.APPLICATION_CBOR, CBORFactory::new),
+    SMILE(new MediaType("application", "x-jackson-smile"), SmileFactory::new);
+
+    private final MediaType mediaType;
+    private final Supplier<JsonFactory> factory;
+
+    /**
+     * Object mapper writing this format, configured by the given (application) builder
+     */
+    public ObjectMapper createObjectMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return factory == null ? objectMapperBuilder.build() : objectMapperBuilder.factory(factory.get()).build();
+    }
+
+    /**
+     * The format the Accept header prefers, by quality; JSON when it accepts anything, nothing we
+     * produce, or cannot be parsed
+     */
+    public static ResponseFormat fromAcceptHeader(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+
+        ResponseFormat preferred = JSON;
+        double preferredQuality = 0;
+        for (MediaType acceptedType : acceptedTypes) {
+            for (ResponseFormat format : values()) {
+                // Strictly better only, so */* and ties keep JSON
+                if (acceptedType.includes(format.mediaType) && acceptedType.getQualityValue() > preferredQuality) {
+                    preferred = format;
+                    preferredQuality = acceptedType.getQualityValue();
+                }
+            }
+        }
+        return preferred;
+    }
+}
@@ -0,0 +1,22 @@
+package com.api.recipe.common.dto.response;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.Getter;
+
+/**
+ * A resolved response message together with its JSON-quoted UTF-8 encoding, computed once so that
+ * responses built from it copy the bytes instead of escaping and encoding the text again
+ */
+@Getter
+public class ResponseMessage {
+
+    private final String text;
+    private final SerializedString encoded;
+
+    public ResponseMessage(String text) {
+        this.text = text;
+        this.encoded = new SerializedString(text);
+        // Encode eagerly: SerializedString would otherwise do it on first use, on the request path
+        this.encoded.asQuotedUTF8();
+    }
+}
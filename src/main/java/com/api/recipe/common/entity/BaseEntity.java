@@ -15,13 +15,16 @@ public class BaseEntity {
         public static final String CREATED_AT = "created_at";
         public static final String UPDATED_AT = "updated_at";
         public static final String MODIFIED_BY = "modified_by";
+        public static final String VERSION = "version";
 
         private Fields() {
         }
     }
 
+    // Per-entity sequence ({entity}_seq, increment 50) read through Hibernate's pooled optimizer, so ids
+    // are known before the INSERT and inserts can be sent in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = Fields.ID)
     private Long id;
 
@@ -34,6 +37,12 @@ public class BaseEntity {
     @Column(name = Fields.MODIFIED_BY, nullable = false)
     private String modifiedBy;
 
+    // Incremented on every update and checked in its WHERE clause, so concurrent edits fail instead of
+    // overwriting each other; a recipe's version is also its ETag
+    @Version
+    @Column(name = Fields.VERSION, nullable = false)
+    private Long version;
+
     @SuppressWarnings(ConstantUtil.UNUSED_WARNING)
     @PrePersist
     protected void onCreate() {
@@ -5,6 +5,7 @@ import com.api.recipe.common.service.TranslatorService;
 import com.api.recipe.common.util.ConstantUtil;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -68,4 +69,62 @@ public class ApiResponseExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCursor(InvalidCursorException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(
+                false,
+                translatorService.process("error.invalid.cursor"),
+                null
+        );
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBatchTooLarge(BatchTooLargeException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(
+                false,
+                translatorService.process("error.batch.too.large", new Object[]{ex.getMaxSize()}),
+                null
+        );
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @ExceptionHandler(UnreadableImportException.class)
+    public ResponseEntity<ApiResponse<Void>> handleUnreadableImport(UnreadableImportException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(
+                false,
+                translatorService.process("error.import.unreadable",
+                        new Object[]{String.valueOf(ex.getLine()), ex.getDetail()}),
+                null
+        );
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePreconditionFailed(PreconditionFailedException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(
+                false,
+                ex.getMessage(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    // Another request updated the row between our read and our write: the version we held went stale,
+    // like a failed If-Match
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(
+                false,
+                translatorService.process("error.recipe.concurrent.update"),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
 }
@@ -0,0 +1,16 @@
+package com.api.recipe.common.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a batch request holds more items than allowed
+ */
+@Getter
+public class BatchTooLargeException extends RuntimeException {
+    private final int maxSize;
+
+    public BatchTooLargeException(int maxSize) {
+        super("Batch exceeds " + maxSize + " items");
+        this.maxSize = maxSize;
+    }
+}
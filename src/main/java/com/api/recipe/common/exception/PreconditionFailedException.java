@@ -0,0 +1,11 @@
+package com.api.recipe.common.exception;
+
+/**
+ * Thrown when the If-Match version of a request no longer matches the stored entity
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
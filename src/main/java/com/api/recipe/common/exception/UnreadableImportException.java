@@ -0,0 +1,18 @@
+package com.api.recipe.common.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an import file is malformed in a way that prevents reading any further lines
+ */
+@Getter
+public class UnreadableImportException extends RuntimeException {
+    private final long line;
+    private final String detail;
+
+    public UnreadableImportException(long line, String detail, Throwable cause) {
+        super("Import unreadable past line " + line + ": " + detail, cause);
+        this.line = line;
+        this.detail = detail;
+    }
+}
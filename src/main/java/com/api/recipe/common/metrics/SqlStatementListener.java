@@ -0,0 +1,42 @@
+package com.api.recipe.common.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times every JDBC statement and batch executed by a Hibernate session, adding them to the
+ * {@link SqlStatementStatistics} of the current request. These are the events behind Hibernate's own
+ * per-session statistics; the global statistics object cannot tell requests apart. Hibernate creates
+ * one instance per session (hibernate.session.events.auto in application.properties).
+ */
+public class SqlStatementListener implements SessionEventListener {
+
+    private long startedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        recordStatement();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startedAt = System.nanoTime();
+    }
+
+    // A batch is one round trip to the database, so it counts as one statement
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        recordStatement();
+    }
+
+    private void recordStatement() {
+        SqlStatementStatistics statistics = SqlStatementStatistics.current();
+        if (statistics != null) {
+            statistics.record(System.nanoTime() - startedAt);
+        }
+    }
+}
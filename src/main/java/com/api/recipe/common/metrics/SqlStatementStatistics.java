@@ -0,0 +1,39 @@
+package com.api.recipe.common.metrics;
+
+import lombok.Getter;
+
+/**
+ * Number and total execution time of the SQL statements run by the current request. Bound to the
+ * request thread by {@link SqlStatementMetricsFilter} and filled by {@link SqlStatementListener};
+ * statements run on other threads (such as streamed exports) are not counted.
+ */
+@Getter
+public class SqlStatementStatistics {
+
+    private static final ThreadLocal<SqlStatementStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    static SqlStatementStatistics start() {
+        SqlStatementStatistics statistics = new SqlStatementStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Statistics of the request running on this thread, or null outside of a request
+     */
+    static SqlStatementStatistics current() {
+        return CURRENT.get();
+    }
+
+    void record(long statementNanos) {
+        statements++;
+        nanos += statementNanos;
+    }
+}
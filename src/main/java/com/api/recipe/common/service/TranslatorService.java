@@ -1,37 +1,131 @@
 package com.api.recipe.common.service;
 
+import com.api.recipe.common.dto.response.ResponseMessage;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
+import org.springframework.context.support.AbstractResourceBasedMessageSource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Resolves response messages. Messages without arguments are compiled into a table per locale (at startup
+ * for the supported locales, on first use for others), so the request path does a map lookup instead of
+ * going through the {@link MessageSource}, and gets the message already encoded for the response.
+ */
 @Service
 @RequiredArgsConstructor
 public class TranslatorService {
 
+    // Caps how many locales are compiled, since the request locale comes straight from a header
+    private static final int MAX_COMPILED_LOCALES = 16;
+
     private final MessageSource messageSource;
+    private final Map<Locale, Map<String, ResponseMessage>> compiledMessages = new ConcurrentHashMap<>();
 
     @Value("${locale.default.lang.key:en}")
     private String languageKey;
 
+    @Value("${locale.supported.lang.keys:${locale.default.lang.key:en}}")
+    private List<String> supportedLanguageKeys;
+
+    private volatile Locale defaultLocale;
+
+    /**
+     * Compiles the messages of the default and the supported locales
+     */
+    @PostConstruct
+    public void compileMessages() {
+        getMessages(getDefaultLocale());
+        if (supportedLanguageKeys != null) {
+            supportedLanguageKeys.forEach(key -> getMessages(Locale.forLanguageTag(key)));
+        }
+    }
+
+    /**
+     * Message without arguments, with its pre-encoded form for {@link com.api.recipe.common.dto.response.ApiResponse}
+     */
+    public ResponseMessage message(String key, Locale locale) {
+        Map<String, ResponseMessage> messages = getMessages(locale);
+        ResponseMessage message = messages != null ? messages.get(key) : null;
+        return message != null ? message : new ResponseMessage(resolve(key, new Object[0], locale));
+    }
+
     public String process(String key, Locale locale) {
-        String message = messageSource.getMessage(key, new Object[0], locale);
-        return StringUtils.isBlank(message) ? key : message;
+        return message(key, locale).getText();
     }
 
     public String process(String key, Object[] args, Locale locale) {
-        String message = messageSource.getMessage(key, args, locale);
-        return StringUtils.isBlank(message) ? key : message;
+        return resolve(key, args, locale);
     }
 
     public String process(String key) {
-        return process(key, new Locale(languageKey));
+        return process(key, getDefaultLocale());
     }
 
     public String process(String key, Object[] args) {
-        return process(key, args, new Locale(languageKey));
+        return process(key, args, getDefaultLocale());
+    }
+
+    private String resolve(String key, Object[] args, Locale locale) {
+        String message = messageSource.getMessage(key, args, locale);
+        return StringUtils.isBlank(message) ? key : message;
+    }
+
+    private Locale getDefaultLocale() {
+        Locale locale = defaultLocale;
+        if (locale == null) {
+            locale = Locale.forLanguageTag(languageKey);
+            defaultLocale = locale;
+        }
+        return locale;
+    }
+
+    // Compiled table of the locale, or null once the cap is reached
+    private Map<String, ResponseMessage> getMessages(Locale locale) {
+        Map<String, ResponseMessage> messages = compiledMessages.get(locale);
+        if (messages == null && compiledMessages.size() < MAX_COMPILED_LOCALES) {
+            messages = compiledMessages.computeIfAbsent(locale, this::compile);
+        }
+        return messages;
+    }
+
+    // Resolved through the message source like on a lookup, so the table holds exactly what it would return
+    private Map<String, ResponseMessage> compile(Locale locale) {
+        Map<String, ResponseMessage> messages = new HashMap<>();
+        for (String key : getMessageKeys(locale)) {
+            messages.put(key, new ResponseMessage(resolve(key, new Object[0], locale)));
+        }
+        return Collections.unmodifiableMap(messages);
+    }
+
+    // Keys of the bundles behind the message source; none if it is not backed by resource bundles
+    private Set<String> getMessageKeys(Locale locale) {
+        if (!(messageSource instanceof AbstractResourceBasedMessageSource resourceBasedMessageSource)) {
+            return Set.of();
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (String basename : resourceBasedMessageSource.getBasenameSet()) {
+            try {
+                keys.addAll(ResourceBundle.getBundle(basename, locale, ClassUtils.getDefaultClassLoader()).keySet());
+            } catch (MissingResourceException e) {
+                // No bundle for this basename, its keys keep going through the message source
+            }
+        }
+        return keys;
     }
 }
@@ -0,0 +1,88 @@
+package com.api.recipe.common.util;
+
+import com.api.recipe.common.entity.BaseEntity;
+import com.api.recipe.common.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.beans.PropertyDescriptor;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe cursor strings.
+ * A cursor holds the sort key values of the last returned row plus its id.
+ */
+public class CursorUtil {
+    private CursorUtil() {
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ConversionService CONVERSION_SERVICE = ApplicationConversionService.getSharedInstance();
+    private static final TypeReference<LinkedHashMap<String, String>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keysetPosition)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as a cursor");
+        }
+
+        Map<String, String> keys = new LinkedHashMap<>();
+        keysetPosition.getKeys().forEach((property, value) ->
+                keys.put(property, CONVERSION_SERVICE.convert(value, String.class)));
+
+        try {
+            byte[] json = OBJECT_MAPPER.writeValueAsBytes(keys);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a cursor into a forward keyset position for the given entity. The cursor must carry
+     * exactly the properties of the requested sort plus the id, otherwise it belongs to another query.
+     */
+    public static KeysetScrollPosition decode(String cursor, Class<?> entityType, Sort sort) {
+        Map<String, String> keys;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            keys = OBJECT_MAPPER.readValue(new String(json, StandardCharsets.UTF_8), KEYS_TYPE);
+        } catch (Exception e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+
+        Set<String> expectedProperties = new LinkedHashSet<>();
+        sort.forEach(order -> expectedProperties.add(order.getProperty()));
+        expectedProperties.add(BaseEntity.Fields.ID);
+        if (keys == null || !keys.keySet().equals(expectedProperties)) {
+            throw new InvalidCursorException(cursor);
+        }
+
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        for (Map.Entry<String, String> key : keys.entrySet()) {
+            PropertyDescriptor property = BeanUtils.getPropertyDescriptor(entityType, key.getKey());
+            if (property == null) {
+                throw new InvalidCursorException(cursor);
+            }
+
+            try {
+                typedKeys.put(key.getKey(), CONVERSION_SERVICE.convert(key.getValue(), property.getPropertyType()));
+            } catch (Exception e) {
+                throw new InvalidCursorException(cursor, e);
+            }
+        }
+
+        return ScrollPosition.forward(typedKeys);
+    }
+}
@@ -0,0 +1,41 @@
+package com.api.recipe.common.util;
+
+import org.springframework.http.ETag;
+
+/**
+ * Converts entity versions to strong ETags ("3") and back from If-Match headers
+ */
+public class EntityTagUtil {
+    private EntityTagUtil() {
+    }
+
+    // Expected version of an If-Match header that no entity version can match
+    private static final long NO_VERSION = -1L;
+
+    public static String of(long version) {
+        return ETag.quoteETagIfNecessary(String.valueOf(version));
+    }
+
+    /**
+     * The version an If-Match header requires, or null when it requires none (absent or *). Foreign tags
+     * never match. Weak tags are taken as their version: the tag names a version rather than the bytes of
+     * one representation, and response compression hands clients W/"3" for "3".
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+
+        for (ETag eTag : ETag.parse(ifMatch)) {
+            if (eTag.isWildcard()) {
+                return null;
+            }
+            try {
+                return Long.parseLong(eTag.tag());
+            } catch (NumberFormatException e) {
+                // Not one of ours, try the next tag
+            }
+        }
+        return NO_VERSION;
+    }
+}
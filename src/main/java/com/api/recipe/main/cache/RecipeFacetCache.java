@@ -0,0 +1,88 @@
+package com.api.recipe.main.cache;
+
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.dto.response.RecipeFacetsDto;
+import com.api.recipe.main.mapper.RecipeMapper;
+import com.api.recipe.main.repository.RecipeFacetRepository;
+import com.api.recipe.main.repository.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Facet counts of the search without filters, which group every recipe and are what the search page shows
+ * first. They are recounted in the background at a fixed delay instead of on request, so they may lag the
+ * recipe writes by up to the refresh interval, including writes made through other instances. Filtered
+ * facets are always counted on request.
+ */
+@Slf4j
+@Component
+public class RecipeFacetCache {
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeMapper recipeMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxTopIngredients;
+
+    private volatile RecipeFacetsDto facets;
+
+    public RecipeFacetCache(RecipeRepository recipeRepository,
+                            RecipeMapper recipeMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${recipe.search.facets.cache.enabled:true}") boolean enabled,
+                            @Value("${recipe.search.facets.max-top-ingredients:50}") int maxTopIngredients) {
+        this.recipeRepository = recipeRepository;
+        this.recipeMapper = recipeMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxTopIngredients = maxTopIngredients;
+    }
+
+    /**
+     * Unfiltered facets with the given number of top ingredients, at most the configured maximum. Empty when
+     * the cache is disabled or not loaded yet, in which case the caller should count them itself.
+     */
+    public Optional<RecipeFacetsDto> get(int topIngredients) {
+        RecipeFacetsDto cached = facets;
+        if (cached == null) {
+            return Optional.empty();
+        }
+
+        // The cached lists are never modified, so the copy shares them
+        RecipeFacetsDto copy = new RecipeFacetsDto();
+        copy.setTotal(cached.getTotal());
+        copy.setVegetarian(cached.getVegetarian());
+        copy.setServings(cached.getServings());
+        copy.setIngredients(cached.getIngredients().subList(0,
+                Math.min(topIngredients, cached.getIngredients().size())));
+        return Optional.of(copy);
+    }
+
+    /**
+     * Recounts the unfiltered facets, with the maximum number of top ingredients. Requests keep getting the
+     * previous counts until the new ones are complete, and keep them if the recount fails.
+     */
+    @Scheduled(initialDelayString = "0s", fixedDelayString = "${recipe.search.facets.cache.refresh-interval:1m}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            facets = transactionTemplate.execute(status -> {
+                RecipeFacetRepository.FacetCounts counts =
+                        recipeRepository.countFacets(new RecipeSearchRequestDto(), null, maxTopIngredients);
+                return recipeMapper.toFacetsDto(counts.byVegetarianAndServings(), counts.topIngredients());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Unable to refresh the search facets, serving the previous ones", e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.api.recipe.main.cache;
+
+import com.api.recipe.common.datasource.ReplicaRoutingDataSource;
+import com.api.recipe.common.dto.response.ResponseFormat;
+import com.api.recipe.main.event.RecipeChangedEvent;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of fully serialized GET /api/recipe/{uuid} responses and the recipe version they show,
+ * keyed by (uuid, locale, format) and weighed by body size. Entries are dropped once a change to the recipe
+ * is committed.
+ * <p>
+ * Hits, misses and evictions are exported as the cache.* metrics tagged {@code cache=recipe.response}.
+ */
+@Component
+public class RecipeResponseCache {
+
+    public static final String CACHE_NAME = "recipe.response";
+
+    // Caps how many locales are cached, since the request locale comes straight from a header
+    private static final int MAX_LOCALES = 16;
+
+    private final Map<ResponseFormat, ObjectMapper> objectMappers = new EnumMap<>(ResponseFormat.class);
+    private final Cache<Key, CachedResponse> cache;
+    private final Set<Locale> locales = ConcurrentHashMap.newKeySet();
+
+    public RecipeResponseCache(ObjectFactory<Jackson2ObjectMapperBuilder> objectMapperBuilder,
+                               MeterRegistry meterRegistry,
+                               @Value("${recipe.cache.response.max-bytes:67108864}") long maxBytes) {
+        for (ResponseFormat format : ResponseFormat.values()) {
+            objectMappers.put(format, format.createObjectMapper(objectMapperBuilder.getObject()));
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, CachedResponse response) -> response.body().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached response, or builds, serializes and caches it on a miss.
+     * Loading is atomic per key, so an eviction racing with a load waits for it and then removes it.
+     * The version is read before the response, so an update in between leaves the version older than
+     * the body, never newer: a client revalidating with it gets the current body again.
+     * Cached responses are read from the primary, as a replica may not have replayed the latest change yet.
+     */
+    public CachedResponse get(UUID uuid, Locale locale, ResponseFormat format, LongSupplier versionSupplier,
+                              Supplier<?> responseSupplier) {
+        if (!locales.contains(locale)) {
+            if (locales.size() >= MAX_LOCALES) {
+                return load(format, versionSupplier, responseSupplier);
+            }
+            locales.add(locale);
+        }
+
+        return cache.get(new Key(uuid, locale, format), key -> ReplicaRoutingDataSource.readFromPrimary(
+                () -> load(format, versionSupplier, responseSupplier)));
+    }
+
+    public void evict(UUID uuid) {
+        for (Locale locale : locales) {
+            for (ResponseFormat format : ResponseFormat.values()) {
+                cache.invalidate(new Key(uuid, locale, format));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        evict(event.getUuid());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesDeleted(RecipesDeletedEvent event) {
+        event.getUuids().forEach(this::evict);
+    }
+
+    private CachedResponse load(ResponseFormat format, LongSupplier versionSupplier, Supplier<?> responseSupplier) {
+        long version = versionSupplier.getAsLong();
+        return new CachedResponse(serialize(format, responseSupplier.get()), version);
+    }
+
+    private byte[] serialize(ResponseFormat format, Object response) {
+        try {
+            return objectMappers.get(format).writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize recipe response", e);
+        }
+    }
+
+    private record Key(UUID uuid, Locale locale, ResponseFormat format) {
+    }
+
+    public record CachedResponse(byte[] body, long version) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.api.recipe.main.cache;
+
+import com.api.recipe.common.datasource.ReplicaRoutingDataSource;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.dto.response.RecipeViewDto;
+import com.api.recipe.main.event.RecipeChangedEvent;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.api.recipe.main.event.RecipesImportedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of recipe search pages, keyed by the normalized filters and the page request, and weighed
+ * by the recipes on the page. Every committed recipe write moves a generation that is part of the key, so
+ * a page cached before the write, or loaded while it was running, is never served afterwards. Like the
+ * response cache, it only sees the writes made through this instance.
+ * <p>
+ * Hits, misses and evictions are exported as the cache.* metrics tagged {@code cache=recipe.search}.
+ */
+@Component
+public class RecipeSearchCache {
+
+    static final String CACHE_NAME = "recipe.search";
+
+    private final Cache<Key, Page<RecipeViewDto>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public RecipeSearchCache(MeterRegistry meterRegistry,
+                             @Value("${recipe.cache.search.max-recipes:10000}") long maxRecipes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxRecipes)
+                .weigher((Key key, Page<RecipeViewDto> page) -> page.getNumberOfElements() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached page of the search, or loads and caches it on a miss. Concurrent misses of the
+     * same search wait for a single load, which reads from the primary: a replica that has not replayed a
+     * write yet would otherwise have its page cached after the write moved the generation.
+     */
+    public Page<RecipeViewDto> get(RecipeSearchRequestDto search, Pageable pageable,
+                                   Supplier<Page<RecipeViewDto>> pageSupplier) {
+        return cache.get(Key.of(generation.get(), search, pageable),
+                key -> ReplicaRoutingDataSource.readFromPrimary(pageSupplier));
+    }
+
+    /**
+     * Stops serving every cached page. The old entries are dropped as well, rather than left to age out,
+     * since the size policy would keep them over the new pages they were popular before.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesDeleted(RecipesDeletedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Search filters in canonical form: ingredient terms lower-cased, deduplicated and sorted without the
+     * blank ones, the CONTAINS instruction lower-cased, the mode defaulted. Filters that the search applies
+     * the same way give the same key.
+     */
+    record Key(long generation, Boolean vegetarian, Integer servings, List<String> includedIngredients,
+               List<String> excludedIngredients, String instruction,
+               RecipeSearchRequestDto.InstructionMode instructionMode, Pageable pageable) {
+
+        static Key of(long generation, RecipeSearchRequestDto search, Pageable pageable) {
+            RecipeSearchRequestDto.InstructionMode mode = Objects.requireNonNullElse(search.getInstructionMode(),
+                    RecipeSearchRequestDto.InstructionMode.CONTAINS);
+            String instruction = null;
+            if (StringUtils.hasText(search.getInstruction())) {
+                // Full-text queries keep their case, which their syntax may depend on
+                instruction = mode == RecipeSearchRequestDto.InstructionMode.CONTAINS
+                        ? search.getInstruction().toLowerCase(Locale.ROOT)
+                        : search.getInstruction();
+            }
+            return new Key(generation, search.getVegetarian(), search.getServings(),
+                    normalizeTerms(search.getIncludedIngredients()), normalizeTerms(search.getExcludedIngredients()),
+                    instruction, mode, pageable);
+        }
+
+        // Same terms and lower-casing as the LIKE patterns of the search, so a list of blank terms is no list
+        private static List<String> normalizeTerms(List<String> terms) {
+            List<String> ingredientTerms = RecipeSearchRequestDto.ingredientTerms(terms);
+            if (ingredientTerms.isEmpty()) {
+                return null;
+            }
+            return ingredientTerms.stream()
+                    .map(term -> term.toLowerCase(Locale.ROOT))
+                    .distinct()
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -2,9 +2,20 @@ package com.api.recipe.main.controller;
 
 import com.api.recipe.common.dto.response.ApiResponse;
 import com.api.recipe.common.dto.response.PageResponse;
+import com.api.recipe.common.dto.response.ResponseFormat;
 import com.api.recipe.common.service.TranslatorService;
+import com.api.recipe.common.util.EntityTagUtil;
+import com.api.recipe.main.cache.RecipeResponseCache;
+import com.api.recipe.main.dto.request.RecipeDeleteRequestDto;
+import com.api.recipe.main.dto.request.RecipeFileFormat;
 import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.dto.response.IngredientSuggestionDto;
+import com.api.recipe.main.dto.response.RecipeBatchItemDto;
 import com.api.recipe.main.dto.response.RecipeCreatedDto;
+import com.api.recipe.main.dto.response.RecipeFacetsDto;
+import com.api.recipe.main.dto.response.RecipeImportResultDto;
+import com.api.recipe.main.dto.response.RecipeSummaryDto;
 import com.api.recipe.main.dto.response.RecipeUpdatedDto;
 import com.api.recipe.main.dto.response.RecipeViewDto;
 import com.api.recipe.main.service.RecipeService;
@@ -15,11 +26,20 @@ import jakarta.validation.constraints.Null;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
@@ -32,6 +52,7 @@ public class RecipeController {
 
     private final RecipeService recipeService;
     private final TranslatorService translatorService;
+    private final RecipeResponseCache recipeResponseCache;
 
     @Operation(summary = "Create a new recipe", description = "Creates a new recipe by accepting recipe details.")
     @PostMapping
@@ -40,55 +61,151 @@ public class RecipeController {
         RecipeCreatedDto recipeCreatedDto = recipeService.createRecipe(recipeRequestDto);
         ApiResponse<RecipeCreatedDto> response = new ApiResponse<>(
                 true,
-                translatorService.process("recipe.create.success", locale),
+                translatorService.message("recipe.create.success", locale),
                 recipeCreatedDto
         );
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Operation(
+            summary = "Create recipes in bulk",
+            description = "Creates a list of recipes in one transaction and returns one result per item, in request " +
+                    "order: the created recipe, or the validation errors of that item. Invalid items do not " +
+                    "prevent the valid ones from being created. Responds 201 when at least one recipe was created."
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<RecipeBatchItemDto>>> createRecipes(
+            @RequestBody List<RecipeRequestDto> recipeRequestDtos, Locale locale) {
+        List<RecipeBatchItemDto> results = recipeService.createRecipes(recipeRequestDtos);
+        long createdCount = results.stream().filter(RecipeBatchItemDto::isCreated).count();
+        ApiResponse<List<RecipeBatchItemDto>> response = new ApiResponse<>(
+                createdCount > 0,
+                translatorService.process("recipe.batch.create.success",
+                        new Object[]{createdCount, results.size()}, locale),
+                results
+        );
+
+        return ResponseEntity.status(createdCount > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(response);
+    }
 
     @Operation(
-            summary = "Get recipe by UUID",
-            description = "Retrieves a single recipe using its UUID, including full details and list of ingredients."
+            summary = "Import recipes from a file",
+            description = "Imports an NDJSON (application/x-ndjson, one create request per line) or CSV (text/csv, " +
+                    "with a header row; the ingredients column holds a JSON array of names) file in one " +
+                    "transaction. Every line is validated like a create request; invalid lines are skipped and " +
+                    "reported by line number. Responds 201 with a summary including the recipes per second " +
+                    "achieved when at least one recipe was imported."
     )
-    @GetMapping("/{uuid}")
-    public ResponseEntity<ApiResponse<RecipeViewDto>> getRecipe(@PathVariable UUID uuid, Locale locale) {
-        RecipeViewDto recipeViewDto = recipeService.getRecipe(uuid);
-        ApiResponse<RecipeViewDto> response = new ApiResponse<>(
-                true,
-                translatorService.process("recipe.get.success", locale),
-                recipeViewDto
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ApiResponse<RecipeImportResultDto>> importRecipes(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body,
+            Locale locale) throws IOException {
+        RecipeFileFormat format = RecipeFileFormat.fromMediaType(contentType).orElseThrow();
+        RecipeImportResultDto result = recipeService.importRecipes(body, format);
+        boolean imported = result.getImported() > 0;
+        ApiResponse<RecipeImportResultDto> response = new ApiResponse<>(
+                imported,
+                translatorService.process("recipe.import.success",
+                        new Object[]{String.valueOf(result.getImported()), String.valueOf(result.getReceived())},
+                        locale),
+                result
         );
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(imported ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @Operation(
+            summary = "Get recipe by UUID",
+            description = "Retrieves a single recipe using its UUID, including full details and list of ingredients. " +
+                    "The ETag is the recipe version: send it in If-None-Match to get 304 Not Modified while the " +
+                    "recipe is unchanged. Accept application/cbor or application/x-jackson-smile for a binary " +
+                    "encoding of the same document."
+    )
+    @GetMapping("/{uuid}")
+    public ResponseEntity<byte[]> getRecipe(@PathVariable UUID uuid, Locale locale, WebRequest webRequest) {
+        // Revalidation only needs the version, not the recipe; checkNotModified answers 304 with the ETag
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(EntityTagUtil.of(recipeService.getRecipeVersion(uuid)))) {
+            return null;
+        }
+
+        // Serve the serialized ApiResponse<RecipeViewDto> from the response cache, in the accepted format
+        ResponseFormat format = ResponseFormat.fromAcceptHeader(webRequest.getHeader(HttpHeaders.ACCEPT));
+        RecipeResponseCache.CachedResponse response = recipeResponseCache.get(uuid, locale, format,
+                () -> recipeService.getRecipeVersion(uuid),
+                () -> new ApiResponse<>(
+                        true,
+                        translatorService.message("recipe.get.success", locale),
+                        recipeService.getRecipe(uuid)
+                ));
+
+        return ResponseEntity.ok()
+                .eTag(EntityTagUtil.of(response.version()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(format.getMediaType())
+                .body(response.body());
+    }
 
     @Operation(
             summary = "Update an existing recipe",
-            description = "Updates the details of an existing recipe by UUID with new data provided in the request body."
+            description = "Updates the details of an existing recipe by UUID with new data provided in the request body. " +
+                    "Only the fields and ingredients that differ are written; modified=false means nothing changed. " +
+                    "With If-Match, the update only applies to that version (ETag) of the recipe and responds " +
+                    "412 Precondition Failed once the recipe has changed."
     )
     @PutMapping("/{uuid}")
     public ResponseEntity<ApiResponse<RecipeUpdatedDto>> updateRecipe(@Valid @RequestBody RecipeRequestDto recipeRequestDto,
-                                                                      @PathVariable UUID uuid, Locale locale) {
-        RecipeUpdatedDto recipeUpdatedDto = recipeService.updateRecipe(recipeRequestDto, uuid);
+                                                                      @PathVariable UUID uuid,
+                                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                                      String ifMatch,
+                                                                      Locale locale) {
+        RecipeUpdatedDto recipeUpdatedDto = recipeService.updateRecipe(recipeRequestDto, uuid,
+                EntityTagUtil.parseIfMatch(ifMatch));
+        String messageKey = recipeUpdatedDto.isModified() ? "recipe.update.success" : "recipe.update.unchanged";
         ApiResponse<RecipeUpdatedDto> response = new ApiResponse<>(
                 true,
-                translatorService.process("recipe.update.success", locale),
+                translatorService.message(messageKey, locale),
                 recipeUpdatedDto
         );
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(EntityTagUtil.of(recipeUpdatedDto.getVersion())).body(response);
     }
 
-    @Operation(summary = "Delete a recipe", description = "Deletes a recipe identified by its UUID.")
+    @Operation(
+            summary = "Delete a recipe",
+            description = "Deletes a recipe identified by its UUID. With If-Match, the recipe is only deleted while " +
+                    "it still has that version (ETag), otherwise responds 412 Precondition Failed."
+    )
     @DeleteMapping("/{uuid}")
-    public ResponseEntity<ApiResponse<Null>> deleteRecipe(@PathVariable UUID uuid, Locale locale) {
-        recipeService.deleteRecipe(uuid);
+    public ResponseEntity<ApiResponse<Null>> deleteRecipe(@PathVariable UUID uuid,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                          String ifMatch,
+                                                          Locale locale) {
+        recipeService.deleteRecipe(uuid, EntityTagUtil.parseIfMatch(ifMatch));
         ApiResponse<Null> response = new ApiResponse<>(
                 true,
-                translatorService.process("recipe.delete.success", locale)
+                translatorService.message("recipe.delete.success", locale)
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Delete recipes in bulk",
+            description = "Deletes either the recipes with the given UUIDs or every recipe matching the given search " +
+                    "filter, which must set at least one criterion. Unknown UUIDs are ignored. Returns the number " +
+                    "of deleted recipes."
+    )
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Integer>> deleteRecipes(
+            @Valid @RequestBody RecipeDeleteRequestDto recipeDeleteRequestDto, Locale locale) {
+        int deletedCount = recipeService.deleteRecipes(recipeDeleteRequestDto);
+        ApiResponse<Integer> response = new ApiResponse<>(
+                true,
+                translatorService.process("recipe.bulk.delete.success", new Object[]{deletedCount}, locale),
+                deletedCount
         );
 
         return ResponseEntity.ok(response);
@@ -98,30 +215,146 @@ public class RecipeController {
             summary = "Search recipes with filters",
             description = "Searches recipes using optional filters: vegetarian flag, number of servings, " +
                     "and partial text matches for included/excluded ingredients and instruction content. " +
-                    "Supports pagination."
+                    "Supports pagination. Pass a cursor (empty for the first page, then the returned nextCursor) " +
+                    "to page by keyset instead of offset; keep the same sort for the whole walk. " +
+                    "Set withTotal=false to skip the total count and only report hasNext. " +
+                    "Set instructionMode=FULLTEXT to match the instruction with web search syntax " +
+                    "(stemmed words, \"quoted phrases\", OR, -word), ranked by relevance unless a sort is given. " +
+                    "Set view=SUMMARY to return only uuid, title, vegetarian and servings, without reading the " +
+                    "instruction or the ingredients. " +
+                    "Accept application/cbor or application/x-jackson-smile for a binary encoding of the results."
     )
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<PageResponse<RecipeViewDto>>> searchRecipes(
+    public ResponseEntity<ApiResponse<PageResponse<?>>> searchRecipes(
             @RequestParam(required = false) Boolean vegetarian,
             @RequestParam(required = false) Integer servings,
             @RequestParam(required = false) List<String> includedIngredients,
             @RequestParam(required = false) List<String> excludedIngredients,
             @RequestParam(required = false) String instruction,
+            @RequestParam(required = false) RecipeSearchRequestDto.InstructionMode instructionMode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(defaultValue = "FULL") RecipeSearchRequestDto.View view,
             @PageableDefault Pageable pageable,
             Locale locale) {
 
-        Page<RecipeViewDto> results = recipeService.searchRecipes(
-                vegetarian, servings, includedIngredients, excludedIngredients, instruction, pageable
+        RecipeSearchRequestDto search = new RecipeSearchRequestDto(
+                vegetarian, servings, includedIngredients, excludedIngredients, instruction, instructionMode
+        );
+
+        PageResponse<?> results;
+        if (view == RecipeSearchRequestDto.View.SUMMARY) {
+            results = searchRecipeSummaries(search, cursor, withTotal, pageable);
+        } else if (cursor != null) {
+            Window<RecipeViewDto> window = recipeService.scrollRecipes(search, cursor, pageable);
+            results = new PageResponse<>(window);
+        } else if (!withTotal) {
+            Slice<RecipeViewDto> slice = recipeService.sliceRecipes(search, pageable);
+            results = new PageResponse<>(slice);
+        } else {
+            Page<RecipeViewDto> page = recipeService.searchRecipes(search, pageable);
+            results = new PageResponse<>(page);
+        }
+
+        String messageKey = results.getContent().isEmpty() ? "recipe.search.empty" : "recipe.search.success";
+
+        ApiResponse<PageResponse<?>> response = new ApiResponse<>(
+                true,
+                translatorService.message(messageKey, locale),
+                results
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    private PageResponse<RecipeSummaryDto> searchRecipeSummaries(RecipeSearchRequestDto search, String cursor,
+                                                                 boolean withTotal, Pageable pageable) {
+        if (cursor != null) {
+            return new PageResponse<>(recipeService.scrollRecipeSummaries(search, cursor, pageable));
+        }
+        if (!withTotal) {
+            return new PageResponse<>(recipeService.sliceRecipeSummaries(search, pageable));
+        }
+        return new PageResponse<>(recipeService.searchRecipeSummaries(search, pageable));
+    }
+
+    @Operation(
+            summary = "Count search facets",
+            description = "Counts the recipes matching the same filters as the search: in total, per vegetarian " +
+                    "flag, per number of servings and for the topIngredients most used ingredient names " +
+                    "(lower-cased, most used first, at most 50 by default). Without any filter, the counts are " +
+                    "refreshed in the background and may lag recent changes by up to a minute."
+    )
+    @GetMapping("/search/facets")
+    public ResponseEntity<ApiResponse<RecipeFacetsDto>> getSearchFacets(
+            @RequestParam(required = false) Boolean vegetarian,
+            @RequestParam(required = false) Integer servings,
+            @RequestParam(required = false) List<String> includedIngredients,
+            @RequestParam(required = false) List<String> excludedIngredients,
+            @RequestParam(required = false) String instruction,
+            @RequestParam(required = false) RecipeSearchRequestDto.InstructionMode instructionMode,
+            @RequestParam(defaultValue = "10") int topIngredients,
+            Locale locale) {
+
+        RecipeSearchRequestDto search = new RecipeSearchRequestDto(
+                vegetarian, servings, includedIngredients, excludedIngredients, instruction, instructionMode
+        );
+        ApiResponse<RecipeFacetsDto> response = new ApiResponse<>(
+                true,
+                translatorService.message("recipe.search.facets.success", locale),
+                recipeService.getSearchFacets(search, topIngredients)
         );
 
-        String messageKey = results.isEmpty() ? "recipe.search.empty" : "recipe.search.success";
+        return ResponseEntity.ok(response);
+    }
 
-        ApiResponse<PageResponse<RecipeViewDto>> response = new ApiResponse<>(
+    @Operation(
+            summary = "Suggest ingredient names",
+            description = "Returns up to limit (at most 50 by default) lower-cased ingredient names starting with " +
+                    "the prefix, case-insensitively, with the number of recipe ingredients using each, most used " +
+                    "first. Served from memory, for autocompleting the included/excluded ingredient filters."
+    )
+    @GetMapping("/ingredients/suggest")
+    public ResponseEntity<ApiResponse<List<IngredientSuggestionDto>>> suggestIngredients(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            Locale locale) {
+        ApiResponse<List<IngredientSuggestionDto>> response = new ApiResponse<>(
                 true,
-                translatorService.process(messageKey, locale),
-                new PageResponse<>(results)
+                translatorService.message("recipe.ingredient.suggest.success", locale),
+                recipeService.suggestIngredients(prefix, limit)
         );
 
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+            summary = "Export recipes",
+            description = "Streams every recipe matching the search filters, with its ingredients, as NDJSON " +
+                    "(one JSON recipe per line) or CSV (the ingredients column holds a JSON array of names). " +
+                    "Recipes are ordered by id, or by relevance with instructionMode=FULLTEXT."
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRecipes(
+            @RequestParam(required = false) Boolean vegetarian,
+            @RequestParam(required = false) Integer servings,
+            @RequestParam(required = false) List<String> includedIngredients,
+            @RequestParam(required = false) List<String> excludedIngredients,
+            @RequestParam(required = false) String instruction,
+            @RequestParam(required = false) RecipeSearchRequestDto.InstructionMode instructionMode,
+            @RequestParam(defaultValue = "NDJSON") RecipeFileFormat format) {
+
+        RecipeSearchRequestDto search = new RecipeSearchRequestDto(
+                vegetarian, servings, includedIngredients, excludedIngredients, instruction, instructionMode
+        );
+        StreamingResponseBody body = outputStream -> recipeService.exportRecipes(search, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("recipes." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
@@ -0,0 +1,28 @@
+package com.api.recipe.main.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recipes to delete: either a list of UUIDs, or a search filter with at least one criterion
+ */
+@Data
+public class RecipeDeleteRequestDto {
+
+    private List<UUID> uuids;
+
+    private RecipeSearchRequestDto filter;
+
+    @JsonIgnore
+    @AssertTrue(message = "{recipe.delete.criteria.required}")
+    public boolean isCriteriaValid() {
+        if (uuids != null && !uuids.isEmpty()) {
+            return filter == null;
+        }
+        return filter != null && filter.hasCriteria();
+    }
+}
@@ -0,0 +1,36 @@
+package com.api.recipe.main.dto.request;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * File formats of the recipe export and import
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RecipeFileFormat {
+    /**
+     * One JSON recipe per line, shaped like the search results on export and like a create request on import
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    /**
+     * One row per recipe with a header row; the ingredients column holds a JSON array of names
+     */
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    /**
+     * The format of a request body with the given content type
+     */
+    public static Optional<RecipeFileFormat> fromMediaType(MediaType mediaType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(mediaType))
+                .findFirst();
+    }
+}
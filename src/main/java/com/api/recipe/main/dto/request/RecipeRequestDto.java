@@ -1,12 +1,11 @@
 package com.api.recipe.main.dto.request;
 
-import com.api.recipe.main.entity.Ingredient;
-import com.api.recipe.main.entity.Recipe;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.util.List;
@@ -15,13 +14,15 @@ import java.util.List;
 public class RecipeRequestDto {
 
     @NotBlank(message = "{recipe.title.required}")
+    @Size(max = 255, message = "{recipe.title.size}")
     private String title;
 
     @NotBlank(message = "{recipe.description.required}")
+    @Size(max = 255, message = "{recipe.description.size}")
     private String description;
 
     @NotEmpty(message = "{recipe.ingredients.required}")
-    private List<@Valid IngredientRequestDto> ingredients;
+    private List<@NotNull(message = "{ingredient.required}") @Valid IngredientRequestDto> ingredients;
 
     @NotBlank(message = "{recipe.instruction.required}")
     private String instruction;
@@ -37,21 +38,7 @@ public class RecipeRequestDto {
     public static class IngredientRequestDto {
 
         @NotBlank(message = "{ingredient.name.required}")
+        @Size(max = 255, message = "{ingredient.name.size}")
         private String name;
     }
-
-    /**
-     * Converts ingredient DTOs into entities with recipe reference
-     */
-    public List<Ingredient> toIngredientEntities(Recipe recipe) {
-        return ingredients.stream()
-                .map(dto -> {
-                    Ingredient ingredient = new Ingredient();
-                    ingredient.setName(dto.getName());
-                    ingredient.setRecipe(recipe);
-                    return ingredient;
-                })
-                .toList();
-    }
-
 }
@@ -0,0 +1,67 @@
+package com.api.recipe.main.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSearchRequestDto {
+
+    private Boolean vegetarian;
+
+    private Integer servings;
+
+    private List<String> includedIngredients;
+
+    private List<String> excludedIngredients;
+
+    private String instruction;
+
+    private InstructionMode instructionMode;
+
+    /**
+     * Whether any filter is set, i.e. whether the search matches less than every recipe
+     */
+    public boolean hasCriteria() {
+        return vegetarian != null
+                || servings != null
+                || !ingredientTerms(includedIngredients).isEmpty()
+                || !ingredientTerms(excludedIngredients).isEmpty()
+                || StringUtils.hasText(instruction);
+    }
+
+    /**
+     * The non-blank terms of an ingredient filter. Every search path (SQL, ingredient index, search cache)
+     * filters on these only, so a list of blank terms filters nothing, like no list.
+     */
+    public static List<String> ingredientTerms(List<String> ingredients) {
+        return ingredients == null ? List.of() : ingredients.stream().filter(StringUtils::hasText).toList();
+    }
+
+    public enum InstructionMode {
+        /**
+         * Case-insensitive partial match of the instruction
+         */
+        CONTAINS,
+        /**
+         * Stemmed full-text match in websearch_to_tsquery syntax, ranked by relevance
+         */
+        FULLTEXT
+    }
+
+    public enum View {
+        /**
+         * Every recipe field, with the ingredients
+         */
+        FULL,
+        /**
+         * Uuid, title, vegetarian flag and servings only, read with a narrow projection
+         */
+        SUMMARY
+    }
+}
@@ -0,0 +1,13 @@
+package com.api.recipe.main.dto.response;
+
+import lombok.Data;
+
+/**
+ * Ingredient name, lower-cased, with the number of recipe ingredients using it
+ */
+@Data
+public class IngredientSuggestionDto {
+    private String name;
+
+    private long count;
+}
@@ -0,0 +1,19 @@
+package com.api.recipe.main.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a batch create, in request order: the created recipe, or the validation errors
+ */
+@Data
+public class RecipeBatchItemDto {
+    private int index;
+
+    private boolean created;
+
+    private RecipeCreatedDto recipe;
+
+    private List<String> errors;
+}
@@ -12,4 +12,9 @@ public class RecipeCreatedDto {
     private OffsetDateTime createdAt;
 
     private String title;
+
+    /**
+     * Version of the recipe, also returned as its ETag; send it back in If-Match to update or delete it
+     */
+    private Long version;
 }
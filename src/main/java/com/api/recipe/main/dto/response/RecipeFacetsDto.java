@@ -0,0 +1,34 @@
+package com.api.recipe.main.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Number of recipes matching a search, in total and per facet value
+ */
+@Data
+public class RecipeFacetsDto {
+    private long total;
+
+    // Ordered by value
+    private List<FacetCountDto<Boolean>> vegetarian = new ArrayList<>();
+
+    // Ordered by value
+    private List<FacetCountDto<Integer>> servings = new ArrayList<>();
+
+    // The most used ingredient names, lower-cased, most used first
+    private List<FacetCountDto<String>> ingredients = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCountDto<T> {
+        private T value;
+
+        private long count;
+    }
+}
@@ -0,0 +1,33 @@
+package com.api.recipe.main.dto.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of an import: how many lines were read, imported and rejected, why the first rejected
+ * lines were rejected, and the throughput achieved
+ */
+@Data
+public class RecipeImportResultDto {
+    private long received;
+
+    private long imported;
+
+    private long rejected;
+
+    // The first rejected lines, up to the configured maximum
+    private List<RejectedLineDto> rejectedLines = new ArrayList<>();
+
+    private long elapsedMillis;
+
+    private long recipesPerSecond;
+
+    @Data
+    public static class RejectedLineDto {
+        private long line;
+
+        private List<String> errors;
+    }
+}
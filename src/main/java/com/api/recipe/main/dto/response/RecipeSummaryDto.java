@@ -0,0 +1,19 @@
+package com.api.recipe.main.dto.response;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Search result of the summary view: what a list of recipes shows, without the instruction or ingredients
+ */
+@Data
+public class RecipeSummaryDto {
+    private UUID uuid;
+
+    private String title;
+
+    private Boolean vegetarian;
+
+    private Integer servings;
+}
@@ -12,4 +12,14 @@ public class RecipeUpdatedDto {
     private OffsetDateTime updatedAt;
 
     private String title;
+
+    /**
+     * Version of the recipe, also returned as its ETag; send it back in If-Match to update or delete it
+     */
+    private Long version;
+
+    /**
+     * False when the request matched the stored recipe and nothing was written
+     */
+    private boolean modified;
 }
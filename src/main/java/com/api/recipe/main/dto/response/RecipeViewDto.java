@@ -1,6 +1,5 @@
 package com.api.recipe.main.dto.response;
 
-import com.api.recipe.main.entity.Ingredient;
 import lombok.Data;
 
 import java.time.OffsetDateTime;
@@ -31,16 +30,12 @@ public class RecipeViewDto {
     }
 
     /**
-     * Creates ingredient DTOs from entities
+     * Creates an ingredient DTO from a plain ingredient name
      */
-    public static List<IngredientViewDto> fromIngredients(List<? extends Ingredient> ingredients) {
-        return ingredients.stream()
-                .map(i -> {
-                    IngredientViewDto dto = new IngredientViewDto();
-                    dto.setName(i.getName());
-                    return dto;
-                })
-                .toList();
+    public static IngredientViewDto fromIngredientName(String name) {
+        IngredientViewDto dto = new IngredientViewDto();
+        dto.setName(name);
+        return dto;
     }
 
 }
@@ -0,0 +1,34 @@
+package com.api.recipe.main.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Entry of the ingredient dictionary: every distinct ingredient name is stored once, and recipes refer to it
+ * by its integer id (see {@link Recipe#getIngredients()}). Rows are only ever inserted, by
+ * {@link com.api.recipe.main.repository.IngredientNameRepository#findOrCreateAll}, and never change.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "ingredient_name")
+public class IngredientName {
+    public static class Fields {
+        public static final String ID = "id";
+        public static final String NAME = "name";
+
+        private Fields() {
+        }
+    }
+
+    @Id
+    @Column(name = Fields.ID)
+    private Integer id;
+
+    @Column(name = Fields.NAME, nullable = false, unique = true, updatable = false)
+    private String name;
+}
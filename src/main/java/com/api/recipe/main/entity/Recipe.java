@@ -5,9 +5,11 @@ import com.api.recipe.common.util.ConstantUtil;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.SortNatural;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Data
 @Entity
@@ -17,11 +19,22 @@ import java.util.UUID;
         @Index(name = "idx_recipe_servings", columnList = "servings"),
 })
 public class Recipe extends BaseEntity {
+    /**
+     * Gap between the positions of consecutive ingredients, leaving room for ingredients inserted between them
+     */
+    public static final int INGREDIENT_POSITION_GAP = 1024;
+
+    /**
+     * Separates the names in {@link #ingredientNames}; a search term without it cannot match across two names
+     */
+    public static final String INGREDIENT_NAMES_SEPARATOR = "\n";
+
     public static class Fields {
         public static final String UUID = "uuid";
         public static final String TITLE = "title";
         public static final String DESCRIPTION = "description";
         public static final String INGREDIENTS = "ingredients";
+        public static final String INGREDIENT_NAMES = "ingredientNames";
         public static final String INSTRUCTION = "instruction";
         public static final String VEGETARIAN = "vegetarian";
         public static final String SERVINGS = "servings";
@@ -39,9 +52,28 @@ public class Recipe extends BaseEntity {
     @Column(name = Fields.DESCRIPTION, nullable = false)
     private String description;
 
-    @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Ingredient> ingredients;
+    // Rows of recipe_ingredient keyed by position: the recipe, the position of the ingredient in the list and
+    // the dictionary id of its name. Positions are spaced (see replaceIngredients), so a changed ingredient only
+    // writes its own row and the rows after an inserted or removed ingredient are left as they are
+    @ManyToMany
+    @JoinTable(name = "recipe_ingredient",
+            joinColumns = @JoinColumn(name = "recipe_id"),
+            inverseJoinColumns = @JoinColumn(name = "ingredient_name_id"))
+    @MapKeyColumn(name = "position")
+    @SortNatural
+    private SortedMap<Integer, IngredientName> ingredients = new TreeMap<>();
+
+    // Lower-cased ingredient names joined by INGREDIENT_NAMES_SEPARATOR, kept in sync with the ingredients by
+    // RecipeService and the import, so the ingredient filters are a trigram-indexed LIKE on the recipe row.
+    // Only written and filtered on, so loading a recipe leaves it out (lazy through bytecode enhancement)
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "ingredient_names", columnDefinition = "TEXT", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String ingredientNames;
 
+    // The database generates instruction_tsv from it (see db.changelog-3.0.xml); the full-text functions of
+    // FullTextFunctionContributor read that column, so it is not mapped here
     @Column(name = Fields.INSTRUCTION, columnDefinition = "TEXT", nullable = false)
     private String instruction;
 
@@ -51,6 +83,121 @@ public class Recipe extends BaseEntity {
     @Column(name = Fields.SERVINGS, nullable = false)
     private Integer servings;
 
+    /**
+     * Replaces the ingredients with the given list, in order. The ingredients kept in the same order (the longest
+     * common subsequence of names) keep their positions; between two kept ones, the removed ingredients' positions
+     * are reused for the added ones, and the remaining added ones take free positions in between. Only when there
+     * is no free position left are all positions spaced anew.
+     *
+     * @return whether the ingredients changed
+     */
+    public boolean replaceIngredients(List<IngredientName> requestedIngredients) {
+        List<Integer> positions = new ArrayList<>(ingredients.keySet());
+        List<String> names = ingredients.values().stream().map(IngredientName::getName).toList();
+        List<String> requestedNames = requestedIngredients.stream().map(IngredientName::getName).toList();
+        if (names.equals(requestedNames)) {
+            return false;
+        }
+
+        SortedMap<Integer, IngredientName> placed = placeIngredients(positions,
+                matchIngredients(names, requestedNames), requestedIngredients);
+        if (placed == null) {
+            placed = new TreeMap<>();
+            for (int i = 0; i < requestedIngredients.size(); i++) {
+                placed.put((i + 1) * INGREDIENT_POSITION_GAP, requestedIngredients.get(i));
+            }
+        }
+        // Changed in place, so only the rows of the positions that changed are written
+        ingredients.keySet().retainAll(placed.keySet());
+        placed.forEach((position, ingredient) -> {
+            if (!Objects.equals(ingredients.get(position), ingredient)) {
+                ingredients.put(position, ingredient);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Value of {@link #ingredientNames} for the given names: lower-cased with {@link Locale#ROOT}, in order
+     */
+    public static String joinIngredientNames(Collection<String> names) {
+        return names.stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(INGREDIENT_NAMES_SEPARATOR));
+    }
+
+    // Index of the existing ingredient each requested one keeps the position of, or -1, along the longest common
+    // subsequence of names
+    private static int[] matchIngredients(List<String> names, List<String> requestedNames) {
+        int[][] lengths = new int[names.size() + 1][requestedNames.size() + 1];
+        for (int i = names.size() - 1; i >= 0; i--) {
+            for (int j = requestedNames.size() - 1; j >= 0; j--) {
+                lengths[i][j] = names.get(i).equals(requestedNames.get(j))
+                        ? lengths[i + 1][j + 1] + 1
+                        : Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+            }
+        }
+
+        int[] matches = new int[requestedNames.size()];
+        Arrays.fill(matches, -1);
+        int i = 0;
+        int j = 0;
+        while (i < names.size() && j < requestedNames.size()) {
+            if (names.get(i).equals(requestedNames.get(j))) {
+                matches[j++] = i++;
+            } else if (lengths[i + 1][j] >= lengths[i][j + 1]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return matches;
+    }
+
+    // Positions of the requested ingredients, or null when the unmatched ones between two matched ones do not
+    // fit between their positions
+    private static SortedMap<Integer, IngredientName> placeIngredients(List<Integer> positions, int[] matches,
+                                                                      List<IngredientName> requestedIngredients) {
+        SortedMap<Integer, IngredientName> placed = new TreeMap<>();
+        List<IngredientName> unmatched = new ArrayList<>();
+        long previous = 0;
+        int nextExisting = 0;
+        for (int j = 0; j <= requestedIngredients.size(); j++) {
+            boolean end = j == requestedIngredients.size();
+            if (!end && matches[j] < 0) {
+                unmatched.add(requestedIngredients.get(j));
+                continue;
+            }
+
+            // The unmatched ingredients go between the previous matched one and this one (or the end): first on
+            // the positions of the removed ingredients there, then on positions spaced evenly after them
+            int nextMatched = end ? positions.size() : matches[j];
+            int reused = Math.min(unmatched.size(), nextMatched - nextExisting);
+            for (int k = 0; k < reused; k++) {
+                previous = positions.get(nextExisting + k);
+                placed.put((int) previous, unmatched.get(k));
+            }
+            int added = unmatched.size() - reused;
+            long step = end
+                    ? INGREDIENT_POSITION_GAP
+                    : (positions.get(nextMatched) - previous) / (added + 1);
+            if (added > 0 && (step == 0 || previous + step * added > Integer.MAX_VALUE)) {
+                return null;
+            }
+            for (int k = 0; k < added; k++) {
+                placed.put((int) (previous + step * (k + 1)), unmatched.get(reused + k));
+            }
+
+            if (!end) {
+                previous = positions.get(nextMatched);
+                placed.put((int) previous, requestedIngredients.get(j));
+                nextExisting = nextMatched + 1;
+            }
+            unmatched.clear();
+        }
+        return placed;
+    }
+
     @SuppressWarnings(ConstantUtil.UNUSED_WARNING)
     @PrePersist
     protected void prePersist() {
@@ -0,0 +1,20 @@
+package com.api.recipe.main.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published whenever a recipe is created or updated, with the ingredient names the recipe had before
+ * the change (empty on create) and has after it. Deletions publish {@link RecipesDeletedEvent}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RecipeChangedEvent {
+    private final Long id;
+    private final UUID uuid;
+    private final List<String> previousIngredientNames;
+    private final List<String> ingredientNames;
+}
@@ -0,0 +1,20 @@
+package com.api.recipe.main.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Published when recipes are deleted, with the ids and UUIDs of every deleted recipe and the distinct
+ * ingredient names they had, each with the number of deleted ingredients using it
+ */
+@Getter
+@RequiredArgsConstructor
+public class RecipesDeletedEvent {
+    private final List<Long> ids;
+    private final List<UUID> uuids;
+    private final Map<String, Long> ingredientNameCounts;
+}
@@ -0,0 +1,13 @@
+package com.api.recipe.main.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when recipes are inserted in bulk by an import, which does not report them one by one
+ */
+@Getter
+@RequiredArgsConstructor
+public class RecipesImportedEvent {
+    private final long count;
+}
@@ -0,0 +1,203 @@
+package com.api.recipe.main.importer;
+
+import com.api.recipe.common.exception.UnreadableImportException;
+import com.api.recipe.common.service.TranslatorService;
+import com.api.recipe.main.dto.request.RecipeFileFormat;
+import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the recipes of an import file one line at a time, so a file is never held in memory whatever its
+ * size. A line that cannot be turned into a {@link RecipeRequestDto} comes back with its errors instead of
+ * a recipe. Only broken CSV quoting, after which there is no telling where the next row starts, stops the
+ * reading with an {@link UnreadableImportException}.
+ * <p>
+ * CSV files need a header row. The columns are matched by name, so a CSV export can be imported as is:
+ * title, description, ingredients (a JSON array of names), instruction, vegetarian and servings.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipeImportReader {
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerForListOf(String.class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .with(CsvParser.Feature.SKIP_EMPTY_LINES);
+
+    private final ObjectMapper objectMapper;
+    private final TranslatorService translatorService;
+
+    /**
+     * One line (CSV row) of the file: its number, and the recipe it holds or the reasons it holds none
+     */
+    public record Line(long number, RecipeRequestDto recipe, List<String> errors) {
+    }
+
+    /**
+     * Lazily reads the lines of the file; blank lines are skipped
+     */
+    public Stream<Line> read(InputStream inputStream, RecipeFileFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        Iterator<Line> lines = format == RecipeFileFormat.CSV ? readCsv(reader) : readNdjson(reader);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lines, Spliterator.ORDERED), false);
+    }
+
+    private Iterator<Line> readNdjson(BufferedReader reader) {
+        ObjectReader recipeReader = objectMapper.readerFor(RecipeRequestDto.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+        return new LineIterator() {
+            private long number;
+
+            @Override
+            protected Line readNext() throws IOException {
+                String text;
+                do {
+                    text = reader.readLine();
+                    number++;
+                    if (text == null) {
+                        return null;
+                    }
+                } while (text.isBlank());
+
+                try {
+                    return new Line(number, recipeReader.readValue(text), List.of());
+                } catch (JsonProcessingException e) {
+                    return new Line(number, null, List.of(translatorService.process(
+                            "recipe.import.line.unreadable", new Object[]{e.getOriginalMessage()})));
+                }
+            }
+        };
+    }
+
+    private Iterator<Line> readCsv(BufferedReader reader) throws IOException {
+        MappingIterator<List<String>> rows = CSV_READER.readValues(reader);
+
+        return new LineIterator() {
+            private Map<String, Integer> columns;
+
+            @Override
+            protected Line readNext() throws IOException {
+                // Quoted values may span several lines, so the row number is where the row starts
+                long number = rows.getCurrentLocation().getLineNr();
+                try {
+                    if (!rows.hasNextValue()) {
+                        return null;
+                    }
+                    List<String> values = rows.nextValue();
+                    if (columns == null) {
+                        columns = new HashMap<>();
+                        for (int i = 0; i < values.size(); i++) {
+                            columns.putIfAbsent(values.get(i).trim(), i);
+                        }
+                        return readNext();
+                    }
+                    return toLine(number, values, columns);
+                } catch (JsonProcessingException e) {
+                    throw new UnreadableImportException(number, e.getOriginalMessage(), e);
+                }
+            }
+        };
+    }
+
+    private Line toLine(long number, List<String> values, Map<String, Integer> columns) {
+        RecipeRequestDto recipe = new RecipeRequestDto();
+        List<String> errors = new ArrayList<>();
+        recipe.setTitle(column(values, columns, "title"));
+        recipe.setDescription(column(values, columns, "description"));
+        recipe.setInstruction(column(values, columns, "instruction"));
+
+        String ingredients = column(values, columns, "ingredients");
+        if (ingredients != null) {
+            try {
+                recipe.setIngredients(Arrays.stream(objectMapper.readValue(ingredients, String[].class))
+                        .map(RecipeImportReader::toIngredient)
+                        .toList());
+            } catch (JsonProcessingException e) {
+                errors.add(translatorService.process("recipe.import.ingredients.invalid"));
+            }
+        }
+
+        String vegetarian = column(values, columns, "vegetarian");
+        if (vegetarian != null) {
+            if (vegetarian.equalsIgnoreCase(Boolean.TRUE.toString())
+                    || vegetarian.equalsIgnoreCase(Boolean.FALSE.toString())) {
+                recipe.setVegetarian(Boolean.parseBoolean(vegetarian));
+            } else {
+                errors.add(translatorService.process("recipe.import.vegetarian.invalid"));
+            }
+        }
+
+        String servings = column(values, columns, "servings");
+        if (servings != null) {
+            try {
+                recipe.setServings(Integer.parseInt(servings.trim()));
+            } catch (NumberFormatException e) {
+                errors.add(translatorService.process("recipe.import.servings.invalid"));
+            }
+        }
+
+        return errors.isEmpty() ? new Line(number, recipe, List.of()) : new Line(number, null, errors);
+    }
+
+    // Blank and missing values both read as absent, which validation then reports
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size() || !StringUtils.hasText(values.get(index))) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private static RecipeRequestDto.IngredientRequestDto toIngredient(String name) {
+        RecipeRequestDto.IngredientRequestDto ingredient = new RecipeRequestDto.IngredientRequestDto();
+        ingredient.setName(name);
+        return ingredient;
+    }
+
+    private abstract static class LineIterator implements Iterator<Line> {
+        private Line next;
+        private boolean done;
+
+        // The next line, or null at the end of the file
+        protected abstract Line readNext() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = readNext();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Line next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Line line = next;
+            next = null;
+            return line;
+        }
+    }
+}
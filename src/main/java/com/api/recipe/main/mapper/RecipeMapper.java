@@ -0,0 +1,111 @@
+package com.api.recipe.main.mapper;
+
+import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.dto.response.IngredientSuggestionDto;
+import com.api.recipe.main.dto.response.RecipeCreatedDto;
+import com.api.recipe.main.dto.response.RecipeFacetsDto;
+import com.api.recipe.main.dto.response.RecipeSummaryDto;
+import com.api.recipe.main.dto.response.RecipeUpdatedDto;
+import com.api.recipe.main.dto.response.RecipeViewDto;
+import com.api.recipe.main.entity.IngredientName;
+import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.projection.RecipeExportProjection;
+import com.api.recipe.main.projection.RecipeFacetProjection;
+import com.api.recipe.main.projection.RecipeSummaryProjection;
+import com.api.recipe.main.projection.RecipeViewProjection;
+import com.api.recipe.main.search.IngredientSuggestIndex;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Recipe conversions, generated at compile time into plain getter/setter calls (see
+ * {@code RecipeMapperImpl} under target/generated-sources) instead of copying properties by reflection.
+ * Every target property has to be mapped or ignored explicitly, so a field added to a DTO or to the
+ * entity fails the build until its mapping is decided.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface RecipeMapper {
+
+    RecipeCreatedDto toCreatedDto(Recipe recipe);
+
+    @Mapping(target = "modified", ignore = true)
+    RecipeUpdatedDto toUpdatedDto(Recipe recipe);
+
+    RecipeViewDto toViewDto(RecipeViewProjection recipe);
+
+    // Search and export rows: the ingredients of the whole page or chunk are loaded separately, in one query
+    @Mapping(target = "ingredients", source = "ingredientViews", qualifiedByName = "sameList")
+    RecipeViewDto toViewDto(Recipe recipe, List<RecipeViewDto.IngredientViewDto> ingredientViews);
+
+    @Mapping(target = "ingredients", source = "ingredientViews", qualifiedByName = "sameList")
+    RecipeViewDto toViewDto(RecipeExportProjection recipe, List<RecipeViewDto.IngredientViewDto> ingredientViews);
+
+    RecipeSummaryDto toSummaryDto(RecipeSummaryProjection recipe);
+
+    RecipeViewDto.IngredientViewDto toIngredientViewDto(IngredientName ingredient);
+
+    // Ingredients keyed by position, listed in position order
+    default List<RecipeViewDto.IngredientViewDto> toIngredientViewDtos(SortedMap<Integer, IngredientName> ingredients) {
+        return ingredients.values().stream().map(this::toIngredientViewDto).toList();
+    }
+
+    IngredientSuggestionDto toSuggestionDto(IngredientSuggestIndex.Suggestion suggestion);
+
+    IngredientSuggestionDto toSuggestionDto(IngredientCountProjection ingredientCount);
+
+    /**
+     * Sums the counts per vegetarian flag and servings combination up to the vegetarian, servings and total
+     * counts, next to the top ingredient counts
+     */
+    default RecipeFacetsDto toFacetsDto(List<RecipeFacetProjection> counts,
+                                        List<IngredientCountProjection> ingredientCounts) {
+        Map<Boolean, Long> vegetarianCounts = new TreeMap<>();
+        Map<Integer, Long> servingsCounts = new TreeMap<>();
+        long total = 0;
+        for (RecipeFacetProjection count : counts) {
+            vegetarianCounts.merge(count.getVegetarian(), count.getCount(), Long::sum);
+            servingsCounts.merge(count.getServings(), count.getCount(), Long::sum);
+            total += count.getCount();
+        }
+
+        RecipeFacetsDto facets = new RecipeFacetsDto();
+        facets.setTotal(total);
+        vegetarianCounts.forEach((value, count) ->
+                facets.getVegetarian().add(new RecipeFacetsDto.FacetCountDto<>(value, count)));
+        servingsCounts.forEach((value, count) ->
+                facets.getServings().add(new RecipeFacetsDto.FacetCountDto<>(value, count)));
+        ingredientCounts.forEach(count ->
+                facets.getIngredients().add(new RecipeFacetsDto.FacetCountDto<>(count.getName(), count.getCount())));
+        return facets;
+    }
+
+    /**
+     * Copies the request fields onto a new or existing recipe. Ingredients are left to the caller,
+     * which has to link them to the recipe.
+     */
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "title", source = "title")
+    @Mapping(target = "description", source = "description")
+    @Mapping(target = "instruction", source = "instruction")
+    @Mapping(target = "vegetarian", source = "vegetarian")
+    @Mapping(target = "servings", source = "servings")
+    void updateRecipe(RecipeRequestDto recipeRequestDto, @MappingTarget Recipe recipe);
+
+    // The ingredient lists are built for the row they are passed with, so they are used as is
+    // instead of being copied into a new list per row
+    @Named("sameList")
+    default List<RecipeViewDto.IngredientViewDto> sameList(List<RecipeViewDto.IngredientViewDto> ingredientViews) {
+        return ingredientViews;
+    }
+}
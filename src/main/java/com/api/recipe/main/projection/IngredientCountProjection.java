@@ -0,0 +1,7 @@
+package com.api.recipe.main.projection;
+
+public interface IngredientCountProjection {
+    String getName();
+
+    Long getCount();
+}
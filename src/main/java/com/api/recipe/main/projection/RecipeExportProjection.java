@@ -0,0 +1,22 @@
+package com.api.recipe.main.projection;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public interface RecipeExportProjection {
+    Long getId();
+
+    UUID getUuid();
+
+    OffsetDateTime getCreatedAt();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getInstruction();
+
+    Boolean getVegetarian();
+
+    Integer getServings();
+}
@@ -0,0 +1,9 @@
+package com.api.recipe.main.projection;
+
+public interface RecipeFacetProjection {
+    Boolean getVegetarian();
+
+    Integer getServings();
+
+    Long getCount();
+}
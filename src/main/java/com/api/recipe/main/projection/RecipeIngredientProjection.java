@@ -0,0 +1,7 @@
+package com.api.recipe.main.projection;
+
+public interface RecipeIngredientProjection {
+    Long getRecipeId();
+
+    String getName();
+}
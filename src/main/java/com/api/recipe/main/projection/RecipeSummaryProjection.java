@@ -0,0 +1,13 @@
+package com.api.recipe.main.projection;
+
+import java.util.UUID;
+
+public interface RecipeSummaryProjection {
+    UUID getUuid();
+
+    String getTitle();
+
+    Boolean getVegetarian();
+
+    Integer getServings();
+}
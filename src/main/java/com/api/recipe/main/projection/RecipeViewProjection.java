@@ -1,11 +1,11 @@
 package com.api.recipe.main.projection;
 
-import com.api.recipe.main.entity.Ingredient;
+import com.api.recipe.main.entity.IngredientName;
 import com.api.recipe.main.entity.Recipe;
 import org.springframework.data.rest.core.config.Projection;
 
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.util.SortedMap;
 import java.util.UUID;
 
 @Projection(name = "recipeViewProjection", types = {Recipe.class})
@@ -18,7 +18,7 @@ public interface RecipeViewProjection {
 
     String getDescription();
 
-    List<Ingredient> getIngredients();
+    SortedMap<Integer, IngredientName> getIngredients();
 
     String getInstruction();
 
@@ -0,0 +1,50 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.entity.IngredientName;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@Transactional
+public interface IngredientNameRepository extends JpaRepository<IngredientName, Integer> {
+
+    // Names per statement, well below the bind parameter limit of PostgreSQL
+    int CHUNK_SIZE = 1000;
+
+    /**
+     * Inserts the names not in the dictionary yet. Concurrent inserts of the same name wait for each other
+     * on the unique constraint instead of failing, and the names are inserted in sorted order, so two
+     * transactions inserting overlapping names cannot deadlock.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ingredient_name (name) " +
+            "SELECT DISTINCT n.name FROM unnest(CAST(:names AS text[])) AS n(name) ORDER BY n.name " +
+            "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertMissing(@Param("names") String[] names);
+
+    List<IngredientName> findByNameIn(Collection<String> names);
+
+    /**
+     * Dictionary entries of the given names, inserting the missing ones: two statements per chunk of names
+     * instead of a lookup per ingredient
+     */
+    default Map<String, IngredientName> findOrCreateAll(Collection<String> names) {
+        List<String> distinctNames = names.stream().distinct().toList();
+        Map<String, IngredientName> entries = new HashMap<>(distinctNames.size() * 2);
+        for (int from = 0; from < distinctNames.size(); from += CHUNK_SIZE) {
+            List<String> chunk = distinctNames.subList(from, Math.min(from + CHUNK_SIZE, distinctNames.size()));
+            insertMissing(chunk.toArray(String[]::new));
+            findByNameIn(chunk).forEach(entry -> entries.put(entry.getName(), entry));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,39 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Custom set-based deletes, mixed into {@link RecipeRepository}: each one is a single statement deleting
+ * the recipes and their ingredient links, returning what it deleted, so no recipe is loaded beforehand.
+ * Must be called within a transaction.
+ */
+public interface RecipeDeleteRepository {
+
+    /**
+     * What a delete removed: the ids and UUIDs of the recipes, and the distinct ingredient names of their
+     * links, each with its number of links
+     */
+    record DeletedRecipes(List<Long> ids, List<UUID> uuids, Map<String, Long> ingredientNameCounts) {
+    }
+
+    /**
+     * Deletes the recipe with the given UUID, only if it has the given version when one is given
+     */
+    DeletedRecipes deleteByUuid(UUID uuid, Long version);
+
+    /**
+     * Deletes the recipes with the given UUIDs; unknown UUIDs are ignored
+     */
+    DeletedRecipes deleteByUuidIn(Collection<UUID> uuids);
+
+    /**
+     * Deletes the recipes matching the filter, with the same conditions as the search specifications
+     * (see {@link com.api.recipe.main.specification.RecipeSpecification})
+     */
+    DeletedRecipes deleteMatching(RecipeSearchRequestDto filter);
+}
@@ -0,0 +1,80 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class RecipeDeleteRepositoryImpl implements RecipeDeleteRepository {
+
+    // Recipes and links in one statement: the links of the recipes the first DELETE returns go too, and the
+    // foreign key is checked once both are gone. The deleted recipes come back as rows with an id, the
+    // deleted links as one row per distinct name with their count.
+    private static final String DELETE_RECIPES =
+            "WITH deleted AS (DELETE FROM recipe WHERE %s RETURNING id, uuid), " +
+                    "links AS (DELETE FROM recipe_ingredient WHERE recipe_id IN (SELECT id FROM deleted) " +
+                    "RETURNING ingredient_name_id) " +
+                    "SELECT id, uuid, NULL AS name, NULL AS count FROM deleted " +
+                    "UNION ALL " +
+                    "SELECT NULL, NULL, n.name, count(*) FROM links l " +
+                    "JOIN ingredient_name n ON n.id = l.ingredient_name_id GROUP BY n.name";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public DeletedRecipes deleteByUuid(UUID uuid, Long version) {
+        return version == null
+                ? delete("uuid = ?", List.of(uuid))
+                : delete("uuid = ? AND version = ?", List.of(uuid, version));
+    }
+
+    @Override
+    public DeletedRecipes deleteByUuidIn(Collection<UUID> uuids) {
+        // One array parameter, so the statement is the same whatever the number of UUIDs
+        return delete("uuid = ANY(?)", List.of((Object) uuids.toArray(UUID[]::new)));
+    }
+
+    @Override
+    public DeletedRecipes deleteMatching(RecipeSearchRequestDto filter) {
+        List<Object> parameters = new ArrayList<>();
+        return delete(RecipeFilterSql.where(filter, null, parameters), parameters);
+    }
+
+    private DeletedRecipes delete(String condition, List<Object> parameters) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_RECIPES.formatted(condition))) {
+                RecipeFilterSql.bind(statement, parameters);
+                return read(statement);
+            }
+        });
+    }
+
+    private static DeletedRecipes read(PreparedStatement statement) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        List<UUID> uuids = new ArrayList<>();
+        Map<String, Long> ingredientNameCounts = new HashMap<>();
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                long id = rows.getLong("id");
+                if (rows.wasNull()) {
+                    ingredientNameCounts.put(rows.getString("name"), rows.getLong("count"));
+                } else {
+                    ids.add(id);
+                    uuids.add(rows.getObject("uuid", UUID.class));
+                }
+            }
+        }
+        return new DeletedRecipes(ids, uuids, ingredientNameCounts);
+    }
+}
@@ -0,0 +1,21 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.projection.RecipeExportProjection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Custom query for the recipe export, mixed into {@link RecipeRepository}
+ */
+public interface RecipeExportRepository {
+
+    /**
+     * Streams the columns of every recipe matching the specification, ordered by id unless the
+     * specification orders the query itself. Rows are read through a database cursor in batches of
+     * a bounded size and are not attached to the persistence context, so memory use does not depend
+     * on the number of rows. Must be called within a transaction and the stream must be closed.
+     */
+    Stream<RecipeExportProjection> streamForExport(Specification<Recipe> specification);
+}
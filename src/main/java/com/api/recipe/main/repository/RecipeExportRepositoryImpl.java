@@ -0,0 +1,81 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.common.entity.BaseEntity;
+import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.projection.RecipeExportProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class RecipeExportRepositoryImpl implements RecipeExportRepository {
+
+    // Rows per round trip of the cursor; the PostgreSQL driver only uses a cursor inside a transaction
+    private static final int FETCH_SIZE = 1000;
+    private static final String CREATED_AT = "createdAt";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<RecipeExportProjection> streamForExport(Specification<Recipe> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Recipe> root = query.from(Recipe.class);
+        query.multiselect(
+                root.get(BaseEntity.Fields.ID),
+                root.get(Recipe.Fields.UUID),
+                root.get(CREATED_AT),
+                root.get(Recipe.Fields.TITLE),
+                root.get(Recipe.Fields.DESCRIPTION),
+                root.get(Recipe.Fields.INSTRUCTION),
+                root.get(Recipe.Fields.VEGETARIAN),
+                root.get(Recipe.Fields.SERVINGS)
+        );
+        query.orderBy(cb.asc(root.get(BaseEntity.Fields.ID)));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(ExportRow::new);
+    }
+
+    @Getter
+    private static class ExportRow implements RecipeExportProjection {
+        private final Long id;
+        private final UUID uuid;
+        private final OffsetDateTime createdAt;
+        private final String title;
+        private final String description;
+        private final String instruction;
+        private final Boolean vegetarian;
+        private final Integer servings;
+
+        private ExportRow(Tuple tuple) {
+            this.id = tuple.get(0, Long.class);
+            this.uuid = tuple.get(1, UUID.class);
+            this.createdAt = tuple.get(2, OffsetDateTime.class);
+            this.title = tuple.get(3, String.class);
+            this.description = tuple.get(4, String.class);
+            this.instruction = tuple.get(5, String.class);
+            this.vegetarian = tuple.get(6, Boolean.class);
+            this.servings = tuple.get(7, Integer.class);
+        }
+    }
+}
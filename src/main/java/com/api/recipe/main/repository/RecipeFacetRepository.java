@@ -0,0 +1,30 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.projection.RecipeFacetProjection;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grouped counts for the search facets, mixed into {@link RecipeRepository}
+ */
+public interface RecipeFacetRepository {
+
+    /**
+     * The counts of the recipes matching a filter: per combination of vegetarian flag and servings (the counts
+     * per vegetarian flag, per servings and in total are sums of these rows), and per ingredient name,
+     * lower-cased, for the names used by the most recipes, most used first
+     */
+    record FacetCounts(List<RecipeFacetProjection> byVegetarianAndServings,
+                       List<IngredientCountProjection> topIngredients) {
+    }
+
+    /**
+     * Counts the recipes matching the filter in one statement, which reads the matching recipe rows once and
+     * groups them both ways with GROUPING SETS. Given recipe ids, resolved by the ingredient index, they
+     * replace the ingredient filters.
+     */
+    FacetCounts countFacets(RecipeSearchRequestDto filter, Collection<Long> recipeIds, int topIngredients);
+}
@@ -0,0 +1,88 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.projection.RecipeFacetProjection;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class RecipeFacetRepositoryImpl implements RecipeFacetRepository {
+
+    // Each matching recipe joined with its ingredient names (split from ingredient_names, so there is no join
+    // with the ingredient tables; a recipe without any keeps one row with no name), grouped per vegetarian flag
+    // and servings and per name in the same pass. Recipes count once per group, however many rows they have.
+    // The rows of the first grouping come back whole, then those of the second up to the limit, most used first.
+    private static final String COUNT_FACETS =
+            "WITH matched AS (SELECT id, vegetarian, servings, ingredient_names FROM recipe WHERE %s), " +
+                    "counts AS (SELECT m.vegetarian, m.servings, i.name, count(DISTINCT m.id) AS count, " +
+                    "grouping(i.name) AS per_recipe_row " +
+                    "FROM matched m " +
+                    "LEFT JOIN LATERAL unnest(string_to_array(m.ingredient_names, ?)) AS i(name) ON TRUE " +
+                    "GROUP BY GROUPING SETS ((m.vegetarian, m.servings), (i.name))) " +
+                    "SELECT * FROM (" +
+                    "SELECT vegetarian, servings, NULL AS name, count FROM counts WHERE per_recipe_row = 1 " +
+                    "UNION ALL " +
+                    "(SELECT NULL, NULL, name, count FROM counts WHERE per_recipe_row = 0 AND name IS NOT NULL " +
+                    "ORDER BY count DESC, name LIMIT ?)) facets " +
+                    "ORDER BY name IS NOT NULL, count DESC, name";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public FacetCounts countFacets(RecipeSearchRequestDto filter, Collection<Long> recipeIds, int topIngredients) {
+        List<Object> parameters = new ArrayList<>();
+        String condition = RecipeFilterSql.where(filter, recipeIds, parameters);
+        parameters.add(Recipe.INGREDIENT_NAMES_SEPARATOR);
+        parameters.add(Math.max(0, topIngredients));
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(COUNT_FACETS.formatted(condition))) {
+                RecipeFilterSql.bind(statement, parameters);
+                return read(statement);
+            }
+        });
+    }
+
+    private static FacetCounts read(PreparedStatement statement) throws SQLException {
+        List<RecipeFacetProjection> byVegetarianAndServings = new ArrayList<>();
+        List<IngredientCountProjection> topIngredients = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                String name = rows.getString("name");
+                if (name == null) {
+                    byVegetarianAndServings.add(new FacetRow(rows.getBoolean("vegetarian"),
+                            rows.getInt("servings"), rows.getLong("count")));
+                } else {
+                    topIngredients.add(new IngredientCountRow(name, rows.getLong("count")));
+                }
+            }
+        }
+        return new FacetCounts(byVegetarianAndServings, topIngredients);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class FacetRow implements RecipeFacetProjection {
+        private final Boolean vegetarian;
+        private final Integer servings;
+        private final Long count;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class IngredientCountRow implements IngredientCountProjection {
+        private final String name;
+        private final Long count;
+    }
+}
@@ -0,0 +1,97 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.common.config.FullTextFunctionContributor;
+import com.api.recipe.common.util.ConstantUtil;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import org.springframework.util.StringUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * The search filters as a native condition on the recipe table, for the statements the specifications of
+ * {@link com.api.recipe.main.specification.RecipeSpecification} cannot express. Matches the same recipes.
+ */
+final class RecipeFilterSql {
+
+    private RecipeFilterSql() {
+    }
+
+    /**
+     * Condition matching the filter, adding its bind values to the parameters. Given recipe ids, resolved by the
+     * ingredient index, they replace the ingredient filters.
+     */
+    static String where(RecipeSearchRequestDto filter, Collection<Long> recipeIds, List<Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getVegetarian() != null) {
+            conditions.add("vegetarian = ?");
+            parameters.add(filter.getVegetarian());
+        }
+        if (filter.getServings() != null) {
+            conditions.add("servings = ?");
+            parameters.add(filter.getServings());
+        }
+        if (StringUtils.hasText(filter.getInstruction())) {
+            if (filter.getInstructionMode() == RecipeSearchRequestDto.InstructionMode.FULLTEXT) {
+                conditions.add("instruction" + FullTextFunctionContributor.TSVECTOR_COLUMN_SUFFIX
+                        + " @@ websearch_to_tsquery('" + FullTextFunctionContributor.TEXT_SEARCH_CONFIG + "', ?)");
+                parameters.add(filter.getInstruction());
+            } else {
+                conditions.add("lower(instruction) LIKE ?");
+                parameters.add(like(filter.getInstruction()));
+            }
+        }
+        if (recipeIds != null) {
+            conditions.add("id = ANY(?)");
+            parameters.add(recipeIds.toArray(Long[]::new));
+        } else {
+            List<String> included = RecipeSearchRequestDto.ingredientTerms(filter.getIncludedIngredients());
+            List<String> excluded = RecipeSearchRequestDto.ingredientTerms(filter.getExcludedIngredients());
+            if (!included.isEmpty()) {
+                conditions.add(hasIngredientNamed(included, parameters));
+            }
+            if (!excluded.isEmpty()) {
+                conditions.add("NOT " + hasIngredientNamed(excluded, parameters));
+            }
+        }
+
+        return conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions);
+    }
+
+    /**
+     * Binds the parameters in order; arrays of ids and UUIDs are bound as one array parameter each
+     */
+    static void bind(PreparedStatement statement, List<Object> parameters) throws SQLException {
+        Connection connection = statement.getConnection();
+        for (int i = 0; i < parameters.size(); i++) {
+            Object parameter = parameters.get(i);
+            if (parameter instanceof UUID[] uuids) {
+                parameter = connection.createArrayOf("uuid", uuids);
+            } else if (parameter instanceof Long[] ids) {
+                parameter = connection.createArrayOf("bigint", ids);
+            }
+            statement.setObject(i + 1, parameter);
+        }
+    }
+
+    // Same as the ingredient specifications: ingredient_names holds the lower-cased names, so it is matched as is
+    // and its trigram index applies
+    private static String hasIngredientNamed(List<String> terms, List<Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        for (String term : terms) {
+            conditions.add("ingredient_names LIKE ?");
+            parameters.add(like(term));
+        }
+        return "(" + String.join(" OR ", conditions) + ")";
+    }
+
+    private static String like(String keyword) {
+        return ConstantUtil.WILDCARD_DELIMITER + keyword.toLowerCase(Locale.ROOT) + ConstantUtil.WILDCARD_DELIMITER;
+    }
+}
@@ -0,0 +1,22 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.dto.request.RecipeRequestDto;
+
+import java.util.stream.Stream;
+
+/**
+ * Custom bulk insert for the recipe import, mixed into {@link RecipeRepository}
+ */
+public interface RecipeImportRepository {
+
+    /**
+     * Inserts the recipes and their ingredients without going through entities: the recipes are streamed
+     * with COPY into a temporary staging table, then moved into the recipe, ingredient dictionary and
+     * ingredient link tables by three INSERT ... SELECT statements, with recipe ids reserved from the entity
+     * sequence in blocks, as Hibernate does, and UUIDs generated by the database. The recipes must be valid. Must be called within a
+     * transaction.
+     *
+     * @return number of inserted recipes
+     */
+    long importRecipes(Stream<RecipeRequestDto> recipes);
+}
@@ -0,0 +1,166 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.common.util.ConstantUtil;
+import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.entity.Recipe;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class RecipeImportRepositoryImpl implements RecipeImportRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // Increment of recipe_seq: each nextval() reserves the block of ids up to the value, like Hibernate's
+    // pooled optimizer does with the allocation size of the entity sequence
+    private static final int ID_BLOCK_SIZE = 50;
+
+    // Rows are numbered in file order; their ids are assigned from reserved blocks once they are all staged
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMPORARY TABLE recipe_import (" +
+                    "row_number BIGINT GENERATED ALWAYS AS IDENTITY, " +
+                    "recipe_id BIGINT, " +
+                    "title TEXT NOT NULL, " +
+                    "description TEXT NOT NULL, " +
+                    "instruction TEXT NOT NULL, " +
+                    "vegetarian BOOLEAN NOT NULL, " +
+                    "servings INTEGER NOT NULL, " +
+                    "ingredients TEXT[] NOT NULL, " +
+                    "ingredient_names TEXT NOT NULL" +
+                    ") ON COMMIT DROP";
+
+    private static final String COPY_STAGING_TABLE =
+            "COPY recipe_import (title, description, instruction, vegetarian, servings, ingredients, " +
+                    "ingredient_names) FROM STDIN WITH (FORMAT csv)";
+
+    // One nextval() per block of rows, the row taking its offset within the block, so an import uses up the
+    // sequence as fast as entity inserts do. Hibernate only hands out the blocks of the values it fetched
+    // itself, so these ids never collide with the ones it assigns.
+    private static final String ASSIGN_IDS =
+            "UPDATE recipe_import s SET recipe_id = b.last_id - " + (ID_BLOCK_SIZE - 1) +
+                    " + (s.row_number - 1) % " + ID_BLOCK_SIZE + " " +
+                    "FROM (SELECT block, nextval('recipe_seq') AS last_id " +
+                    "FROM generate_series(0, ((SELECT count(*) FROM recipe_import) + " + (ID_BLOCK_SIZE - 1) +
+                    ") / " + ID_BLOCK_SIZE + " - 1) AS block) b " +
+                    "WHERE (s.row_number - 1) / " + ID_BLOCK_SIZE + " = b.block";
+
+    private static final String INSERT_RECIPES =
+            "INSERT INTO recipe (id, uuid, title, description, ingredient_names, instruction, vegetarian, servings, " +
+                    "created_at, updated_at, modified_by) " +
+                    "SELECT recipe_id, gen_random_uuid(), title, description, ingredient_names, " +
+                    "instruction, vegetarian, servings, now(), now(), ? FROM recipe_import";
+
+    // Names missing from the dictionary, in sorted order like IngredientNameRepository#insertMissing
+    private static final String INSERT_INGREDIENT_NAMES =
+            "INSERT INTO ingredient_name (name) " +
+                    "SELECT DISTINCT i.name FROM recipe_import s CROSS JOIN LATERAL unnest(s.ingredients) AS i(name) " +
+                    "ORDER BY i.name ON CONFLICT (name) DO NOTHING";
+
+    // Positions follow the order of the ingredients in the file, spaced like the ones Recipe assigns
+    private static final String INSERT_INGREDIENTS =
+            "INSERT INTO recipe_ingredient (recipe_id, ingredient_name_id, position) " +
+                    "SELECT s.recipe_id, n.id, i.position * " + Recipe.INGREDIENT_POSITION_GAP + " " +
+                    "FROM recipe_import s CROSS JOIN LATERAL unnest(s.ingredients) WITH ORDINALITY AS i(name, position) " +
+                    "JOIN ingredient_name n ON n.name = i.name";
+
+    private static final ObjectWriter STAGING_ROW_WRITER = new CsvMapper().writer(CsvSchema.builder()
+            .addColumn("title")
+            .addColumn("description")
+            .addColumn("instruction")
+            .addColumn("vegetarian")
+            .addColumn("servings")
+            .addColumn("ingredients")
+            .addColumn("ingredient_names")
+            .build());
+
+    private final EntityManager entityManager;
+
+    @Override
+    public long importRecipes(Stream<RecipeRequestDto> recipes) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+            }
+            copyToStagingTable(connection, recipes);
+            executeUpdate(connection, ASSIGN_IDS);
+
+            int imported = executeUpdate(connection, INSERT_RECIPES, ConstantUtil.SYSTEM_DELIMITER);
+            executeUpdate(connection, INSERT_INGREDIENT_NAMES);
+            executeUpdate(connection, INSERT_INGREDIENTS);
+            return (long) imported;
+        });
+    }
+
+    private static void copyToStagingTable(Connection connection, Stream<RecipeRequestDto> recipes)
+            throws SQLException {
+        PGCopyOutputStream copyStream = new PGCopyOutputStream(
+                connection.unwrap(PGConnection.class), COPY_STAGING_TABLE, COPY_BUFFER_SIZE);
+        try {
+            SequenceWriter rows = STAGING_ROW_WRITER.writeValues(
+                    new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8)));
+            for (RecipeRequestDto recipe : (Iterable<RecipeRequestDto>) recipes::iterator) {
+                List<String> names = recipe.getIngredients().stream()
+                        .map(RecipeRequestDto.IngredientRequestDto::getName)
+                        .toList();
+                // ingredient_names built like the entity does, not with the collation-dependent lower() of the database
+                rows.write(new Object[]{recipe.getTitle(), recipe.getDescription(), recipe.getInstruction(),
+                        recipe.getVegetarian(), recipe.getServings(), toArrayLiteral(names),
+                        Recipe.joinIngredientNames(names)});
+            }
+            // Closing flushes the last rows and ends the COPY
+            rows.close();
+        } catch (IOException | RuntimeException e) {
+            // Abort the COPY so the connection is left usable for the rollback
+            if (copyStream.isActive()) {
+                copyStream.cancelCopy();
+            }
+            throw e instanceof IOException ioException ? new UncheckedIOException(ioException) : (RuntimeException) e;
+        }
+    }
+
+    private static int executeUpdate(Connection connection, String sql, String... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    // PostgreSQL array literal with every element quoted, e.g. {"salt","2 \"big\" eggs"}
+    private static String toArrayLiteral(List<String> names) {
+        StringBuilder literal = new StringBuilder("{");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append('"');
+            String name = names.get(i);
+            for (int j = 0; j < name.length(); j++) {
+                char c = name.charAt(j);
+                if (c == '"' || c == '\\') {
+                    literal.append('\\');
+                }
+                literal.append(c);
+            }
+            literal.append('"');
+        }
+        return literal.append('}').toString();
+    }
+}
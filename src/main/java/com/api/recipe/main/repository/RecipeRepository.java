@@ -2,15 +2,74 @@ package com.api.recipe.main.repository;
 
 import com.api.recipe.common.repository.BaseRepository;
 import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.projection.RecipeIngredientProjection;
 import com.api.recipe.main.projection.RecipeViewProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface RecipeRepository extends BaseRepository<Recipe> {
+public interface RecipeRepository extends BaseRepository<Recipe>, RecipeExportRepository,
+        RecipeImportRepository, RecipeFacetRepository, RecipeDeleteRepository {
     Optional<Recipe> findEntityByUuid(UUID uuid);
 
     Optional<RecipeViewProjection> findByUuid(UUID uuid);
+
+    /**
+     * Current version of a recipe, without loading the recipe or its ingredients
+     */
+    @Query("SELECT r.version FROM Recipe r WHERE r.uuid = :uuid")
+    Optional<Long> findVersionByUuid(@Param("uuid") UUID uuid);
+
+    /**
+     * Loads the ingredient names of several recipes in one round trip
+     */
+    @Query(value = "SELECT ri.recipe_id AS recipeId, n.name AS name FROM recipe_ingredient ri " +
+            "JOIN ingredient_name n ON n.id = ri.ingredient_name_id " +
+            "WHERE ri.recipe_id IN :recipeIds ORDER BY ri.recipe_id, ri.position", nativeQuery = true)
+    List<RecipeIngredientProjection> findIngredientsByRecipeIdIn(@Param("recipeIds") Collection<Long> recipeIds);
+
+    /**
+     * Streams the ingredient names of every recipe; must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT ri.recipe_id AS recipeId, n.name AS name FROM recipe_ingredient ri " +
+            "JOIN ingredient_name n ON n.id = ri.ingredient_name_id", nativeQuery = true)
+    Stream<RecipeIngredientProjection> streamAllIngredients();
+
+    /**
+     * Streams the id of every recipe; must be consumed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.id FROM Recipe r")
+    Stream<Long> streamAllIds();
+
+    /**
+     * Number of recipe ingredients per ingredient name, as stored
+     */
+    @Query(value = "SELECT n.name AS name, count(*) AS count FROM recipe_ingredient ri " +
+            "JOIN ingredient_name n ON n.id = ri.ingredient_name_id GROUP BY n.name", nativeQuery = true)
+    List<IngredientCountProjection> countIngredientsByName();
+
+    /**
+     * The most used lower-cased ingredient names starting with the pattern, a LIKE prefix pattern escaped with
+     * a backslash, with their number of recipe ingredients, most used first
+     */
+    @Query(value = "SELECT lower(n.name) AS name, count(*) AS count FROM ingredient_name n " +
+            "JOIN recipe_ingredient ri ON ri.ingredient_name_id = n.id " +
+            "WHERE lower(n.name) LIKE :pattern ESCAPE '\\' " +
+            "GROUP BY lower(n.name) ORDER BY count DESC, name LIMIT :limit", nativeQuery = true)
+    List<IngredientCountProjection> findTopIngredientsByPrefix(@Param("pattern") String pattern,
+                                                               @Param("limit") int limit);
 }
@@ -0,0 +1,346 @@
+package com.api.recipe.main.search;
+
+import com.api.recipe.common.util.ConstantUtil;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.event.RecipeChangedEvent;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.api.recipe.main.event.RecipesImportedEvent;
+import com.api.recipe.main.projection.RecipeIngredientProjection;
+import com.api.recipe.main.repository.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory inverted index over ingredient names, resolving the included/excluded ingredient
+ * filters of recipe search to recipe ids instead of LIKE joins on the ingredient table.
+ * <p>
+ * Every distinct lower-cased name maps to a compressed bitmap of the recipes using it, and a trigram
+ * dictionary narrows a search term down to the names that may contain it; a bitmap of every recipe id
+ * answers exclusions without inclusions. The matching ids stay a bitmap, so a search can be paged on it and
+ * only load the recipes of the page. The index is loaded from the database on startup and then follows the
+ * recipe changes committed by this instance, so it is only meant for deployments where a single instance
+ * writes recipes.
+ */
+@Slf4j
+@Component
+public class IngredientIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final RecipeRepository recipeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Rebuilds run one at a time, as startup and imports may each start one
+    private final Lock rebuildLock = new ReentrantLock();
+    private Map<String, Roaring64Bitmap> recipesByName = new HashMap<>();
+    private Map<String, Set<String>> namesByGram = new HashMap<>();
+    private Roaring64Bitmap allRecipeIds = new Roaring64Bitmap();
+    // Changes committed while a rebuild reads the table, replayed once the rebuilt index is swapped in
+    private List<Runnable> pendingChanges;
+    private volatile boolean ready;
+
+    public IngredientIndex(RecipeRepository recipeRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${recipe.search.ingredient-index.enabled:false}") boolean enabled,
+                           @Value("${recipe.search.ingredient-index.max-candidates:10000}") int maxCandidates) {
+        this.recipeRepository = recipeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Rebuilds may run after the commit of another transaction, whose resources are still bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Ids of the recipes matching the ingredient filters, in ascending order
+     */
+    public record Match(Roaring64Bitmap recipeIds) {
+
+        public long count() {
+            return recipeIds.getLongCardinality();
+        }
+
+        /**
+         * The at most {@code limit} ids from the {@code offset}-th one: the ids of a page in id order
+         */
+        public List<Long> page(long offset, int limit) {
+            if (offset >= count() || limit <= 0) {
+                return List.of();
+            }
+
+            List<Long> ids = new ArrayList<>((int) Math.min(limit, count() - offset));
+            PeekableLongIterator iterator = recipeIds.getLongIteratorFrom(recipeIds.select(offset));
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add(iterator.next());
+            }
+            return ids;
+        }
+
+        public List<Long> ids() {
+            return page(0, (int) Math.min(count(), Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Whether the index is enabled and loaded, i.e. able to answer {@link #match}
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Resolves the ingredient filters: recipes having an ingredient that contains any included term (every
+     * recipe if none is given), minus those having an ingredient that contains any excluded term. Returns
+     * empty when the index is not ready, no term is given or a term uses LIKE wildcards, in which case the
+     * caller should filter in SQL.
+     */
+    public Optional<Match> match(List<String> includedIngredients, List<String> excludedIngredients) {
+        List<String> included = normalizeTerms(includedIngredients);
+        List<String> excluded = normalizeTerms(excludedIngredients);
+        if (!isReady() || (included.isEmpty() && excluded.isEmpty())
+                || Stream.concat(included.stream(), excluded.stream()).anyMatch(IngredientIndex::hasWildcard)) {
+            return Optional.empty();
+        }
+
+        Roaring64Bitmap recipeIds;
+        lock.readLock().lock();
+        try {
+            recipeIds = included.isEmpty() ? allRecipeIds.clone() : recipesContainingAny(included);
+            recipeIds.andNot(recipesContainingAny(excluded));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(new Match(recipeIds));
+    }
+
+    /**
+     * Whether the ids of the match are few enough to be passed to a query, up to the configured maximum
+     */
+    public boolean fitsInQuery(Match match) {
+        return match.count() <= maxCandidates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reloads the whole index from the ingredient table. Searches keep using the previous index
+     * (or SQL, on startup) until the new one is complete.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            reload();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void reload() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, Roaring64Bitmap> loadedRecipesByName = new HashMap<>();
+        Map<String, Set<String>> loadedNamesByGram = new HashMap<>();
+        Roaring64Bitmap loadedRecipeIds = new Roaring64Bitmap();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<RecipeIngredientProjection> rows = recipeRepository.streamAllIngredients()) {
+                    rows.forEach(row -> add(loadedRecipesByName, loadedNamesByGram,
+                            normalize(row.getName()), row.getRecipeId()));
+                }
+                try (Stream<Long> ids = recipeRepository.streamAllIds()) {
+                    ids.forEach(loadedRecipeIds::addLong);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Unable to load the ingredient index, ingredient filters stay in SQL", e);
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        loadedRecipesByName.values().forEach(Roaring64Bitmap::runOptimize);
+        loadedRecipeIds.runOptimize();
+
+        lock.writeLock().lock();
+        try {
+            recipesByName = loadedRecipesByName;
+            namesByGram = loadedNamesByGram;
+            allRecipeIds = loadedRecipeIds;
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Ingredient index loaded with {} distinct ingredient names", loadedRecipesByName.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        applyChange(() -> apply(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesDeleted(RecipesDeletedEvent event) {
+        applyChange(() -> apply(event));
+    }
+
+    // Imports insert too many recipes to replay one by one, so the index is reloaded instead,
+    // off the request thread, which would otherwise wait for the whole reload before responding
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    private void applyChange(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces the recipe's previous names with its current ones; replaying a change is harmless
+    private void apply(RecipeChangedEvent event) {
+        allRecipeIds.addLong(event.getId());
+        event.getPreviousIngredientNames().forEach(name -> remove(normalize(name), event.getId()));
+        event.getIngredientNames().forEach(name -> add(recipesByName, namesByGram, normalize(name), event.getId()));
+    }
+
+    // Only the bitmaps of the names the deleted recipes used drop them
+    private void apply(RecipesDeletedEvent event) {
+        Roaring64Bitmap deletedIds = new Roaring64Bitmap();
+        event.getIds().forEach(deletedIds::addLong);
+        allRecipeIds.andNot(deletedIds);
+        Set<String> names = new HashSet<>();
+        event.getIngredientNameCounts().keySet().forEach(name -> names.add(normalize(name)));
+        names.forEach(name -> {
+            Roaring64Bitmap recipeIds = recipesByName.get(name);
+            if (recipeIds != null) {
+                recipeIds.andNot(deletedIds);
+                removeIfUnused(name);
+            }
+        });
+    }
+
+    private static void add(Map<String, Roaring64Bitmap> recipesByName, Map<String, Set<String>> namesByGram,
+                            String name, long recipeId) {
+        recipesByName.computeIfAbsent(name, key -> {
+            grams(key).forEach(gram -> namesByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(key));
+            return new Roaring64Bitmap();
+        }).addLong(recipeId);
+    }
+
+    private void remove(String name, long recipeId) {
+        Roaring64Bitmap recipeIds = recipesByName.get(name);
+        if (recipeIds == null) {
+            return;
+        }
+
+        recipeIds.removeLong(recipeId);
+        removeIfUnused(name);
+    }
+
+    private void removeIfUnused(String name) {
+        if (recipesByName.get(name).isEmpty()) {
+            recipesByName.remove(name);
+            grams(name).forEach(gram -> {
+                Set<String> names = namesByGram.get(gram);
+                names.remove(name);
+                if (names.isEmpty()) {
+                    namesByGram.remove(gram);
+                }
+            });
+        }
+    }
+
+    private Roaring64Bitmap recipesContainingAny(List<String> terms) {
+        Roaring64Bitmap recipeIds = new Roaring64Bitmap();
+        terms.forEach(term -> namesContaining(term).forEach(name -> recipeIds.or(recipesByName.get(name))));
+        return recipeIds;
+    }
+
+    // Candidate names come from the rarest trigram of the term, then get checked for the whole term
+    private Collection<String> namesContaining(String term) {
+        Collection<String> candidates = recipesByName.keySet();
+        if (term.length() >= GRAM_LENGTH) {
+            for (String gram : grams(term)) {
+                Set<String> names = namesByGram.get(gram);
+                if (names == null) {
+                    return List.of();
+                }
+                if (names.size() < candidates.size()) {
+                    candidates = names;
+                }
+            }
+        }
+
+        return candidates.stream().filter(name -> name.contains(term)).toList();
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static List<String> normalizeTerms(List<String> terms) {
+        return RecipeSearchRequestDto.ingredientTerms(terms).stream().map(IngredientIndex::normalize).toList();
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // The SQL filter treats '%' and '_' in a term as LIKE wildcards, which plain substring matching cannot
+    private static boolean hasWildcard(String term) {
+        return term.contains(ConstantUtil.WILDCARD_DELIMITER) || term.contains("_");
+    }
+}
@@ -0,0 +1,266 @@
+package com.api.recipe.main.search;
+
+import com.api.recipe.main.event.RecipeChangedEvent;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.api.recipe.main.event.RecipesImportedEvent;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.repository.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory index of the distinct lower-cased ingredient names, sorted, with the number of recipe
+ * ingredients using each, answering ingredient name suggestions without a query.
+ * <p>
+ * The names starting with a prefix are a contiguous range of the sorted names, which is scanned for the most
+ * used ones. One- and two-letter prefixes cover too many names to scan, so the names of each are also kept
+ * sorted by use, and their suggestions are just the first entries.
+ * <p>
+ * The index is loaded from the database on startup and after imports, and follows the recipe changes
+ * committed by this instance in between. The counts only rank the suggestions: changes committed while the
+ * index is reloaded, or by other instances, may leave them slightly off until the next reload.
+ */
+@Slf4j
+@Component
+public class IngredientSuggestIndex {
+
+    // Prefixes up to this length keep their names ranked instead of being scanned
+    private static final int RANKED_PREFIX_LENGTH = 2;
+    // Most used first, then alphabetically
+    private static final Comparator<Suggestion> RANKING =
+            Comparator.comparingLong(Suggestion::count).reversed().thenComparing(Suggestion::name);
+
+    private final RecipeRepository recipeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    // Rebuilds run one at a time, as startup and imports may each start one
+    private final Lock rebuildLock = new ReentrantLock();
+    private volatile Entries entries = new Entries();
+    // Changes committed while a rebuild reads the table, applied to the rebuilt index before it is swapped in
+    private List<Runnable> pendingChanges;
+    private volatile boolean ready;
+
+    public IngredientSuggestIndex(RecipeRepository recipeRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${recipe.search.ingredient-suggest.enabled:true}") boolean enabled) {
+        this.recipeRepository = recipeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Rebuilds may run after the commit of another transaction, whose resources are still bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Suggested ingredient name, lower-cased, with the number of recipe ingredients using it
+     */
+    public record Suggestion(String name, long count) {
+    }
+
+    /**
+     * Whether the index is enabled and loaded, i.e. able to answer {@link #suggest}
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * The at most {@code limit} most used names starting with the prefix, compared case-insensitively, most
+     * used first. Returns empty when the index is not ready, in which case the caller should query the
+     * database.
+     */
+    public Optional<List<Suggestion>> suggest(String prefix, int limit) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+
+        String normalizedPrefix = normalize(prefix);
+        Entries current = entries;
+        if (!normalizedPrefix.isEmpty() && normalizedPrefix.length() <= RANKED_PREFIX_LENGTH) {
+            Set<Suggestion> ranked = current.rankedByPrefix.get(normalizedPrefix);
+            return Optional.of(ranked == null ? List.of() : ranked.stream().limit(limit).toList());
+        }
+
+        // Keeps the best names seen so far, the worst one on top to be replaced
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(Math.max(1, limit), RANKING.reversed());
+        for (Map.Entry<String, Long> entry : current.countsByName.tailMap(normalizedPrefix).entrySet()) {
+            String name = entry.getKey();
+            if (!name.startsWith(normalizedPrefix)) {
+                break;
+            }
+            if (best.size() < limit) {
+                best.add(new Suggestion(name, entry.getValue()));
+            } else if (limit > 0 && isBetter(name, entry.getValue(), best.peek())) {
+                best.poll();
+                best.add(new Suggestion(name, entry.getValue()));
+            }
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(best);
+        suggestions.sort(RANKING);
+        return Optional.of(suggestions);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reloads the whole index from the ingredient tables. Suggestions keep using the previous index (or the
+     * database, on startup) until the new one is complete.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            reload();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void reload() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        Entries loadedEntries = new Entries();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (IngredientCountProjection count : recipeRepository.countIngredientsByName()) {
+                    loadedEntries.add(normalize(count.getName()), count.getCount());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Unable to load the ingredient suggestion index, suggestions stay in SQL", e);
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            return;
+        }
+
+        synchronized (this) {
+            entries = loadedEntries;
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges = null;
+            ready = true;
+        }
+        log.info("Ingredient suggestion index loaded with {} distinct ingredient names",
+                loadedEntries.countsByName.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        applyChange(() -> {
+            event.getPreviousIngredientNames().forEach(this::decrement);
+            event.getIngredientNames().forEach(this::increment);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesDeleted(RecipesDeletedEvent event) {
+        applyChange(() -> event.getIngredientNameCounts()
+                .forEach((name, count) -> entries.add(normalize(name), -count)));
+    }
+
+    // Imports insert too many recipes to report their names, so the index is reloaded instead,
+    // off the request thread, which would otherwise wait for the whole reload before responding
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesImported(RecipesImportedEvent event) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Lookups never wait for changes; changes only wait for each other and for the swap of a rebuild
+    private synchronized void applyChange(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+
+        change.run();
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private void increment(String name) {
+        entries.add(normalize(name), 1);
+    }
+
+    private void decrement(String name) {
+        entries.add(normalize(name), -1);
+    }
+
+    // Same order as RANKING, without building a suggestion for the names that do not make it
+    private static boolean isBetter(String name, long count, Suggestion worst) {
+        return count > worst.count() || (count == worst.count() && name.compareTo(worst.name()) < 0);
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The counts by name, and the ranked names of every short prefix. Only one thread changes them at a time:
+     * the rebuild while loading them, then the changes one by one. A lookup running at the same time may miss
+     * the name being changed.
+     */
+    private static class Entries {
+        private final ConcurrentSkipListMap<String, Long> countsByName = new ConcurrentSkipListMap<>();
+        private final Map<String, ConcurrentSkipListSet<Suggestion>> rankedByPrefix = new ConcurrentHashMap<>();
+
+        // Names no recipe uses any more are dropped, so they are not suggested
+        private void add(String name, long delta) {
+            Long previousCount = countsByName.get(name);
+            long count = (previousCount == null ? 0 : previousCount) + delta;
+            if (previousCount != null) {
+                Suggestion previous = new Suggestion(name, previousCount);
+                shortPrefixes(name).forEach(prefix -> rankedByPrefix.get(prefix).remove(previous));
+            }
+            if (count <= 0) {
+                countsByName.remove(name);
+                return;
+            }
+
+            countsByName.put(name, count);
+            Suggestion current = new Suggestion(name, count);
+            shortPrefixes(name).forEach(prefix -> rankedByPrefix
+                    .computeIfAbsent(prefix, key -> new ConcurrentSkipListSet<>(RANKING))
+                    .add(current));
+        }
+
+        private static List<String> shortPrefixes(String name) {
+            return IntStream.rangeClosed(1, Math.min(RANKED_PREFIX_LENGTH, name.length()))
+                    .mapToObj(length -> name.substring(0, length))
+                    .toList();
+        }
+    }
+}
@@ -1,25 +1,88 @@
 package com.api.recipe.main.service;
 
+import com.api.recipe.common.entity.BaseEntity;
+import com.api.recipe.common.exception.BatchTooLargeException;
+import com.api.recipe.common.exception.PreconditionFailedException;
 import com.api.recipe.common.service.TranslatorService;
+import com.api.recipe.common.util.ConstantUtil;
+import com.api.recipe.common.util.CursorUtil;
+import com.api.recipe.common.util.DateUtil;
+import com.api.recipe.main.cache.RecipeFacetCache;
+import com.api.recipe.main.cache.RecipeSearchCache;
+import com.api.recipe.main.dto.request.RecipeDeleteRequestDto;
+import com.api.recipe.main.dto.request.RecipeFileFormat;
 import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.dto.response.IngredientSuggestionDto;
+import com.api.recipe.main.dto.response.RecipeBatchItemDto;
 import com.api.recipe.main.dto.response.RecipeCreatedDto;
+import com.api.recipe.main.dto.response.RecipeFacetsDto;
+import com.api.recipe.main.dto.response.RecipeImportResultDto;
+import com.api.recipe.main.dto.response.RecipeSummaryDto;
 import com.api.recipe.main.dto.response.RecipeUpdatedDto;
 import com.api.recipe.main.dto.response.RecipeViewDto;
-import com.api.recipe.main.entity.Ingredient;
+import com.api.recipe.main.entity.IngredientName;
 import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.event.RecipeChangedEvent;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.api.recipe.main.event.RecipesImportedEvent;
+import com.api.recipe.main.importer.RecipeImportReader;
+import com.api.recipe.main.mapper.RecipeMapper;
+import com.api.recipe.main.projection.RecipeExportProjection;
+import com.api.recipe.main.projection.RecipeIngredientProjection;
+import com.api.recipe.main.projection.RecipeSummaryProjection;
 import com.api.recipe.main.projection.RecipeViewProjection;
+import com.api.recipe.main.repository.IngredientNameRepository;
+import com.api.recipe.main.repository.RecipeDeleteRepository.DeletedRecipes;
+import com.api.recipe.main.repository.RecipeFacetRepository;
 import com.api.recipe.main.repository.RecipeRepository;
+import com.api.recipe.main.search.IngredientIndex;
+import com.api.recipe.main.search.IngredientSuggestIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.api.recipe.main.specification.RecipeSpecification.*;
 
@@ -27,32 +90,119 @@ import static com.api.recipe.main.specification.RecipeSpecification.*;
 @RequiredArgsConstructor
 public class RecipeService {
 
+    // Recipes per batched ingredient query and per flush of an export
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final CsvSchema EXPORT_CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("uuid")
+            .addColumn("createdAt")
+            .addColumn("title")
+            .addColumn("description")
+            .addColumn("ingredients")
+            .addColumn("instruction")
+            .addColumn("vegetarian")
+            .addColumn("servings")
+            .build();
+    private static final ObjectWriter EXPORT_CSV_WRITER = new CsvMapper().writer(EXPORT_CSV_SCHEMA.withHeader());
+    // Timers of searchRecipes, sliceRecipes and scrollRecipes: the latency histogram by pagination and view,
+    // and a plain timer by the filters used, whose combinations would multiply the histogram buckets
+    private static final String SEARCH_METRIC = "recipe.search";
+    private static final String SEARCH_FILTERS_METRIC = "recipe.search.filters";
+    private static final String SEARCH_TAG_NONE = "none";
+    private static final String SEARCH_TAG_MANY = "many";
+
     private final RecipeRepository recipeRepository;
+    private final IngredientNameRepository ingredientNameRepository;
     private final TranslatorService translatorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngredientIndex ingredientIndex;
+    private final IngredientSuggestIndex ingredientSuggestIndex;
+    private final RecipeSearchCache recipeSearchCache;
+    private final RecipeFacetCache recipeFacetCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final RecipeImportReader recipeImportReader;
+    private final RecipeMapper recipeMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${recipe.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${recipe.import.max-reported-rejections:1000}")
+    private int maxReportedRejections;
+
+    @Value("${recipe.search.facets.max-top-ingredients:50}")
+    private int maxTopIngredients;
+
+    @Value("${recipe.search.ingredient-suggest.max-limit:50}")
+    private int maxSuggestions;
 
     /**
      * Create new recipe
      */
     @Transactional
     public RecipeCreatedDto createRecipe(RecipeRequestDto recipeRequestDto) {
-        // Set new recipe
-        Recipe recipe = new Recipe();
-        BeanUtils.copyProperties(recipeRequestDto, recipe);
-        List<Ingredient> ingredients = recipeRequestDto.toIngredientEntities(recipe);
-        recipe.setIngredients(ingredients);
-
         // Save new recipe
-        Recipe savedRecipe = recipeRepository.save(recipe);
+        Recipe savedRecipe = recipeRepository.save(buildRecipe(recipeRequestDto,
+                findOrCreateIngredientNames(List.of(recipeRequestDto))));
+        publishCreated(savedRecipe);
 
         // Return created recipe DTO
-        RecipeCreatedDto recipeCreatedDto = new RecipeCreatedDto();
-        BeanUtils.copyProperties(savedRecipe, recipeCreatedDto);
-        return recipeCreatedDto;
+        return recipeMapper.toCreatedDto(savedRecipe);
+    }
+
+    /**
+     * Create several recipes in one transaction. Each item is validated on its own: invalid items are
+     * reported back with their errors, and the valid ones are inserted together in JDBC batches.
+     */
+    @Transactional
+    public List<RecipeBatchItemDto> createRecipes(List<RecipeRequestDto> recipeRequestDtos) {
+        if (recipeRequestDtos.size() > maxBatchSize) {
+            throw new BatchTooLargeException(maxBatchSize);
+        }
+
+        // Validate every item, keeping the valid ones
+        List<RecipeBatchItemDto> results = new ArrayList<>(recipeRequestDtos.size());
+        List<RecipeBatchItemDto> validItems = new ArrayList<>();
+        List<RecipeRequestDto> validRecipeRequestDtos = new ArrayList<>();
+        for (int index = 0; index < recipeRequestDtos.size(); index++) {
+            RecipeRequestDto recipeRequestDto = recipeRequestDtos.get(index);
+            RecipeBatchItemDto item = new RecipeBatchItemDto();
+            item.setIndex(index);
+            results.add(item);
+
+            List<String> errors = validateBatchItem(recipeRequestDto);
+            if (errors.isEmpty()) {
+                validItems.add(item);
+                validRecipeRequestDtos.add(recipeRequestDto);
+            } else {
+                item.setErrors(errors);
+            }
+        }
+
+        // Resolve the ingredient names of the whole batch at once
+        Map<String, IngredientName> ingredientNames = findOrCreateIngredientNames(validRecipeRequestDtos);
+        List<Recipe> recipes = validRecipeRequestDtos.stream()
+                .map(recipeRequestDto -> buildRecipe(recipeRequestDto, ingredientNames))
+                .toList();
+
+        // Save the valid recipes together; the inserts are flushed in batches on commit
+        List<Recipe> savedRecipes = recipeRepository.saveAll(recipes);
+        for (int i = 0; i < savedRecipes.size(); i++) {
+            Recipe savedRecipe = savedRecipes.get(i);
+            publishCreated(savedRecipe);
+
+            validItems.get(i).setCreated(true);
+            validItems.get(i).setRecipe(recipeMapper.toCreatedDto(savedRecipe));
+        }
+
+        return results;
     }
 
     /**
      * Get recipe by UUID
      */
+    @Transactional(readOnly = true)
     public RecipeViewDto getRecipe(UUID uuid) {
         // Find recipe
         RecipeViewProjection recipeViewProjection = recipeRepository.findByUuid(uuid)
@@ -60,49 +210,119 @@ public class RecipeService {
                         getRecipeNotFoundMessage(uuid)
                 ));
 
-        RecipeViewDto recipeViewDto = new RecipeViewDto();
-        BeanUtils.copyProperties(recipeViewProjection, recipeViewDto);
-        recipeViewDto.setIngredients(RecipeViewDto.fromIngredients(recipeViewProjection.getIngredients()));
-        return recipeViewDto;
+        return recipeMapper.toViewDto(recipeViewProjection);
     }
 
     /**
-     * Update recipe by UUID
+     * Current version (ETag) of a recipe, looked up without the recipe and its ingredients
+     */
+    @Transactional(readOnly = true)
+    public long getRecipeVersion(UUID uuid) {
+        return recipeRepository.findVersionByUuid(uuid)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        getRecipeNotFoundMessage(uuid)
+                ));
+    }
+
+    /**
+     * Import recipes from an NDJSON or CSV file in one transaction. The file is read as a stream and every
+     * line is validated like a create request; invalid lines are skipped and reported, and the valid ones
+     * are loaded with PostgreSQL COPY instead of one INSERT per row.
+     */
+    @Transactional
+    public RecipeImportResultDto importRecipes(InputStream inputStream, RecipeFileFormat format) throws IOException {
+        long startedAt = System.nanoTime();
+        RecipeImportResultDto result = new RecipeImportResultDto();
+
+        long imported;
+        try (Stream<RecipeImportReader.Line> lines = recipeImportReader.read(inputStream, format)) {
+            imported = recipeRepository.importRecipes(lines
+                    .filter(line -> acceptImportLine(line, result))
+                    .map(RecipeImportReader.Line::recipe));
+        }
+        if (imported > 0) {
+            eventPublisher.publishEvent(new RecipesImportedEvent(imported));
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - startedAt, 1);
+        result.setImported(imported);
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        result.setRecipesPerSecond(imported * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        return result;
+    }
+
+    /**
+     * Update recipe by UUID. Given an expected version (from If-Match), only that version of the recipe
+     * is updated; a recipe changed in the meantime fails with {@link PreconditionFailedException}.
      */
     @Transactional
-    public RecipeUpdatedDto updateRecipe(RecipeRequestDto recipeRequestDto, UUID uuid) {
+    public RecipeUpdatedDto updateRecipe(RecipeRequestDto recipeRequestDto, UUID uuid, Long expectedVersion) {
         // Find recipe
         Recipe recipe = recipeRepository.findEntityByUuid(uuid)
                 .orElseThrow(() -> new EntityNotFoundException(
                         getRecipeNotFoundMessage(uuid)
                 ));
-        BeanUtils.copyProperties(recipeRequestDto, recipe);
+        checkVersion(uuid, recipe.getVersion(), expectedVersion);
 
-        // Clear and update ingredients
-        recipe.getIngredients().clear();
-        List<Ingredient> updatedIngredients = recipeRequestDto.toIngredientEntities(recipe);
-        recipe.getIngredients().addAll(updatedIngredients);
+        // Apply only what differs, so an unchanged PUT writes nothing
+        // Ingredients first: resolving new names runs a native query, which would flush a recipe already changed
+        List<String> previousIngredientNames = getIngredientNames(recipe.getIngredients().values());
+        boolean ingredientsModified = applyIngredients(recipeRequestDto, recipe);
+        boolean fieldsModified = applyFields(recipeRequestDto, recipe);
+        boolean modified = fieldsModified || ingredientsModified;
 
         // Save updated recipe
-        Recipe savedRecipe = recipeRepository.save(recipe);
+        Recipe savedRecipe = recipe;
+        if (modified) {
+            // Ingredient links are not versioned: touching the recipe moves its version (the ETag) even when
+            // only the ingredients changed
+            recipe.setUpdatedAt(DateUtil.nowUtc());
+            // Flushed right away: the UPDATE checks the version read above, and the new version is returned
+            savedRecipe = recipeRepository.saveAndFlush(recipe);
+            eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), uuid,
+                    previousIngredientNames, getIngredientNames(recipe.getIngredients().values())));
+        }
 
         // Return updated recipe DTO
-        RecipeUpdatedDto recipeUpdatedDto = new RecipeUpdatedDto();
-        BeanUtils.copyProperties(savedRecipe, recipeUpdatedDto);
+        RecipeUpdatedDto recipeUpdatedDto = recipeMapper.toUpdatedDto(savedRecipe);
+        recipeUpdatedDto.setModified(modified);
         return recipeUpdatedDto;
     }
 
     /**
-     * Delete recipe by uuid
+     * Delete recipe by uuid. Given an expected version (from If-Match), the recipe is only deleted while
+     * it still has that version, otherwise {@link PreconditionFailedException} is thrown.
      */
     @Transactional
-    public void deleteRecipe(UUID uuid) {
-        Recipe recipe = recipeRepository.findEntityByUuid(uuid)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        getRecipeNotFoundMessage(uuid)
-                ));
+    public void deleteRecipe(UUID uuid, Long expectedVersion) {
+        // The version is checked by the DELETE itself, so a concurrent update cannot slip in between
+        DeletedRecipes deleted = recipeRepository.deleteByUuid(uuid, expectedVersion);
+        if (deleted.ids().isEmpty()) {
+            if (expectedVersion != null && recipeRepository.findVersionByUuid(uuid).isPresent()) {
+                throw new PreconditionFailedException(getVersionMismatchMessage(uuid, expectedVersion));
+            }
+            throw new EntityNotFoundException(getRecipeNotFoundMessage(uuid));
+        }
+        publishDeleted(deleted);
+    }
 
-        recipeRepository.delete(recipe);
+    /**
+     * Delete every recipe with one of the given uuids, or every recipe matching the given filter,
+     * in one set-based statement instead of loading each recipe. Unknown uuids are ignored.
+     *
+     * @return number of deleted recipes
+     */
+    @Transactional
+    public int deleteRecipes(RecipeDeleteRequestDto recipeDeleteRequestDto) {
+        DeletedRecipes deleted = recipeDeleteRequestDto.getUuids() != null
+                && !recipeDeleteRequestDto.getUuids().isEmpty()
+                ? recipeRepository.deleteByUuidIn(recipeDeleteRequestDto.getUuids())
+                : recipeRepository.deleteMatching(recipeDeleteRequestDto.getFilter());
+
+        if (!deleted.ids().isEmpty()) {
+            publishDeleted(deleted);
+        }
+        return deleted.ids().size();
     }
 
     /**
@@ -111,43 +331,491 @@ public class RecipeService {
      * - Number of servings
      * - Included ingredients (supports partial name matching)
      * - Excluded ingredients (supports partial name matching)
-     * - Instruction content (supports partial keyword search)
+     * - Instruction content (supports partial keyword search, or ranked full-text search)
+     * <p>
+     * Pages are served from {@link RecipeSearchCache} until the next recipe write; only the searches that
+     * miss it reach the database and the search timers.
      */
-    public Page<RecipeViewDto> searchRecipes(Boolean vegetarian,
-                                             Integer servings,
-                                             List<String> includedIngredients,
-                                             List<String> excludedIngredients,
-                                             String instruction,
-                                             Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<RecipeViewDto> searchRecipes(RecipeSearchRequestDto search, Pageable pageable) {
+        return recipeSearchCache.get(search, pageable, () ->
+                timeSearch(search, "page", RecipeSearchRequestDto.View.FULL, () -> {
+                    // Fetch paginated recipe, then the ingredients of the whole page in one query
+                    Optional<IngredientIndex.Match> match = matchIngredientsOnly(search, pageable);
+                    Page<Recipe> recipePage = match.isPresent()
+                            ? new PageImpl<>(findRecipesByIds(pageIds(match.get(), pageable)), pageable,
+                            match.get().count())
+                            : recipeRepository.findAll(buildSearchSpecification(search), pageable);
+                    Map<Long, List<RecipeViewDto.IngredientViewDto>> ingredientsByRecipeId =
+                            findIngredientsByRecipeId(recipePage.getContent());
 
-        // Define recipe search specification
-        Specification<Recipe> recipeSpecification = (root, query, cb) -> {
-            query.distinct(true);
-            return cb.conjunction();
-        };
+                    return recipePage.map(recipe -> convertToRecipeViewDto(recipe, ingredientsByRecipeId));
+                }));
+    }
 
-        recipeSpecification = recipeSpecification
-                .and(isVegetarian(vegetarian))
-                .and(hasServings(servings))
-                .and(containsInstruction(instruction))
-                .and(includeIngredients(includedIngredients))
-                .and(excludeIngredients(excludedIngredients));
+    /**
+     * Search recipes like {@link #searchRecipes} without the COUNT query: fetches one row more than
+     * the page size to tell whether a next page exists
+     */
+    @Transactional(readOnly = true)
+    public Slice<RecipeViewDto> sliceRecipes(RecipeSearchRequestDto search, Pageable pageable) {
+        return timeSearch(search, "slice", RecipeSearchRequestDto.View.FULL, () -> {
+            Optional<IngredientIndex.Match> match = matchIngredientsOnly(search, pageable);
+            Slice<Recipe> recipeSlice = match.isPresent()
+                    ? new SliceImpl<>(findRecipesByIds(pageIds(match.get(), pageable)), pageable,
+                    hasNextPage(match.get(), pageable))
+                    : recipeRepository.findBy(buildSearchSpecification(search), query -> query.slice(pageable));
+            Map<Long, List<RecipeViewDto.IngredientViewDto>> ingredientsByRecipeId =
+                    findIngredientsByRecipeId(recipeSlice.getContent());
 
-        // Fetch paginated recipe
-        Page<Recipe> recipePage = recipeRepository.findAll(recipeSpecification, pageable);
+            return recipeSlice.map(recipe -> convertToRecipeViewDto(recipe, ingredientsByRecipeId));
+        });
+    }
 
-        return recipePage.map(this::convertToRecipeViewDto);
+    /**
+     * Search recipes with keyset pagination, using the same filters as {@link #searchRecipes}.
+     * An empty cursor starts from the first row; otherwise the query seeks past the row the cursor
+     * was taken from, so the cost of a page does not grow with its depth. The sort must be the same
+     * on every request of one walk.
+     */
+    @Transactional(readOnly = true)
+    public Window<RecipeViewDto> scrollRecipes(RecipeSearchRequestDto search, String cursor, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        ScrollPosition position = StringUtils.hasText(cursor)
+                ? CursorUtil.decode(cursor, Recipe.class, sort)
+                : ScrollPosition.keyset();
+
+        return timeSearch(search, "cursor", RecipeSearchRequestDto.View.FULL, () -> {
+            Window<Recipe> recipeWindow = recipeRepository.findBy(buildSearchSpecification(search),
+                    query -> query.sortBy(sort).limit(pageable.getPageSize()).scroll(position));
+            Map<Long, List<RecipeViewDto.IngredientViewDto>> ingredientsByRecipeId =
+                    findIngredientsByRecipeId(recipeWindow.getContent());
+
+            return recipeWindow.map(recipe -> convertToRecipeViewDto(recipe, ingredientsByRecipeId));
+        });
+    }
+
+    /**
+     * Search recipes like {@link #searchRecipes}, selecting only the summary columns: the instruction is
+     * never read and no ingredients are loaded
+     */
+    @Transactional(readOnly = true)
+    public Page<RecipeSummaryDto> searchRecipeSummaries(RecipeSearchRequestDto search, Pageable pageable) {
+        Optional<IngredientIndex.Match> match = matchIngredientsOnly(search, pageable);
+        return timeSearch(search, "page", RecipeSearchRequestDto.View.SUMMARY, () ->
+                (match.isPresent()
+                        ? new PageImpl<>(findRecipeSummariesByIds(pageIds(match.get(), pageable)), pageable,
+                        match.get().count())
+                        : recipeRepository.findBy(buildSearchSpecification(search),
+                        query -> query.as(RecipeSummaryProjection.class).page(pageable)))
+                        .map(recipeMapper::toSummaryDto));
+    }
+
+    /**
+     * Summary counterpart of {@link #sliceRecipes}
+     */
+    @Transactional(readOnly = true)
+    public Slice<RecipeSummaryDto> sliceRecipeSummaries(RecipeSearchRequestDto search, Pageable pageable) {
+        Optional<IngredientIndex.Match> match = matchIngredientsOnly(search, pageable);
+        return timeSearch(search, "slice", RecipeSearchRequestDto.View.SUMMARY, () ->
+                (match.isPresent()
+                        ? new SliceImpl<>(findRecipeSummariesByIds(pageIds(match.get(), pageable)), pageable,
+                        hasNextPage(match.get(), pageable))
+                        : recipeRepository.findBy(buildSearchSpecification(search),
+                        query -> query.as(RecipeSummaryProjection.class).slice(pageable)))
+                        .map(recipeMapper::toSummaryDto));
+    }
+
+    /**
+     * Summary counterpart of {@link #scrollRecipes}
+     */
+    @Transactional(readOnly = true)
+    public Window<RecipeSummaryDto> scrollRecipeSummaries(RecipeSearchRequestDto search, String cursor,
+                                                          Pageable pageable) {
+        Sort sort = pageable.getSort();
+        ScrollPosition position = StringUtils.hasText(cursor)
+                ? CursorUtil.decode(cursor, Recipe.class, sort)
+                : ScrollPosition.keyset();
+
+        return timeSearch(search, "cursor", RecipeSearchRequestDto.View.SUMMARY, () ->
+                recipeRepository.findBy(buildSearchSpecification(search),
+                                query -> query.as(RecipeSummaryProjection.class)
+                                        .sortBy(sort).limit(pageable.getPageSize()).scroll(position))
+                        .map(recipeMapper::toSummaryDto));
+    }
+
+    /**
+     * Count the recipes matching the search filters in total, per vegetarian flag and per servings, and for
+     * the given number of most used ingredients, up to the configured maximum. Two grouped queries replace a
+     * count per facet value; without filters, the counts come from {@link RecipeFacetCache} once loaded.
+     */
+    @Transactional(readOnly = true)
+    public RecipeFacetsDto getSearchFacets(RecipeSearchRequestDto search, int topIngredients) {
+        int limit = Math.max(0, Math.min(topIngredients, maxTopIngredients));
+        if (!search.hasCriteria()) {
+            Optional<RecipeFacetsDto> cachedFacets = recipeFacetCache.get(limit);
+            if (cachedFacets.isPresent()) {
+                return cachedFacets.get();
+            }
+        }
+
+        // Counted in one statement, on the ids of the ingredient index when it can answer the ingredient filters
+        List<Long> recipeIds = ingredientIndex.match(search.getIncludedIngredients(), search.getExcludedIngredients())
+                .filter(ingredientIndex::fitsInQuery)
+                .map(IngredientIndex.Match::ids)
+                .orElse(null);
+        RecipeFacetRepository.FacetCounts counts = recipeRepository.countFacets(search, recipeIds, limit);
+        return recipeMapper.toFacetsDto(counts.byVegetarianAndServings(), counts.topIngredients());
+    }
+
+    /**
+     * Suggest the most used ingredient names starting with the prefix, case-insensitively, up to the given
+     * limit and the configured maximum. Served from {@link IngredientSuggestIndex} without a transaction;
+     * only while the index is loading or disabled does one grouped query answer instead.
+     */
+    public List<IngredientSuggestionDto> suggestIngredients(String prefix, int limit) {
+        int cappedLimit = Math.max(0, Math.min(limit, maxSuggestions));
+        if (!StringUtils.hasLength(prefix) || cappedLimit == 0) {
+            return List.of();
+        }
+
+        Optional<List<IngredientSuggestIndex.Suggestion>> suggestions = ingredientSuggestIndex.suggest(prefix, cappedLimit);
+        if (suggestions.isPresent()) {
+            return suggestions.get().stream().map(recipeMapper::toSuggestionDto).toList();
+        }
+        return recipeRepository.findTopIngredientsByPrefix(likePrefix(prefix), cappedLimit).stream()
+                .map(recipeMapper::toSuggestionDto)
+                .toList();
+    }
+
+    /**
+     * Write every recipe matching the search filters to the output stream, with its ingredients.
+     * Recipes are read through a database cursor and written chunk by chunk, flushing after each
+     * chunk, so memory use stays flat however many recipes match.
+     */
+    @Transactional(readOnly = true)
+    public void exportRecipes(RecipeSearchRequestDto search, RecipeFileFormat format,
+                              OutputStream outputStream) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+        ObjectWriter writer = format == RecipeFileFormat.CSV
+                ? EXPORT_CSV_WRITER
+                : objectMapper.writerFor(RecipeViewDto.class).withRootValueSeparator("\n");
+        boolean empty = true;
+
+        try (Stream<RecipeExportProjection> rows = recipeRepository.streamForExport(buildSearchSpecification(search));
+             SequenceWriter sequenceWriter = writer
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                     .writeValues(out)) {
+            Iterator<RecipeExportProjection> iterator = rows.iterator();
+            List<RecipeExportProjection> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    writeExportChunk(chunk, format, sequenceWriter);
+                    sequenceWriter.flush();
+                    out.flush();
+                    chunk.clear();
+                    empty = false;
+                }
+            }
+        }
+
+        // The sequence writer only separates values, while every NDJSON line ends with a newline
+        if (format == RecipeFileFormat.NDJSON && !empty) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    // Runs the search, recording its latency on both search timers
+    private <T> T timeSearch(RecipeSearchRequestDto search, String pagination, RecipeSearchRequestDto.View view,
+                             Supplier<T> searchCall) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return searchCall.get();
+        } finally {
+            long durationNanos = sample.stop(Timer.builder(SEARCH_METRIC)
+                    .description("Recipe searches by pagination and view")
+                    .tag("pagination", pagination)
+                    .tag("view", view.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+            searchFiltersTimer(search).record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Search latency by which filters were used, with bounded tag values (set or not, term counts 0, 1 or many)
+    // and no histogram
+    private Timer searchFiltersTimer(RecipeSearchRequestDto search) {
+        String instruction = !StringUtils.hasText(search.getInstruction())
+                ? SEARCH_TAG_NONE
+                : Objects.requireNonNullElse(search.getInstructionMode(), RecipeSearchRequestDto.InstructionMode.CONTAINS)
+                        .name().toLowerCase(Locale.ROOT);
+
+        return Timer.builder(SEARCH_FILTERS_METRIC)
+                .description("Recipe searches by the filters they used")
+                .tag("vegetarian", search.getVegetarian() == null ? SEARCH_TAG_NONE : search.getVegetarian().toString())
+                .tag("servings", search.getServings() == null ? SEARCH_TAG_NONE : "set")
+                .tag("included.ingredients", countTag(search.getIncludedIngredients()))
+                .tag("excluded.ingredients", countTag(search.getExcludedIngredients()))
+                .tag("instruction", instruction)
+                .publishPercentileHistogram(false)
+                .register(meterRegistry);
+    }
+
+    // LIKE pattern of the lower-cased prefix, its wildcards escaped so that they match themselves, like in the index
+    private static String likePrefix(String prefix) {
+        return prefix.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace(ConstantUtil.WILDCARD_DELIMITER, "\\" + ConstantUtil.WILDCARD_DELIMITER)
+                .replace("_", "\\_")
+                + ConstantUtil.WILDCARD_DELIMITER;
+    }
+
+    private static String countTag(List<String> terms) {
+        int count = RecipeSearchRequestDto.ingredientTerms(terms).size();
+        return count > 1 ? SEARCH_TAG_MANY : String.valueOf(count);
+    }
+
+    private Specification<Recipe> buildSearchSpecification(RecipeSearchRequestDto search) {
+        // Ingredient filters match a column of the recipe row, so there is no join to duplicate rows and no DISTINCT
+        Specification<Recipe> instructionSpecification =
+                search.getInstructionMode() == RecipeSearchRequestDto.InstructionMode.FULLTEXT
+                        ? matchesInstruction(search.getInstruction())
+                        : containsInstruction(search.getInstruction());
+
+        return isVegetarian(search.getVegetarian())
+                .and(hasServings(search.getServings()))
+                .and(instructionSpecification)
+                .and(buildIngredientSpecification(search));
+    }
+
+    // Resolve the ingredient filters to recipe ids from the in-memory index when it can answer them
+    private Specification<Recipe> buildIngredientSpecification(RecipeSearchRequestDto search) {
+        Optional<IngredientIndex.Match> match = ingredientIndex.match(
+                search.getIncludedIngredients(), search.getExcludedIngredients());
+        if (match.isPresent() && ingredientIndex.fitsInQuery(match.get())) {
+            return idIn(match.get().ids());
+        }
+
+        return includeIngredients(search.getIncludedIngredients())
+                .and(excludeIngredients(search.getExcludedIngredients()));
+    }
+
+    // Searches filtering on ingredients alone, in id order, are paged on the ids matched by the index
+    private Optional<IngredientIndex.Match> matchIngredientsOnly(RecipeSearchRequestDto search, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (pageable.isUnpaged() || search.getVegetarian() != null || search.getServings() != null
+                || StringUtils.hasText(search.getInstruction())
+                || !(sort.isUnsorted() || sort.equals(Sort.by(BaseEntity.Fields.ID)))) {
+            return Optional.empty();
+        }
+
+        return ingredientIndex.match(search.getIncludedIngredients(), search.getExcludedIngredients());
+    }
+
+    private static List<Long> pageIds(IngredientIndex.Match match, Pageable pageable) {
+        return match.page(pageable.getOffset(), pageable.getPageSize());
+    }
+
+    private static boolean hasNextPage(IngredientIndex.Match match, Pageable pageable) {
+        return pageable.getOffset() + pageable.getPageSize() < match.count();
+    }
+
+    private List<Recipe> findRecipesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return recipeRepository.findAll(idIn(ids), Sort.by(BaseEntity.Fields.ID));
+    }
+
+    private List<RecipeSummaryProjection> findRecipeSummariesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return recipeRepository.findBy(idIn(ids),
+                query -> query.as(RecipeSummaryProjection.class).sortBy(Sort.by(BaseEntity.Fields.ID)).all());
+    }
+
+    private void writeExportChunk(List<RecipeExportProjection> chunk, RecipeFileFormat format,
+                                  SequenceWriter sequenceWriter) throws IOException {
+        Map<Long, List<RecipeViewDto.IngredientViewDto>> ingredientsByRecipeId = findIngredientsByRecipeIds(
+                chunk.stream().map(RecipeExportProjection::getId).toList());
+
+        for (RecipeExportProjection row : chunk) {
+            List<RecipeViewDto.IngredientViewDto> ingredients =
+                    ingredientsByRecipeId.getOrDefault(row.getId(), List.of());
+            if (format == RecipeFileFormat.CSV) {
+                List<String> ingredientNames = ingredients.stream()
+                        .map(RecipeViewDto.IngredientViewDto::getName)
+                        .toList();
+                sequenceWriter.write(Arrays.asList(row.getUuid().toString(), row.getCreatedAt().toString(),
+                        row.getTitle(), row.getDescription(), objectMapper.writeValueAsString(ingredientNames),
+                        row.getInstruction(), row.getVegetarian(), row.getServings()));
+            } else {
+                sequenceWriter.write(recipeMapper.toViewDto(row, ingredients));
+            }
+        }
+    }
+
+    // Batch load ingredients instead of touching each recipe's lazy collection
+    private Map<Long, List<RecipeViewDto.IngredientViewDto>> findIngredientsByRecipeId(List<Recipe> recipes) {
+        return findIngredientsByRecipeIds(recipes.stream().map(Recipe::getId).toList());
+    }
+
+    private Map<Long, List<RecipeViewDto.IngredientViewDto>> findIngredientsByRecipeIds(List<Long> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return recipeRepository.findIngredientsByRecipeIdIn(recipeIds).stream()
+                .collect(Collectors.groupingBy(
+                        RecipeIngredientProjection::getRecipeId,
+                        Collectors.mapping(row -> RecipeViewDto.fromIngredientName(row.getName()), Collectors.toList())
+                ));
     }
 
     // Map Recipe entity to view dto
-    private RecipeViewDto convertToRecipeViewDto(Recipe recipe) {
-        RecipeViewDto dto = new RecipeViewDto();
-        BeanUtils.copyProperties(recipe, dto);
-        dto.setIngredients(RecipeViewDto.fromIngredients(recipe.getIngredients()));
-        return dto;
+    private RecipeViewDto convertToRecipeViewDto(Recipe recipe,
+                                                 Map<Long, List<RecipeViewDto.IngredientViewDto>> ingredientsByRecipeId) {
+        return recipeMapper.toViewDto(recipe, ingredientsByRecipeId.getOrDefault(recipe.getId(), List.of()));
+    }
+
+    private Recipe buildRecipe(RecipeRequestDto recipeRequestDto, Map<String, IngredientName> ingredientNames) {
+        Recipe recipe = new Recipe();
+        recipeMapper.updateRecipe(recipeRequestDto, recipe);
+        recipe.replaceIngredients(toIngredientNames(recipeRequestDto, ingredientNames));
+        recipe.setIngredientNames(joinIngredientNames(recipe.getIngredients().values()));
+        return recipe;
+    }
+
+    // Dictionary entries of every ingredient name of the given requests, in two statements per chunk of names
+    private Map<String, IngredientName> findOrCreateIngredientNames(List<RecipeRequestDto> recipeRequestDtos) {
+        if (recipeRequestDtos.isEmpty()) {
+            return Map.of();
+        }
+        return ingredientNameRepository.findOrCreateAll(recipeRequestDtos.stream()
+                .flatMap(recipeRequestDto -> recipeRequestDto.getIngredients().stream())
+                .map(RecipeRequestDto.IngredientRequestDto::getName)
+                .toList());
+    }
+
+    private static List<IngredientName> toIngredientNames(RecipeRequestDto recipeRequestDto,
+                                                          Map<String, IngredientName> ingredientNames) {
+        return recipeRequestDto.getIngredients().stream()
+                .map(ingredient -> ingredientNames.get(ingredient.getName()))
+                .toList();
+    }
+
+    // Copy the request fields onto the recipe if any of them differs
+    private boolean applyFields(RecipeRequestDto recipeRequestDto, Recipe recipe) {
+        boolean modified = !Objects.equals(recipe.getTitle(), recipeRequestDto.getTitle())
+                || !Objects.equals(recipe.getDescription(), recipeRequestDto.getDescription())
+                || !Objects.equals(recipe.getInstruction(), recipeRequestDto.getInstruction())
+                || !Objects.equals(recipe.getVegetarian(), recipeRequestDto.getVegetarian())
+                || !Objects.equals(recipe.getServings(), recipeRequestDto.getServings());
+        if (modified) {
+            recipeMapper.updateRecipe(recipeRequestDto, recipe);
+        }
+        return modified;
+    }
+
+    // Replace the ingredients if the requested names differ: names are only resolved then, and only the rows of
+    // the ingredients added, removed or changed are written (see Recipe#replaceIngredients)
+    private boolean applyIngredients(RecipeRequestDto recipeRequestDto, Recipe recipe) {
+        List<String> requestedNames = recipeRequestDto.getIngredients().stream()
+                .map(RecipeRequestDto.IngredientRequestDto::getName)
+                .toList();
+        if (getIngredientNames(recipe.getIngredients().values()).equals(requestedNames)) {
+            return false;
+        }
+
+        recipe.replaceIngredients(toIngredientNames(recipeRequestDto,
+                findOrCreateIngredientNames(List.of(recipeRequestDto))));
+        recipe.setIngredientNames(joinIngredientNames(recipe.getIngredients().values()));
+        return true;
+    }
+
+    // Caches and the indexes hear about a delete once, whatever its size
+    private void publishDeleted(DeletedRecipes deleted) {
+        eventPublisher.publishEvent(new RecipesDeletedEvent(deleted.ids(), deleted.uuids(),
+                deleted.ingredientNameCounts()));
+    }
+
+    private void publishCreated(Recipe recipe) {
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipe.getId(), recipe.getUuid(),
+                List.of(), getIngredientNames(recipe.getIngredients().values())));
+    }
+
+    // Same "field: message" format as the request validation errors of the single endpoints
+    private List<String> validateBatchItem(RecipeRequestDto recipeRequestDto) {
+        if (recipeRequestDto == null) {
+            return List.of(translatorService.process("recipe.batch.item.required"));
+        }
+
+        return validator.validate(recipeRequestDto).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    // Count the line and keep it if it holds a valid recipe; otherwise count and report the rejection
+    private boolean acceptImportLine(RecipeImportReader.Line line, RecipeImportResultDto result) {
+        result.setReceived(result.getReceived() + 1);
+        List<String> errors = line.errors().isEmpty() ? validateBatchItem(line.recipe()) : line.errors();
+        if (errors.isEmpty() && containsNulCharacter(line.recipe())) {
+            errors = List.of(translatorService.process("recipe.import.nul.character"));
+        }
+        if (errors.isEmpty()) {
+            return true;
+        }
+
+        result.setRejected(result.getRejected() + 1);
+        if (result.getRejectedLines().size() < maxReportedRejections) {
+            RecipeImportResultDto.RejectedLineDto rejectedLine = new RecipeImportResultDto.RejectedLineDto();
+            rejectedLine.setLine(line.number());
+            rejectedLine.setErrors(errors);
+            result.getRejectedLines().add(rejectedLine);
+        }
+        return false;
+    }
+
+    // PostgreSQL text cannot hold NUL, and one such value would fail the COPY of the whole import
+    private static boolean containsNulCharacter(RecipeRequestDto recipe) {
+        return Stream.concat(
+                        Stream.of(recipe.getTitle(), recipe.getDescription(), recipe.getInstruction()),
+                        recipe.getIngredients().stream()
+                                .filter(Objects::nonNull)
+                                .map(RecipeRequestDto.IngredientRequestDto::getName))
+                .anyMatch(text -> text != null && text.indexOf('\0') >= 0);
+    }
+
+    private static List<String> getIngredientNames(Collection<IngredientName> ingredients) {
+        if (ingredients == null) {
+            return List.of();
+        }
+        return ingredients.stream().map(IngredientName::getName).toList();
+    }
+
+    // Value of Recipe#ingredientNames, lower-cased like the search terms
+    private static String joinIngredientNames(Collection<IngredientName> ingredients) {
+        return Recipe.joinIngredientNames(ingredients.stream().map(IngredientName::getName).toList());
     }
 
     private String getRecipeNotFoundMessage(UUID uuid) {
         return translatorService.process("error.recipe.not.found", new Object[]{uuid});
     }
+
+    private void checkVersion(UUID uuid, Long version, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw new PreconditionFailedException(getVersionMismatchMessage(uuid, expectedVersion));
+        }
+    }
+
+    private String getVersionMismatchMessage(UUID uuid, long expectedVersion) {
+        return translatorService.process("error.recipe.version.mismatch",
+                new Object[]{uuid, String.valueOf(expectedVersion)});
+    }
 }
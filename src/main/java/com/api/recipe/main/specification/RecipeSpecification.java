@@ -1,16 +1,22 @@
 package com.api.recipe.main.specification;
 
+import com.api.recipe.common.config.ArrayFunctionContributor;
+import com.api.recipe.common.config.FullTextFunctionContributor;
 import com.api.recipe.common.entity.BaseEntity;
 import com.api.recipe.common.util.ConstantUtil;
-import com.api.recipe.main.entity.Ingredient;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
 import com.api.recipe.main.entity.Recipe;
-import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
-import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 public class RecipeSpecification {
 
@@ -48,57 +54,78 @@ public class RecipeSpecification {
     }
 
     /**
-     * WHERE LOWER(ingredient.name) LIKE %:includedIngredient%
+     * WHERE instruction_tsv @@ websearch_to_tsquery(:keyword)
+     * ORDER BY ts_rank(instruction_tsv, websearch_to_tsquery(:keyword)) DESC, id
+     * <p>
+     * The rank order only applies when the page requests no sort of its own.
      */
-    public static Specification<Recipe> includeIngredients(List<String> ingredients) {
+    public static Specification<Recipe> matchesInstruction(String instruction) {
         return (root, query, cb) -> {
-            if (ingredients == null || ingredients.isEmpty()) {
+            if (!StringUtils.hasText(instruction)) {
                 return cb.conjunction();
             }
 
-            Join<Recipe, ?> ingredientJoin = root.join(Recipe.Fields.INGREDIENTS);
-
-            List<jakarta.persistence.criteria.Predicate> predicates = ingredients.stream()
-                    .filter(StringUtils::hasText)
-                    .map(ingredient ->
-                            cb.like(cb.lower(ingredientJoin.get(Ingredient.Fields.NAME)), like(ingredient)))
-                    .toList();
+            // Bind the keyword as a parameter; a literal would be inlined into the SQL text. The functions read
+            // the tsvector generated from the instruction column
+            Expression<?> document = root.get(Recipe.Fields.INSTRUCTION);
+            Expression<String> keyword = ((HibernateCriteriaBuilder) cb).value(instruction);
+            query.orderBy(
+                    cb.desc(cb.function(FullTextFunctionContributor.FULLTEXT_RANK, Double.class, document, keyword)),
+                    cb.asc(root.get(BaseEntity.Fields.ID))
+            );
 
-            return cb.or(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
+            return cb.isTrue(cb.function(FullTextFunctionContributor.FULLTEXT_MATCH, Boolean.class, document, keyword));
         };
     }
 
+    /**
+     * WHERE ingredient_names LIKE %:includedIngredient% OR ...
+     */
+    public static Specification<Recipe> includeIngredients(List<String> ingredients) {
+        List<String> terms = RecipeSearchRequestDto.ingredientTerms(ingredients);
+        return (root, query, cb) ->
+                terms.isEmpty()
+                        ? cb.conjunction()
+                        : hasIngredientNamed(root, cb, terms);
+    }
 
     /**
-     * WHERE id NOT IN (
-     * SELECT recipe_id FROM ingredient
-     * WHERE LOWER(name) LIKE %:excludedIngredient%
-     * )
+     * WHERE NOT (ingredient_names LIKE %:excludedIngredient% OR ...)
      */
     public static Specification<Recipe> excludeIngredients(List<String> ingredients) {
+        List<String> terms = RecipeSearchRequestDto.ingredientTerms(ingredients);
+        return (root, query, cb) ->
+                terms.isEmpty()
+                        ? cb.conjunction()
+                        : cb.not(hasIngredientNamed(root, cb, terms));
+    }
+
+    /**
+     * WHERE id = ANY(:ids)
+     * <p>
+     * The ids are bound as one array parameter, so the statement is the same whatever their number.
+     */
+    public static Specification<Recipe> idIn(Collection<Long> ids) {
         return (root, query, cb) -> {
-            if (ingredients == null || ingredients.isEmpty()) {
-                return cb.conjunction();
+            if (ids.isEmpty()) {
+                return cb.disjunction();
             }
 
-            Subquery<Long> subquery = query.subquery(Long.class);
-            Root<Recipe> subRoot = subquery.from(Recipe.class);
-            Join<Recipe, ?> subIngredientJoin = subRoot.join(Recipe.Fields.INGREDIENTS);
-
-            List<jakarta.persistence.criteria.Predicate> predicates = ingredients.stream()
-                    .filter(StringUtils::hasText)
-                    .map(ingredient ->
-                            cb.like(cb.lower(subIngredientJoin.get(Ingredient.Fields.NAME)), like(ingredient)))
-                    .toList();
-
-            subquery.select(subRoot.get(BaseEntity.Fields.ID))
-                    .where(cb.or(predicates.toArray(new jakarta.persistence.criteria.Predicate[0])));
-
-            return cb.not(root.get(BaseEntity.Fields.ID).in(subquery));
+            Expression<Long[]> idArray = ((HibernateCriteriaBuilder) cb).value(ids.toArray(Long[]::new));
+            return cb.isTrue(cb.function(ArrayFunctionContributor.ANY_OF, Boolean.class,
+                    root.get(BaseEntity.Fields.ID), idArray));
         };
     }
 
+    // The column holds the lower-cased names, so it is matched as is and its trigram index applies
+    private static Predicate hasIngredientNamed(Root<Recipe> root, CriteriaBuilder cb, List<String> terms) {
+        Expression<String> ingredientNames = root.get(Recipe.Fields.INGREDIENT_NAMES);
+        return cb.or(terms.stream()
+                .map(term -> cb.like(ingredientNames, like(term)))
+                .toArray(Predicate[]::new));
+    }
+
     private static String like(String keyword) {
-        return ConstantUtil.WILDCARD_DELIMITER + keyword.toLowerCase() + ConstantUtil.WILDCARD_DELIMITER;
+        return ConstantUtil.WILDCARD_DELIMITER + keyword.toLowerCase(Locale.ROOT) + ConstantUtil.WILDCARD_DELIMITER;
     }
 }
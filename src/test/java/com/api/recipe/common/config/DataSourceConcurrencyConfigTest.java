@@ -0,0 +1,47 @@
+package com.api.recipe.common.config;
+
+import com.api.recipe.common.datasource.ConcurrencyLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+class DataSourceConcurrencyConfigTest {
+
+    private final DataSourceConcurrencyConfig.ConcurrencyLimiter limiter =
+            new DataSourceConcurrencyConfig.ConcurrencyLimiter(2, Duration.ofMillis(50),
+                    new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+    @Test
+    void postProcess_applicationPool_isLimited() {
+        try (HikariDataSource pool = new HikariDataSource()) {
+            assertThat(limiter.postProcessAfterInitialization(pool, "dataSource"))
+                    .isInstanceOf(ConcurrencyLimitingDataSource.class);
+        }
+    }
+
+    @Test
+    void postProcess_otherDataSources_areLeftAsTheyAre() {
+        DataSource routing = mock(DataSource.class);
+        try (HikariDataSource pool = new HikariDataSource()) {
+            assertSame(routing, limiter.postProcessAfterInitialization(routing, "dataSource"));
+            assertSame(pool, limiter.postProcessAfterInitialization(pool, "reportingDataSource"));
+        }
+    }
+
+    @Test
+    void config_withoutVirtualThreads_isNotApplied() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(DataSourceConcurrencyConfig.class)
+                .withPropertyValues("recipe.datasource.concurrency-limit.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean("dataSourceConcurrencyLimiter"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.api.recipe.common.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    private DataSource targetDataSource;
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        targetDataSource = mock(DataSource.class);
+        when(targetDataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConcurrencyLimitingDataSource(targetDataSource, 2, Duration.ofMillis(50), null);
+    }
+
+    @Test
+    void getConnection_beyondPermits_timesOutUntilAConnectionIsClosed() throws SQLException {
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void getConnection_targetFails_releasesPermit() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("down"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(SQLException.class, dataSource::getConnection);
+        }
+        assertThat(dataSource.getWaitingCount()).isZero();
+    }
+
+    @Test
+    void connection_delegatesToTarget() throws SQLException {
+        Connection target = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(targetDataSource.getConnection()).thenReturn(target);
+        when(target.unwrap(PGConnection.class)).thenReturn(pgConnection);
+
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+
+        verify(target).setAutoCommit(false);
+        assertSame(pgConnection, connection.unwrap(PGConnection.class));
+        assertSame(target, ((ConnectionProxy) connection).getTargetConnection());
+    }
+}
@@ -0,0 +1,111 @@
+package com.api.recipe.common.datasource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing of transactions between two real databases of an embedded PostgreSQL, the replica being a second
+ * database of the same server, told apart by current_database()
+ */
+class ReplicaRoutingDataSourcePostgresTest {
+
+    private static final String PRIMARY = "postgres";
+    private static final String REPLICA = "replica";
+
+    private static EmbeddedPostgres postgres;
+
+    private String caller;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE " + REPLICA);
+        new JdbcTemplate(postgres.getDatabase("postgres", PRIMARY)).execute("CREATE TABLE note (caller TEXT)");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                postgres.getDatabase("postgres", PRIMARY), List.of(postgres.getDatabase("postgres", REPLICA)),
+                ReplicaRoutingDataSource.Balancing.ROUND_ROBIN, Duration.ofHours(1), () -> caller);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String database(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+
+    private void write() {
+        jdbcTemplate.update("INSERT INTO note VALUES (?)", caller);
+    }
+
+    @Test
+    void readOnlyTransactions_goToReplica_andWritesToPrimary() {
+        caller = "alice";
+
+        assertEquals(REPLICA, database(readOnlyTransaction));
+        assertEquals(PRIMARY, database(writeTransaction));
+    }
+
+    @Test
+    void readOnlyTransactions_afterWrite_stayOnPrimaryForTheWriterOnly() {
+        caller = "alice";
+        writeTransaction.executeWithoutResult(status -> write());
+
+        assertEquals(PRIMARY, database(readOnlyTransaction));
+        caller = "bob";
+        assertEquals(REPLICA, database(readOnlyTransaction));
+    }
+
+    @Test
+    void readOnlyTransactions_afterAutoCommitWrite_stayOnPrimary() {
+        caller = "alice";
+        write();
+
+        assertEquals(PRIMARY, database(readOnlyTransaction));
+    }
+
+    @Test
+    void readOnlyTransactions_afterReadWriteTransactionWithoutCommittedWrite_goToReplica() {
+        caller = "alice";
+        database(writeTransaction);
+        writeTransaction.executeWithoutResult(status -> {
+            write();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(REPLICA, database(readOnlyTransaction));
+    }
+
+    @Test
+    void readOnlyTransactions_readFromPrimary_goToPrimaryWithinTheCallOnly() {
+        caller = "alice";
+
+        assertEquals(PRIMARY, ReplicaRoutingDataSource.readFromPrimary(() -> database(readOnlyTransaction)));
+        assertEquals(REPLICA, database(readOnlyTransaction));
+    }
+}
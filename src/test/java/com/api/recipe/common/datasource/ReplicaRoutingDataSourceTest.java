@@ -0,0 +1,181 @@
+package com.api.recipe.common.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource firstReplica;
+    private DataSource secondReplica;
+    private String caller;
+    // Whether the primary reports the transaction being committed as having written
+    private boolean written = true;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mockDataSource();
+        firstReplica = mockDataSource();
+        secondReplica = mockDataSource();
+    }
+
+    @Test
+    void readOnlyConnections_roundRobinOverReplicas() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Balancing.ROUND_ROBIN, Duration.ZERO);
+
+        for (int i = 0; i < 4; i++) {
+            use(dataSource, true).close();
+        }
+
+        verify(firstReplica, times(2)).getConnection();
+        verify(secondReplica, times(2)).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void readWriteConnections_goToPrimary() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Balancing.ROUND_ROBIN, Duration.ZERO);
+
+        use(dataSource, false).close();
+
+        verify(primary).getConnection();
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    void readOnlyConnections_afterWrite_stayOnPrimary() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Balancing.ROUND_ROBIN,
+                Duration.ofHours(1));
+
+        // Reads while a write is not committed yet go to a replica, reads after its commit to the primary
+        Connection write = use(dataSource, false);
+        use(dataSource, true).close();
+        write.commit();
+        write.close();
+        use(dataSource, true).close();
+
+        verify(primary, times(2)).getConnection();
+        verify(firstReplica).getConnection();
+        verifyNoInteractions(secondReplica);
+    }
+
+    @Test
+    void readOnlyConnections_afterWriteOfAnotherCaller_goToReplicas() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Balancing.ROUND_ROBIN,
+                Duration.ofHours(1));
+
+        caller = "writer";
+        commit(use(dataSource, false));
+        caller = "reader";
+        use(dataSource, true).close();
+        caller = "writer";
+        use(dataSource, true).close();
+
+        verify(primary, times(2)).getConnection();
+        verify(firstReplica).getConnection();
+        verifyNoInteractions(secondReplica);
+    }
+
+    @Test
+    void readOnlyConnections_afterReadWriteTransactionWithoutWrite_goToReplicas() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Balancing.ROUND_ROBIN,
+                Duration.ofHours(1));
+
+        written = false;
+        commit(use(dataSource, false));
+        use(dataSource, false).close();
+        use(dataSource, true).close();
+
+        verify(primary, times(2)).getConnection();
+        verify(firstReplica).getConnection();
+    }
+
+    @Test
+    void readOnlyConnections_leastConnections_skipsBusyReplica() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Balancing.LEAST_CONNECTIONS,
+                Duration.ZERO);
+
+        // While the first replica holds a connection, the second one serves every read, even on its turn
+        Connection open = use(dataSource, true);
+        for (int i = 0; i < 3; i++) {
+            use(dataSource, true).close();
+        }
+        open.close();
+
+        verify(firstReplica, times(1)).getConnection();
+        verify(secondReplica, times(3)).getConnection();
+    }
+
+    @Test
+    void readOnlyConnections_replicaDown_failOverToNextReplicaThenPrimary() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("down"));
+        ReplicaRoutingDataSource dataSource = routing(ReplicaRoutingDataSource.Balancing.ROUND_ROBIN, Duration.ZERO);
+
+        use(dataSource, true).close();
+        verify(secondReplica).getConnection();
+
+        when(secondReplica.getConnection()).thenThrow(new SQLException("down"));
+        use(dataSource, true).close();
+        verify(primary).getConnection();
+    }
+
+    @Test
+    void destroy_closesPools() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.of(pool),
+                ReplicaRoutingDataSource.Balancing.ROUND_ROBIN, Duration.ZERO, () -> caller);
+
+        dataSource.destroy();
+
+        verify((AutoCloseable) pool).close();
+    }
+
+    private ReplicaRoutingDataSource routing(ReplicaRoutingDataSource.Balancing balancing, Duration primaryAfterWrite) {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary,
+                List.of(firstReplica, secondReplica), balancing, primaryAfterWrite, () -> caller);
+        // Known defaults, so no probe connection is taken from the primary
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    // Opens a connection the way a transaction does: flags first, the target is only fetched by a statement
+    private static Connection use(DataSource dataSource, boolean readOnly) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setReadOnly(readOnly);
+        connection.createStatement();
+        return connection;
+    }
+
+    private static void commit(Connection connection) throws SQLException {
+        connection.commit();
+        connection.close();
+    }
+
+    // Connections that answer the has-written query before a commit with the written flag
+    private DataSource mockDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.next()).thenReturn(true);
+            when(resultSet.getBoolean(1)).thenAnswer(getBoolean -> written);
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(statement.executeQuery()).thenReturn(resultSet);
+            Connection connection = mock(Connection.class);
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+            return connection;
+        });
+        return dataSource;
+    }
+}
@@ -0,0 +1,36 @@
+package com.api.recipe.common.dto.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApiResponseSerializerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void preEncodedMessage_writesSameJsonAsPlainMessage() throws Exception {
+        String message = "Recette \"préférée\" trouvée";
+        Map<String, Integer> result = Map.of("servings", 4);
+
+        String plain = objectMapper.writeValueAsString(new ApiResponse<>(true, message, result));
+        String preEncoded = objectMapper.writeValueAsString(new ApiResponse<>(true, new ResponseMessage(message), result));
+
+        assertEquals("{\"success\":true,\"message\":\"Recette \\\"préférée\\\" trouvée\",\"result\":{\"servings\":4}," +
+                "\"errors\":null}", plain);
+        assertEquals(plain, preEncoded);
+    }
+
+    @Test
+    void errorResponse_writesErrorsAndNullResult() throws Exception {
+        ApiResponse<Void> response = new ApiResponse<>(false, "Validation failed", null, List.of("title: required"));
+
+        assertEquals("{\"success\":false,\"message\":\"Validation failed\",\"result\":null," +
+                "\"errors\":[\"title: required\"]}", objectMapper.writeValueAsString(response));
+    }
+}
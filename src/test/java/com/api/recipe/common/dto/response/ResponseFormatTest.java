@@ -0,0 +1,25 @@
+package com.api.recipe.common.dto.response;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseFormatTest {
+
+    @Test
+    void fromAcceptHeader_picksTheHighestQualityFormat() {
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.fromAcceptHeader("application/cbor"));
+        assertEquals(ResponseFormat.SMILE,
+                ResponseFormat.fromAcceptHeader("application/json;q=0.8, application/x-jackson-smile"));
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.fromAcceptHeader("application/cbor, */*;q=0.1"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader("application/cbor;q=0.5, application/json"));
+    }
+
+    @Test
+    void fromAcceptHeader_defaultsToJson() {
+        assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader(null));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader("*/*"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader("text/html"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.fromAcceptHeader("not a media type"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.api.recipe.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SqlStatementMetricsFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private SqlStatementMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlStatementMetricsFilter(meterRegistry);
+    }
+
+    @Test
+    void recordsStatementsOfTheRequestPerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recipe/search");
+        SqlStatementListener listener = new SqlStatementListener();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            listener.jdbcExecuteStatementStart();
+            listener.jdbcExecuteStatementEnd();
+            listener.jdbcExecuteBatchStart();
+            listener.jdbcExecuteBatchEnd();
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/recipe/search");
+        });
+
+        DistributionSummary statements = meterRegistry.get(SqlStatementMetricsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/api/recipe/search").summary();
+        Timer time = meterRegistry.get(SqlStatementMetricsFilter.TIME_METRIC)
+                .tags("method", "GET", "uri", "/api/recipe/search").timer();
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+        assertEquals(1, time.count());
+        assertNull(SqlStatementStatistics.current());
+    }
+
+    @Test
+    void ignoresStatementsOutsideOfARequest() throws Exception {
+        SqlStatementListener listener = new SqlStatementListener();
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/missing"), new MockHttpServletResponse(),
+                (req, res) -> {
+                });
+
+        assertEquals(0, meterRegistry.get(SqlStatementMetricsFilter.STATEMENTS_METRIC)
+                .tags("uri", "UNKNOWN").summary().totalAmount());
+        assertThat(meterRegistry.find(SqlStatementMetricsFilter.TIME_METRIC).timers()).hasSize(1);
+    }
+}
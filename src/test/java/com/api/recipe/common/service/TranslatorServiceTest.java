@@ -0,0 +1,56 @@
+package com.api.recipe.common.service;
+
+import com.api.recipe.common.dto.response.ResponseMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class TranslatorServiceTest {
+
+    private ResourceBundleMessageSource messageSource;
+    private TranslatorService translatorService;
+
+    @BeforeEach
+    void setUp() {
+        messageSource = spy(new ResourceBundleMessageSource());
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        translatorService = new TranslatorService(messageSource);
+        ReflectionTestUtils.setField(translatorService, "languageKey", "en");
+        ReflectionTestUtils.setField(translatorService, "supportedLanguageKeys", List.of("en"));
+        translatorService.compileMessages();
+    }
+
+    @Test
+    void message_compiledAtStartup_skipsMessageSource() {
+        clearInvocations(messageSource);
+
+        ResponseMessage message = translatorService.message("recipe.get.success", Locale.ENGLISH);
+
+        assertEquals("Recipe retrieved successfully", message.getText());
+        assertArrayEquals("Recipe retrieved successfully".getBytes(StandardCharsets.UTF_8),
+                message.getEncoded().asQuotedUTF8());
+        assertSame(message, translatorService.message("recipe.get.success", Locale.ENGLISH));
+        assertEquals("Recipe retrieved successfully", translatorService.process("recipe.get.success"));
+        verifyNoInteractions(messageSource);
+    }
+
+    @Test
+    void process_withArgumentsOrUnknownKey_goesThroughMessageSource() {
+        assertEquals("2 recipes deleted",
+                translatorService.process("recipe.bulk.delete.success", new Object[]{2}, Locale.ENGLISH));
+        assertThrows(NoSuchMessageException.class, () -> translatorService.process("recipe.unknown"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.api.recipe.main.cache;
+
+import com.api.recipe.main.dto.response.RecipeFacetsDto;
+import com.api.recipe.main.mapper.RecipeMapper;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.projection.RecipeFacetProjection;
+import com.api.recipe.main.repository.RecipeFacetRepository;
+import com.api.recipe.main.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RecipeFacetCacheTest {
+
+    private RecipeRepository recipeRepository;
+    private RecipeFacetCache recipeFacetCache;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository = mock(RecipeRepository.class);
+        recipeFacetCache = facetCache(true);
+    }
+
+    private RecipeFacetCache facetCache(boolean enabled) {
+        return new RecipeFacetCache(recipeRepository, Mappers.getMapper(RecipeMapper.class),
+                mock(PlatformTransactionManager.class), enabled, 4);
+    }
+
+    @Test
+    void get_beforeRefresh_isEmpty() {
+        assertThat(recipeFacetCache.get(4)).isEmpty();
+    }
+
+    @Test
+    void refresh_countsMaximumIngredients_getKeepsRequestedOnes() {
+        RecipeFacetProjection row = mock(RecipeFacetProjection.class);
+        when(row.getVegetarian()).thenReturn(true);
+        when(row.getServings()).thenReturn(2);
+        when(row.getCount()).thenReturn(7L);
+        List<IngredientCountProjection> ingredientCounts = ingredientCounts("salt", "garlic", "onion", "rice");
+        when(recipeRepository.countFacets(any(), isNull(), eq(4)))
+                .thenReturn(new RecipeFacetRepository.FacetCounts(List.of(row), ingredientCounts));
+
+        recipeFacetCache.refresh();
+
+        assertThat(recipeFacetCache.get(2)).hasValueSatisfying(facets -> {
+            assertThat(facets.getTotal()).isEqualTo(7);
+            assertThat(facets.getIngredients()).extracting(RecipeFacetsDto.FacetCountDto::getValue)
+                    .containsExactly("salt", "garlic");
+        });
+        assertThat(recipeFacetCache.get(10)).hasValueSatisfying(facets ->
+                assertThat(facets.getIngredients()).hasSize(4));
+    }
+
+    @Test
+    void refresh_failing_keepsPreviousCounts() {
+        when(recipeRepository.countFacets(any(), any(), anyInt()))
+                .thenReturn(new RecipeFacetRepository.FacetCounts(List.of(), List.of()));
+        recipeFacetCache.refresh();
+        when(recipeRepository.countFacets(any(), any(), anyInt())).thenThrow(new IllegalStateException("down"));
+
+        recipeFacetCache.refresh();
+
+        assertThat(recipeFacetCache.get(4)).hasValueSatisfying(facets -> assertThat(facets.getTotal()).isZero());
+    }
+
+    @Test
+    void refresh_disabled_neverCounts() {
+        RecipeFacetCache disabled = facetCache(false);
+
+        disabled.refresh();
+
+        assertThat(disabled.get(4)).isEmpty();
+        verifyNoInteractions(recipeRepository);
+    }
+
+    private static List<IngredientCountProjection> ingredientCounts(String... names) {
+        return IntStream.range(0, names.length).mapToObj(index -> {
+            IngredientCountProjection count = mock(IngredientCountProjection.class);
+            when(count.getName()).thenReturn(names[index]);
+            when(count.getCount()).thenReturn((long) (names.length - index));
+            return count;
+        }).toList();
+    }
+}
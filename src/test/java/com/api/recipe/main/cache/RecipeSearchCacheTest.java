@@ -0,0 +1,102 @@
+package com.api.recipe.main.cache;
+
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.dto.response.RecipeViewDto;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.api.recipe.main.event.RecipesImportedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeSearchCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private RecipeSearchCache recipeSearchCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recipeSearchCache = new RecipeSearchCache(meterRegistry, 20);
+        loads = new AtomicInteger();
+    }
+
+    private Page<RecipeViewDto> search(RecipeSearchRequestDto search, PageRequest pageable) {
+        return recipeSearchCache.get(search, pageable, () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(IntStream.range(0, pageable.getPageSize()).mapToObj(i -> new RecipeViewDto()).toList(),
+                    pageable, 100);
+        });
+    }
+
+    @Test
+    void get_equivalentFilters_shareEntry() {
+        search(new RecipeSearchRequestDto(false, 2, List.of("Salt", "garlic"), List.of("beef"), "Simmer",
+                null), PageRequest.of(0, 5));
+        search(new RecipeSearchRequestDto(false, 2, List.of("garlic", "salt", "SALT", ""), List.of("BEEF"),
+                "simmer", RecipeSearchRequestDto.InstructionMode.CONTAINS), PageRequest.of(0, 5));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_blankIngredientTerms_shareEntryWithoutTerms() {
+        search(new RecipeSearchRequestDto(true, null, null, null, null, null), PageRequest.of(0, 5));
+        search(new RecipeSearchRequestDto(true, null, List.of(" "), List.of(""), null, null), PageRequest.of(0, 5));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_differentFiltersOrPages_loadSeparately() {
+        RecipeSearchRequestDto search = new RecipeSearchRequestDto(true, null, null, null, null, null);
+        search(search, PageRequest.of(0, 5));
+        search(search, PageRequest.of(1, 5));
+        search(search, PageRequest.of(0, 5, Sort.by("title")));
+        search(new RecipeSearchRequestDto(true, null, null, null, "Simmer",
+                RecipeSearchRequestDto.InstructionMode.FULLTEXT), PageRequest.of(0, 5));
+        search(new RecipeSearchRequestDto(true, null, null, null, "simmer",
+                RecipeSearchRequestDto.InstructionMode.FULLTEXT), PageRequest.of(0, 5));
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void get_afterWrite_loadsAgain() {
+        RecipeSearchRequestDto search = new RecipeSearchRequestDto(true, null, null, null, null, null);
+        search(search, PageRequest.of(0, 5));
+
+        recipeSearchCache.onRecipesDeleted(new RecipesDeletedEvent(List.of(1L), List.of(UUID.randomUUID()), Map.of()));
+        search(search, PageRequest.of(0, 5));
+        recipeSearchCache.onRecipesImported(new RecipesImportedEvent(3));
+        search(search, PageRequest.of(0, 5));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_recordsHitsAndMisses() {
+        RecipeSearchRequestDto search = new RecipeSearchRequestDto(true, null, null, null, null, null);
+        for (int i = 0; i < 3; i++) {
+            search(search, PageRequest.of(0, 5));
+        }
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", RecipeSearchCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", RecipeSearchCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+}
@@ -1,30 +1,63 @@
 package com.api.recipe.main.controller;
 
+import com.api.recipe.common.exception.BatchTooLargeException;
+import com.api.recipe.common.exception.InvalidCursorException;
+import com.api.recipe.common.exception.PreconditionFailedException;
+import com.api.recipe.common.dto.response.ResponseFormat;
+import com.api.recipe.common.dto.response.ResponseMessage;
 import com.api.recipe.common.service.TranslatorService;
+import com.api.recipe.main.cache.RecipeResponseCache;
+import com.api.recipe.main.dto.request.RecipeFileFormat;
 import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.dto.response.IngredientSuggestionDto;
+import com.api.recipe.main.dto.response.RecipeBatchItemDto;
+import com.api.recipe.main.dto.response.RecipeCreatedDto;
+import com.api.recipe.main.dto.response.RecipeFacetsDto;
+import com.api.recipe.main.dto.response.RecipeImportResultDto;
+import com.api.recipe.main.dto.response.RecipeSummaryDto;
+import com.api.recipe.main.dto.response.RecipeUpdatedDto;
 import com.api.recipe.main.dto.response.RecipeViewDto;
 import com.api.recipe.main.service.RecipeService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class RecipeControllerTest {
@@ -33,6 +66,8 @@ class RecipeControllerTest {
     private ObjectMapper objectMapper;
     private RecipeService recipeService;
     private TranslatorService translatorService;
+    private RecipeResponseCache recipeResponseCache;
+    private MeterRegistry meterRegistry;
 
     private static final String BASE_URL = "/api/recipe";
     private static final String VALIDATION_KEY = "error.validation.failed";
@@ -41,16 +76,31 @@ class RecipeControllerTest {
     private static final String CREATE_RECIPE_SUCCESS_MESSAGE = "Recipe created successfully";
     private static final String UPDATE_RECIPE_SUCCESS_KEY = "recipe.update.success";
     private static final String UPDATE_RECIPE_SUCCESS_MESSAGE = "Recipe updated successfully";
+    private static final String UPDATE_RECIPE_UNCHANGED_KEY = "recipe.update.unchanged";
+    private static final String UPDATE_RECIPE_UNCHANGED_MESSAGE = "Recipe is already up to date";
     private static final String GET_RECIPE_SUCCESS_KEY = "recipe.get.success";
     private static final String GET_RECIPE_SUCCESS_MESSAGE = "Recipe retrieved successfully";
     private static final String DELETE_RECIPE_SUCCESS_KEY = "recipe.delete.success";
     private static final String DELETE_RECIPE_SUCCESS_MESSAGE = "Recipe deleted successfully";
+    private static final String BULK_DELETE_SUCCESS_KEY = "recipe.bulk.delete.success";
+    private static final String BULK_DELETE_SUCCESS_MESSAGE = "2 recipes deleted";
     private static final String SEARCH_RECIPE_SUCCESS_KEY = "recipe.search.success";
+    private static final String SEARCH_FACETS_SUCCESS_KEY = "recipe.search.facets.success";
     private static final String SEARCH_RECIPE_SUCCESS_MESSAGE = "Recipes found";
     private static final String SEARCH_RECIPE_EMPTY_KEY = "recipe.search.empty";
     private static final String SEARCH_RECIPE_EMPTY_MESSAGE = "No recipes found";
+    private static final String BATCH_CREATE_SUCCESS_KEY = "recipe.batch.create.success";
+    private static final String BATCH_CREATE_SUCCESS_MESSAGE = "1 of 2 recipes created";
+    private static final String IMPORT_SUCCESS_KEY = "recipe.import.success";
+    private static final String IMPORT_SUCCESS_MESSAGE = "2 of 3 recipes imported";
+    private static final String BATCH_TOO_LARGE_KEY = "error.batch.too.large";
+    private static final String BATCH_TOO_LARGE_MESSAGE = "A batch can contain at most 1000 recipes";
+    private static final String INVALID_CURSOR_KEY = "error.invalid.cursor";
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor";
+    private static final String VERSION_MISMATCH_MESSAGE = "Recipe has been changed";
 
     private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String SMILE = "application/x-jackson-smile";
 
     private static final String INVALID_UUID = "invalid-uuid";
     private static final String VALID_UUID = "550e8400-e29b-41d4-a716-446655440000";
@@ -70,6 +120,8 @@ class RecipeControllerTest {
     private static final String PATH_RESULT_TOTAL_ELEMENTS = PATH_RESULT + ".totalElements";
     private static final String PATH_RESULT_TOTAL_PAGES = PATH_RESULT + ".totalPages";
     private static final String PATH_RESULT_LAST = PATH_RESULT + ".last";
+    private static final String PATH_RESULT_NEXT_CURSOR = PATH_RESULT + ".nextCursor";
+    private static final String PATH_RESULT_HAS_NEXT = PATH_RESULT + ".hasNext";
 
     private static final String METHOD_POST = "POST";
     private static final String METHOD_PUT = "PUT";
@@ -84,6 +136,10 @@ class RecipeControllerTest {
     private static final String GET_RECIPE_INVALID_UUID_URL = BASE_URL + "/" + INVALID_UUID;
     private static final String DELETE_RECIPE_INVALID_UUID_URL = BASE_URL + "/" + INVALID_UUID;
     private static final String SEARCH_RECIPE_URL = BASE_URL + "/search";
+    private static final String SEARCH_FACETS_URL = SEARCH_RECIPE_URL + "/facets";
+    private static final String SUGGEST_INGREDIENTS_URL = BASE_URL + "/ingredients/suggest";
+    private static final String EXPORT_RECIPE_URL = BASE_URL + "/export";
+    private static final String IMPORT_RECIPE_URL = BASE_URL + "/import";
 
     private static final String RECIPE_TITLE = "Nilagang Saging";
 
@@ -91,9 +147,15 @@ class RecipeControllerTest {
     void setUp() {
         recipeService = mock(RecipeService.class);
         translatorService = mock(TranslatorService.class);
+        // Pre-encoded response messages follow what process(key, locale) is stubbed to return
+        when(translatorService.message(anyString(), any())).thenAnswer(invocation -> new ResponseMessage(
+                Objects.requireNonNullElse(translatorService.process(invocation.<String>getArgument(0),
+                        invocation.<Locale>getArgument(1)), invocation.<String>getArgument(0))));
         objectMapper = new ObjectMapper();
+        meterRegistry = new SimpleMeterRegistry();
+        recipeResponseCache = new RecipeResponseCache(Jackson2ObjectMapperBuilder::json, meterRegistry, 1024 * 1024);
 
-        RecipeController controller = new RecipeController(recipeService, translatorService);
+        RecipeController controller = new RecipeController(recipeService, translatorService, recipeResponseCache);
         mockMvc = MockMvcBuilders
                 .standaloneSetup(controller)
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
@@ -162,8 +224,60 @@ class RecipeControllerTest {
                 .andExpect(jsonPath(PATH_MESSAGE).value(CREATE_RECIPE_SUCCESS_MESSAGE));
     }
 
+    @Test
+    void createRecipes_returnsResultPerItem() throws Exception {
+        RecipeBatchItemDto created = new RecipeBatchItemDto();
+        created.setIndex(0);
+        created.setCreated(true);
+        created.setRecipe(new RecipeCreatedDto());
+        created.getRecipe().setTitle(RECIPE_TITLE);
+        RecipeBatchItemDto rejected = new RecipeBatchItemDto();
+        rejected.setIndex(1);
+        rejected.setErrors(List.of("title: Title is required"));
+
+        when(recipeService.createRecipes(anyList())).thenReturn(List.of(created, rejected));
+        when(translatorService.process(eq(BATCH_CREATE_SUCCESS_KEY), eq(new Object[]{1L, 2}), any(Locale.class)))
+                .thenReturn(BATCH_CREATE_SUCCESS_MESSAGE);
+
+        RecipeRequestDto invalidRequest = getValidRequest();
+        invalidRequest.setTitle(null);
+        mockMvc.perform(post(CREATE_RECIPE_URL + "/batch")
+                        .contentType(JSON)
+                        .content(objectMapper.writeValueAsString(List.of(getValidRequest(), invalidRequest))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath(PATH_SUCCESS).value(true))
+                .andExpect(jsonPath(PATH_MESSAGE).value(BATCH_CREATE_SUCCESS_MESSAGE))
+                .andExpect(jsonPath("$.result[0].created").value(true))
+                .andExpect(jsonPath("$.result[0].recipe.title").value(RECIPE_TITLE))
+                .andExpect(jsonPath("$.result[1].created").value(false))
+                .andExpect(jsonPath("$.result[1].errors[0]").value("title: Title is required"));
+    }
+
+    @Test
+    void createRecipes_tooLarge_returnsBadRequest() throws Exception {
+        when(recipeService.createRecipes(anyList())).thenThrow(new BatchTooLargeException(1000));
+        when(translatorService.process(eq(BATCH_TOO_LARGE_KEY), eq(new Object[]{1000})))
+                .thenReturn(BATCH_TOO_LARGE_MESSAGE);
+
+        mockMvc.perform(post(CREATE_RECIPE_URL + "/batch")
+                        .contentType(JSON)
+                        .content(objectMapper.writeValueAsString(List.of(getValidRequest()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath(PATH_SUCCESS).value(false))
+                .andExpect(jsonPath(PATH_MESSAGE).value(BATCH_TOO_LARGE_MESSAGE));
+    }
+
+    private static RecipeUpdatedDto buildRecipeUpdatedDto(boolean modified) {
+        RecipeUpdatedDto recipeUpdatedDto = new RecipeUpdatedDto();
+        recipeUpdatedDto.setTitle(RECIPE_TITLE);
+        recipeUpdatedDto.setModified(modified);
+        recipeUpdatedDto.setVersion(modified ? 4L : 3L);
+        return recipeUpdatedDto;
+    }
+
     @Test
     void updateRecipe_success() throws Exception {
+        when(recipeService.updateRecipe(any(), any(), any())).thenReturn(buildRecipeUpdatedDto(true));
         when(translatorService.process(eq(UPDATE_RECIPE_SUCCESS_KEY), (Locale) any())).thenReturn(UPDATE_RECIPE_SUCCESS_MESSAGE);
 
         mockMvc.perform(put(UPDATE_RECIPE_URL)
@@ -174,6 +288,21 @@ class RecipeControllerTest {
                 .andExpect(jsonPath(PATH_MESSAGE).value(UPDATE_RECIPE_SUCCESS_MESSAGE));
     }
 
+    @Test
+    void updateRecipe_unchanged_reportsNotModified() throws Exception {
+        when(recipeService.updateRecipe(any(), any(), any())).thenReturn(buildRecipeUpdatedDto(false));
+        when(translatorService.process(eq(UPDATE_RECIPE_UNCHANGED_KEY), (Locale) any()))
+                .thenReturn(UPDATE_RECIPE_UNCHANGED_MESSAGE);
+
+        mockMvc.perform(put(UPDATE_RECIPE_URL)
+                        .contentType(JSON)
+                        .content(buildJson(getValidRequest())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_SUCCESS).value(true))
+                .andExpect(jsonPath(PATH_MESSAGE).value(UPDATE_RECIPE_UNCHANGED_MESSAGE))
+                .andExpect(jsonPath("$.result.modified").value(false));
+    }
+
     @Test
     void getRecipe_success() throws Exception {
         when(translatorService.process(eq(GET_RECIPE_SUCCESS_KEY), (Locale) any())).thenReturn(GET_RECIPE_SUCCESS_MESSAGE);
@@ -186,6 +315,111 @@ class RecipeControllerTest {
                 .andExpect(jsonPath(PATH_MESSAGE).value(GET_RECIPE_SUCCESS_MESSAGE));
     }
 
+    private double responseCacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", RecipeResponseCache.CACHE_NAME)
+                .tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void getRecipe_servedFromCacheUntilEvicted() throws Exception {
+        when(translatorService.process(eq(GET_RECIPE_SUCCESS_KEY), (Locale) any())).thenReturn(GET_RECIPE_SUCCESS_MESSAGE);
+        when(recipeService.getRecipe(any())).thenReturn(buildRecipeViewDto());
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get(GET_RECIPE_URL)
+                            .contentType(JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath(PATH_SUCCESS).value(true))
+                    .andExpect(jsonPath(PATH_RESULT + ".title").value(RECIPE_TITLE));
+        }
+        verify(recipeService, times(1)).getRecipe(UUID.fromString(VALID_UUID));
+        assertThat(responseCacheGets("hit")).isEqualTo(2);
+        assertThat(responseCacheGets("miss")).isEqualTo(1);
+
+        recipeResponseCache.evict(UUID.fromString(VALID_UUID));
+        mockMvc.perform(get(GET_RECIPE_URL)
+                        .contentType(JSON))
+                .andExpect(status().isOk());
+        verify(recipeService, times(2)).getRecipe(UUID.fromString(VALID_UUID));
+    }
+
+    @Test
+    void getRecipe_returnsVersionAsETag() throws Exception {
+        when(recipeService.getRecipeVersion(UUID.fromString(VALID_UUID))).thenReturn(3L);
+        when(recipeService.getRecipe(any())).thenReturn(buildRecipeViewDto());
+
+        mockMvc.perform(get(GET_RECIPE_URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void getRecipe_ifNoneMatchCurrentVersion_returnsNotModifiedWithoutLoadingRecipe() throws Exception {
+        when(recipeService.getRecipeVersion(UUID.fromString(VALID_UUID))).thenReturn(3L);
+
+        mockMvc.perform(get(GET_RECIPE_URL)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(recipeService, never()).getRecipe(any());
+    }
+
+    @Test
+    void getRecipe_ifNoneMatchStaleVersion_returnsRecipe() throws Exception {
+        when(recipeService.getRecipeVersion(UUID.fromString(VALID_UUID))).thenReturn(4L);
+        when(recipeService.getRecipe(any())).thenReturn(buildRecipeViewDto());
+
+        mockMvc.perform(get(GET_RECIPE_URL)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath(PATH_RESULT + ".title").value(RECIPE_TITLE));
+    }
+
+    @Test
+    void updateRecipe_ifMatch_passesVersionAndReturnsNewETag() throws Exception {
+        when(recipeService.updateRecipe(any(), any(), any())).thenReturn(buildRecipeUpdatedDto(true));
+
+        mockMvc.perform(put(UPDATE_RECIPE_URL)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(JSON)
+                        .content(buildJson(getValidRequest())))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath(PATH_RESULT + ".version").value(4));
+
+        verify(recipeService).updateRecipe(any(), eq(UUID.fromString(VALID_UUID)), eq(3L));
+    }
+
+    @Test
+    void updateRecipe_versionMismatch_returnsPreconditionFailed() throws Exception {
+        when(recipeService.updateRecipe(any(), any(), any()))
+                .thenThrow(new PreconditionFailedException(VERSION_MISMATCH_MESSAGE));
+
+        mockMvc.perform(put(UPDATE_RECIPE_URL)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(JSON)
+                        .content(buildJson(getValidRequest())))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath(PATH_SUCCESS).value(false))
+                .andExpect(jsonPath(PATH_MESSAGE).value(VERSION_MISMATCH_MESSAGE));
+    }
+
+    @Test
+    void deleteRecipe_ifMatch_passesVersion() throws Exception {
+        mockMvc.perform(delete(DELETE_RECIPE_URL)
+                        .header(HttpHeaders.IF_MATCH, "\"foreign\", W/\"5\""))
+                .andExpect(status().isOk());
+        verify(recipeService).deleteRecipe(UUID.fromString(VALID_UUID), 5L);
+
+        mockMvc.perform(delete(DELETE_RECIPE_URL)
+                        .header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk());
+        verify(recipeService).deleteRecipe(UUID.fromString(VALID_UUID), null);
+    }
+
     @Test
     void deleteRecipe_success() throws Exception {
         when(translatorService.process(eq(DELETE_RECIPE_SUCCESS_KEY), (Locale) any())).thenReturn(DELETE_RECIPE_SUCCESS_MESSAGE);
@@ -197,12 +431,121 @@ class RecipeControllerTest {
                 .andExpect(jsonPath(PATH_MESSAGE).value(DELETE_RECIPE_SUCCESS_MESSAGE));
     }
 
+    @Test
+    void deleteRecipes_byUuids_returnsDeletedCount() throws Exception {
+        when(recipeService.deleteRecipes(any())).thenReturn(2);
+        when(translatorService.process(eq(BULK_DELETE_SUCCESS_KEY), eq(new Object[]{2}), any(Locale.class)))
+                .thenReturn(BULK_DELETE_SUCCESS_MESSAGE);
+
+        mockMvc.perform(delete(BASE_URL)
+                        .contentType(JSON)
+                        .content("{\"uuids\":[\"" + VALID_UUID + "\",\"" + UUID.randomUUID() + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_SUCCESS).value(true))
+                .andExpect(jsonPath(PATH_MESSAGE).value(BULK_DELETE_SUCCESS_MESSAGE))
+                .andExpect(jsonPath(PATH_RESULT).value(2));
+    }
+
+    @Test
+    void deleteRecipes_withoutCriteria_returnsValidationError() throws Exception {
+        when(translatorService.process(VALIDATION_KEY)).thenReturn(VALIDATION_MESSAGE);
+
+        mockMvc.perform(delete(BASE_URL)
+                        .contentType(JSON)
+                        .content("{\"filter\":{}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath(PATH_MESSAGE).value(VALIDATION_MESSAGE));
+        verify(recipeService, never()).deleteRecipes(any());
+    }
+
+    @Test
+    void exportRecipes_streamsCsvWithFilters() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("uuid\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(recipeService).exportRecipes(any(), any(), any());
+
+        MvcResult result = mockMvc.perform(get(EXPORT_RECIPE_URL)
+                        .param("vegetarian", "true")
+                        .param("includedIngredients", "garlic")
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(RecipeFileFormat.CSV.getMediaType()))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes.csv\""))
+                .andExpect(content().string("uuid\n"));
+
+        ArgumentCaptor<RecipeSearchRequestDto> search = ArgumentCaptor.forClass(RecipeSearchRequestDto.class);
+        verify(recipeService).exportRecipes(search.capture(), eq(RecipeFileFormat.CSV), any());
+        assertThat(search.getValue().getVegetarian()).isTrue();
+        assertThat(search.getValue().getIncludedIngredients()).containsExactly("garlic");
+    }
+
+    @Test
+    void exportRecipes_defaultsToNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get(EXPORT_RECIPE_URL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+        verify(recipeService).exportRecipes(any(), eq(RecipeFileFormat.NDJSON), any());
+    }
+
+    private RecipeImportResultDto buildImportResult(long received, long imported) {
+        RecipeImportResultDto result = new RecipeImportResultDto();
+        result.setReceived(received);
+        result.setImported(imported);
+        result.setRejected(received - imported);
+        return result;
+    }
+
+    @Test
+    void importRecipes_csv_returnsCreatedWithSummary() throws Exception {
+        when(recipeService.importRecipes(any(), eq(RecipeFileFormat.CSV))).thenReturn(buildImportResult(3, 2));
+        when(translatorService.process(eq(IMPORT_SUCCESS_KEY), any(Object[].class), any(Locale.class)))
+                .thenReturn(IMPORT_SUCCESS_MESSAGE);
+
+        mockMvc.perform(post(IMPORT_RECIPE_URL)
+                        .contentType("text/csv;charset=UTF-8")
+                        .content("title\nAdobo\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath(PATH_SUCCESS).value(true))
+                .andExpect(jsonPath(PATH_MESSAGE).value(IMPORT_SUCCESS_MESSAGE))
+                .andExpect(jsonPath("$.result.imported").value(2))
+                .andExpect(jsonPath("$.result.rejected").value(1));
+    }
+
+    @Test
+    void importRecipes_nothingImported_returnsBadRequest() throws Exception {
+        when(recipeService.importRecipes(any(), eq(RecipeFileFormat.NDJSON))).thenReturn(buildImportResult(1, 0));
+
+        mockMvc.perform(post(IMPORT_RECIPE_URL)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath(PATH_SUCCESS).value(false));
+    }
+
+    @Test
+    void importRecipes_unsupportedContentType_returnsUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post(IMPORT_RECIPE_URL)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Adobo"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(recipeService);
+    }
+
     @Test
     void searchRecipe_success() throws Exception {
         RecipeViewDto viewDto = buildRecipeViewDto();
         Page<RecipeViewDto> recipePage = new PageImpl<>(List.of(viewDto), PageRequest.of(0, 10), 1);
 
-        when(recipeService.searchRecipes(any(), any(), any(), any(), any(), any()))
+        when(recipeService.searchRecipes(any(), any()))
                 .thenReturn(recipePage);
         when(translatorService.process(eq(SEARCH_RECIPE_SUCCESS_KEY), any(Locale.class)))
                 .thenReturn(SEARCH_RECIPE_SUCCESS_MESSAGE);
@@ -226,11 +569,57 @@ class RecipeControllerTest {
                 .andExpect(jsonPath(PATH_RESULT_LAST).value(true));
     }
 
+    @Test
+    void searchRecipe_acceptSmile_returnsSmileDocument() throws Exception {
+        when(recipeService.searchRecipes(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(buildRecipeViewDto()), PageRequest.of(0, 10), 1));
+        when(translatorService.process(eq(SEARCH_RECIPE_SUCCESS_KEY), any(Locale.class)))
+                .thenReturn(SEARCH_RECIPE_SUCCESS_MESSAGE);
+
+        MvcResult result = mockMvc.perform(get(SEARCH_RECIPE_URL)
+                        .header(HttpHeaders.ACCEPT, SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        JsonNode response = ResponseFormat.SMILE.createObjectMapper(Jackson2ObjectMapperBuilder.json())
+                .readTree(result.getResponse().getContentAsByteArray());
+        assertThat(response.get("message").asText()).isEqualTo(SEARCH_RECIPE_SUCCESS_MESSAGE);
+        assertThat(response.at("/result/content/0/title").asText()).isEqualTo(RECIPE_TITLE);
+    }
+
+    @Test
+    void getRecipe_acceptCbor_servesCborVariantFromCache() throws Exception {
+        when(translatorService.process(eq(GET_RECIPE_SUCCESS_KEY), (Locale) any())).thenReturn(GET_RECIPE_SUCCESS_MESSAGE);
+        when(recipeService.getRecipe(any())).thenReturn(buildRecipeViewDto());
+
+        for (int i = 0; i < 2; i++) {
+            MvcResult result = mockMvc.perform(get(GET_RECIPE_URL)
+                            .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                    .andReturn();
+
+            JsonNode response = ResponseFormat.CBOR.createObjectMapper(Jackson2ObjectMapperBuilder.json())
+                    .readTree(result.getResponse().getContentAsByteArray());
+            assertThat(response.at("/result/title").asText()).isEqualTo(RECIPE_TITLE);
+        }
+        mockMvc.perform(get(GET_RECIPE_URL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath(PATH_RESULT + ".title").value(RECIPE_TITLE));
+
+        // One entry per format
+        assertThat(responseCacheGets("miss")).isEqualTo(2);
+        assertThat(responseCacheGets("hit")).isEqualTo(1);
+    }
+
     @Test
     void searchRecipe_emptyList() throws Exception {
         Page<RecipeViewDto> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
 
-        when(recipeService.searchRecipes(any(), any(), any(), any(), any(), any()))
+        when(recipeService.searchRecipes(any(), any()))
                 .thenReturn(emptyPage);
         when(translatorService.process(eq(SEARCH_RECIPE_EMPTY_KEY), any(Locale.class)))
                 .thenReturn(SEARCH_RECIPE_EMPTY_MESSAGE);
@@ -252,6 +641,178 @@ class RecipeControllerTest {
 
     }
 
+    @Test
+    void searchRecipe_withoutTotal_returnsSliceWithoutTotals() throws Exception {
+        RecipeViewDto viewDto = buildRecipeViewDto();
+
+        when(recipeService.sliceRecipes(any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(viewDto), PageRequest.of(0, 1), true));
+        when(translatorService.process(eq(SEARCH_RECIPE_SUCCESS_KEY), any(Locale.class)))
+                .thenReturn(SEARCH_RECIPE_SUCCESS_MESSAGE);
+
+        mockMvc.perform(get(SEARCH_RECIPE_URL)
+                        .param("withTotal", "false")
+                        .param("page", "0")
+                        .param("size", "1")
+                        .contentType(JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_RESULT_CONTENT_LENGTH).value(1))
+                .andExpect(jsonPath(PATH_RESULT_PAGE_NUMBER).value(0))
+                .andExpect(jsonPath(PATH_RESULT_PAGE_SIZE).value(1))
+                .andExpect(jsonPath(PATH_RESULT_HAS_NEXT).value(true))
+                .andExpect(jsonPath(PATH_RESULT_LAST).value(false))
+                .andExpect(jsonPath(PATH_RESULT_TOTAL_ELEMENTS).doesNotExist())
+                .andExpect(jsonPath(PATH_RESULT_TOTAL_PAGES).doesNotExist());
+
+        verify(recipeService, never()).searchRecipes(any(), any());
+    }
+
+    @Test
+    void searchRecipe_withCursor_returnsNextCursorWithoutTotals() throws Exception {
+        RecipeViewDto viewDto = buildRecipeViewDto();
+        Window<RecipeViewDto> window = Window.from(List.of(viewDto),
+                index -> ScrollPosition.forward(Map.of("id", 1L)), true);
+
+        when(recipeService.scrollRecipes(any(), eq(""), any())).thenReturn(window);
+        when(translatorService.process(eq(SEARCH_RECIPE_SUCCESS_KEY), any(Locale.class)))
+                .thenReturn(SEARCH_RECIPE_SUCCESS_MESSAGE);
+
+        mockMvc.perform(get(SEARCH_RECIPE_URL)
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .contentType(JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_SUCCESS).value(true))
+                .andExpect(jsonPath(PATH_RESULT_CONTENT_LENGTH).value(1))
+                .andExpect(jsonPath(PATH_RESULT_FIRST_TITLE).value(RECIPE_TITLE))
+                .andExpect(jsonPath(PATH_RESULT_LAST).value(false))
+                .andExpect(jsonPath(PATH_RESULT_NEXT_CURSOR).isNotEmpty())
+                .andExpect(jsonPath(PATH_RESULT_TOTAL_ELEMENTS).doesNotExist())
+                .andExpect(jsonPath(PATH_RESULT_TOTAL_PAGES).doesNotExist())
+                .andExpect(jsonPath(PATH_RESULT_PAGE_NUMBER).doesNotExist());
+
+        verify(recipeService, never()).searchRecipes(any(), any());
+    }
+
+    @Test
+    void searchRecipe_summaryView_returnsSummariesOnly() throws Exception {
+        RecipeSummaryDto summaryDto = new RecipeSummaryDto();
+        summaryDto.setUuid(UUID.randomUUID());
+        summaryDto.setTitle(RECIPE_TITLE);
+        summaryDto.setVegetarian(true);
+        summaryDto.setServings(2);
+
+        when(recipeService.searchRecipeSummaries(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(summaryDto), PageRequest.of(0, 10), 1));
+        when(translatorService.process(eq(SEARCH_RECIPE_SUCCESS_KEY), any(Locale.class)))
+                .thenReturn(SEARCH_RECIPE_SUCCESS_MESSAGE);
+
+        mockMvc.perform(get(SEARCH_RECIPE_URL)
+                        .param("view", "SUMMARY")
+                        .contentType(JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_RESULT_CONTENT_LENGTH).value(1))
+                .andExpect(jsonPath(PATH_RESULT_FIRST_TITLE).value(RECIPE_TITLE))
+                .andExpect(jsonPath(PATH_RESULT_CONTENT + "[0].servings").value(2))
+                .andExpect(jsonPath(PATH_RESULT_CONTENT + "[0].instruction").doesNotExist())
+                .andExpect(jsonPath(PATH_RESULT_CONTENT + "[0].ingredients").doesNotExist())
+                .andExpect(jsonPath(PATH_RESULT_TOTAL_ELEMENTS).value(1));
+
+        verify(recipeService, never()).searchRecipes(any(), any());
+    }
+
+    @Test
+    void searchRecipe_summaryViewWithoutTotal_returnsSlice() throws Exception {
+        when(recipeService.sliceRecipeSummaries(any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(new RecipeSummaryDto()), PageRequest.of(0, 1), true));
+        when(translatorService.process(eq(SEARCH_RECIPE_SUCCESS_KEY), any(Locale.class)))
+                .thenReturn(SEARCH_RECIPE_SUCCESS_MESSAGE);
+
+        mockMvc.perform(get(SEARCH_RECIPE_URL)
+                        .param("view", "SUMMARY")
+                        .param("withTotal", "false")
+                        .param("size", "1")
+                        .contentType(JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_RESULT_HAS_NEXT).value(true))
+                .andExpect(jsonPath(PATH_RESULT_TOTAL_ELEMENTS).doesNotExist());
+
+        verify(recipeService, never()).sliceRecipes(any(), any());
+    }
+
+    @Test
+    void searchRecipe_fullTextInstruction_passesInstructionMode() throws Exception {
+        when(recipeService.searchRecipes(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(buildRecipeViewDto()), PageRequest.of(0, 10), 1));
+        when(translatorService.process(eq(SEARCH_RECIPE_SUCCESS_KEY), any(Locale.class)))
+                .thenReturn(SEARCH_RECIPE_SUCCESS_MESSAGE);
+
+        mockMvc.perform(get(SEARCH_RECIPE_URL)
+                        .param("instruction", "\"soy sauce\" -sugar")
+                        .param("instructionMode", "FULLTEXT")
+                        .contentType(JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_RESULT_CONTENT_LENGTH).value(1));
+
+        verify(recipeService).searchRecipes(argThat(search ->
+                search.getInstructionMode() == RecipeSearchRequestDto.InstructionMode.FULLTEXT
+                        && search.getInstruction().equals("\"soy sauce\" -sugar")), any());
+    }
+
+    @Test
+    void searchFacets_passesFiltersAndReturnsCounts() throws Exception {
+        RecipeFacetsDto facets = new RecipeFacetsDto();
+        facets.setTotal(3);
+        facets.getVegetarian().add(new RecipeFacetsDto.FacetCountDto<>(true, 3));
+        facets.getServings().add(new RecipeFacetsDto.FacetCountDto<>(2, 3));
+        facets.getIngredients().add(new RecipeFacetsDto.FacetCountDto<>("garlic", 2));
+        when(recipeService.getSearchFacets(any(), anyInt())).thenReturn(facets);
+        when(translatorService.process(eq(SEARCH_FACETS_SUCCESS_KEY), any(Locale.class)))
+                .thenReturn("Search facets counted successfully");
+
+        mockMvc.perform(get(SEARCH_FACETS_URL)
+                        .param("vegetarian", "true")
+                        .param("includedIngredients", "garlic")
+                        .param("topIngredients", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_MESSAGE).value("Search facets counted successfully"))
+                .andExpect(jsonPath(PATH_RESULT + ".total").value(3))
+                .andExpect(jsonPath(PATH_RESULT + ".vegetarian[0].value").value(true))
+                .andExpect(jsonPath(PATH_RESULT + ".servings[0].value").value(2))
+                .andExpect(jsonPath(PATH_RESULT + ".ingredients[0].value").value("garlic"))
+                .andExpect(jsonPath(PATH_RESULT + ".ingredients[0].count").value(2));
+
+        verify(recipeService).getSearchFacets(argThat(search -> search.getVegetarian()
+                && search.getIncludedIngredients().equals(List.of("garlic"))), eq(5));
+    }
+
+    @Test
+    void suggestIngredients_returnsSuggestions() throws Exception {
+        IngredientSuggestionDto garlic = new IngredientSuggestionDto();
+        garlic.setName("garlic");
+        garlic.setCount(7);
+        when(recipeService.suggestIngredients("Ga", 10)).thenReturn(List.of(garlic));
+
+        mockMvc.perform(get(SUGGEST_INGREDIENTS_URL).param("prefix", "Ga"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(PATH_SUCCESS).value(true))
+                .andExpect(jsonPath(PATH_RESULT + "[0].name").value("garlic"))
+                .andExpect(jsonPath(PATH_RESULT + "[0].count").value(7));
+    }
+
+    @Test
+    void searchRecipe_invalidCursor_returnsBadRequest() throws Exception {
+        when(recipeService.scrollRecipes(any(), any(), any())).thenThrow(new InvalidCursorException("bad"));
+        when(translatorService.process(INVALID_CURSOR_KEY)).thenReturn(INVALID_CURSOR_MESSAGE);
+
+        mockMvc.perform(get(SEARCH_RECIPE_URL)
+                        .param("cursor", "bad")
+                        .contentType(JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath(PATH_SUCCESS).value(false))
+                .andExpect(jsonPath(PATH_MESSAGE).value(INVALID_CURSOR_MESSAGE));
+    }
+
     /**
      * Request Validation Test
      */
@@ -428,9 +989,9 @@ class RecipeControllerTest {
             case METHOD_GET -> doThrow(new jakarta.persistence.EntityNotFoundException(errorMessage))
                     .when(recipeService).getRecipe(any());
             case METHOD_PUT -> doThrow(new jakarta.persistence.EntityNotFoundException(errorMessage))
-                    .when(recipeService).updateRecipe(any(), any());
+                    .when(recipeService).updateRecipe(any(), any(), any());
             case METHOD_DELETE -> doThrow(new jakarta.persistence.EntityNotFoundException(errorMessage))
-                    .when(recipeService).deleteRecipe(any());
+                    .when(recipeService).deleteRecipe(any(), any());
             default -> throw new IllegalArgumentException(UNSUPPORTED_METHOD_MESSAGE + method);
         }
 
@@ -0,0 +1,111 @@
+package com.api.recipe.main.importer;
+
+import com.api.recipe.common.exception.UnreadableImportException;
+import com.api.recipe.common.service.TranslatorService;
+import com.api.recipe.main.dto.request.RecipeFileFormat;
+import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class RecipeImportReaderTest {
+
+    @Mock
+    private TranslatorService translatorService;
+
+    private RecipeImportReader recipeImportReader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(translatorService.process(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(translatorService.process(anyString(), any(Object[].class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        recipeImportReader = new RecipeImportReader(new ObjectMapper(), translatorService);
+    }
+
+    private List<RecipeImportReader.Line> read(String content, RecipeFileFormat format) throws Exception {
+        return recipeImportReader.read(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format).toList();
+    }
+
+    private static List<String> ingredientNames(RecipeRequestDto recipe) {
+        return recipe.getIngredients().stream().map(RecipeRequestDto.IngredientRequestDto::getName).toList();
+    }
+
+    @Test
+    void read_ndjson_numbersLinesAndReportsUnreadableOnes() throws Exception {
+        List<RecipeImportReader.Line> lines = read("""
+                {"title":"Adobo","ingredients":[{"name":"chicken"}],"vegetarian":false,"servings":4}
+
+                {"title":"Broken"
+                {"title":"Trailing"} {}
+                """, RecipeFileFormat.NDJSON);
+
+        assertThat(lines).extracting(RecipeImportReader.Line::number).containsExactly(1L, 3L, 4L);
+        assertThat(lines.get(0).errors()).isEmpty();
+        assertThat(lines.get(0).recipe().getTitle()).isEqualTo("Adobo");
+        assertThat(ingredientNames(lines.get(0).recipe())).containsExactly("chicken");
+        assertThat(lines.get(1).recipe()).isNull();
+        assertThat(lines.get(1).errors()).containsExactly("recipe.import.line.unreadable");
+        assertThat(lines.get(2).errors()).containsExactly("recipe.import.line.unreadable");
+    }
+
+    @Test
+    void read_csv_mapsColumnsByHeaderName() throws Exception {
+        List<RecipeImportReader.Line> lines = read("""
+                uuid,servings,vegetarian,title,description,ingredients,instruction
+                ignored,2,TRUE,Salad,Greens,"[""lettuce"",""olive oil, extra virgin""]","Toss
+                well"
+
+                ignored,,false,,Soup,"[]",Boil
+                """, RecipeFileFormat.CSV);
+
+        assertThat(lines).extracting(RecipeImportReader.Line::number).containsExactly(2L, 5L);
+        RecipeRequestDto salad = lines.get(0).recipe();
+        assertThat(salad.getTitle()).isEqualTo("Salad");
+        assertThat(salad.getDescription()).isEqualTo("Greens");
+        assertThat(salad.getInstruction()).isEqualTo("Toss\nwell");
+        assertThat(salad.getVegetarian()).isTrue();
+        assertThat(salad.getServings()).isEqualTo(2);
+        assertThat(ingredientNames(salad)).containsExactly("lettuce", "olive oil, extra virgin");
+        // Blank values are left for validation to report
+        assertThat(lines.get(1).errors()).isEmpty();
+        assertThat(lines.get(1).recipe().getTitle()).isNull();
+        assertThat(lines.get(1).recipe().getServings()).isNull();
+    }
+
+    @Test
+    void read_csv_reportsValuesOfTheWrongType() throws Exception {
+        List<RecipeImportReader.Line> lines = read("""
+                title,ingredients,vegetarian,servings
+                Bad,lettuce,yes,two
+                """, RecipeFileFormat.CSV);
+
+        assertThat(lines).singleElement().satisfies(line -> {
+            assertThat(line.recipe()).isNull();
+            assertThat(line.errors()).containsExactly("recipe.import.ingredients.invalid",
+                    "recipe.import.vegetarian.invalid", "recipe.import.servings.invalid");
+        });
+    }
+
+    @Test
+    void read_csv_brokenQuoting_stopsReading() {
+        assertThatThrownBy(() -> read("title,description\nok,fine\n\"unterminated,value\n", RecipeFileFormat.CSV))
+                .isInstanceOf(UnreadableImportException.class)
+                .extracting("line")
+                .isEqualTo(3L);
+    }
+}
@@ -0,0 +1,109 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.entity.IngredientName;
+import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.repository.RecipeDeleteRepository.DeletedRecipes;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Set-based deletes against PostgreSQL with the Liquibase schema
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RecipeDeleteRepositoryTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private IngredientNameRepository ingredientNameRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Recipe storedRecipe(String title, boolean vegetarian, String instruction, String... names) {
+        Map<String, IngredientName> ingredientNames = ingredientNameRepository.findOrCreateAll(List.of(names));
+        Recipe recipe = new Recipe();
+        recipe.setTitle(title);
+        recipe.setDescription(title);
+        recipe.setInstruction(instruction);
+        recipe.setVegetarian(vegetarian);
+        recipe.setServings(2);
+        recipe.replaceIngredients(List.of(names).stream().map(ingredientNames::get).toList());
+        recipe.setIngredientNames(List.of(names).stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(Recipe.INGREDIENT_NAMES_SEPARATOR)));
+        return recipeRepository.saveAndFlush(recipe);
+    }
+
+    private long linkCount() {
+        return ((Number) entityManager.createNativeQuery("SELECT count(*) FROM recipe_ingredient")
+                .getSingleResult()).longValue();
+    }
+
+    @Test
+    void deleteByUuidIn_deletesRecipesAndTheirLinks() {
+        Recipe adobo = storedRecipe("Adobo", false, "Simmer", "Chicken", "Garlic");
+        Recipe salad = storedRecipe("Salad", true, "Toss", "Lettuce", "Garlic");
+        Recipe soup = storedRecipe("Soup", true, "Boil", "Onion");
+        entityManager.clear();
+
+        DeletedRecipes deleted = recipeRepository.deleteByUuidIn(List.of(adobo.getUuid(), salad.getUuid()));
+
+        assertThat(deleted.ids()).containsExactlyInAnyOrder(adobo.getId(), salad.getId());
+        assertThat(deleted.uuids()).containsExactlyInAnyOrder(adobo.getUuid(), salad.getUuid());
+        assertThat(deleted.ingredientNameCounts())
+                .isEqualTo(Map.of("Chicken", 1L, "Garlic", 2L, "Lettuce", 1L));
+        assertThat(recipeRepository.findAll()).extracting(Recipe::getId).containsExactly(soup.getId());
+        assertThat(linkCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteByUuid_withOtherVersion_deletesNothing() {
+        Recipe adobo = storedRecipe("Adobo", false, "Simmer", "Chicken");
+        entityManager.clear();
+
+        assertThat(recipeRepository.deleteByUuid(adobo.getUuid(), adobo.getVersion() + 1).ids()).isEmpty();
+        assertThat(recipeRepository.deleteByUuid(adobo.getUuid(), adobo.getVersion()).ids())
+                .containsExactly(adobo.getId());
+        assertThat(linkCount()).isZero();
+    }
+
+    @Test
+    void deleteMatching_appliesTheSearchFilters() {
+        Recipe salad = storedRecipe("Salad", true, "Toss the leaves", "Lettuce", "Olive oil");
+        storedRecipe("Tofu", true, "Toss the tofu", "Tofu", "Peanuts");
+        storedRecipe("Adobo", false, "Simmer and toss", "Chicken");
+        entityManager.clear();
+
+        DeletedRecipes deleted = recipeRepository.deleteMatching(new RecipeSearchRequestDto(
+                true, null, null, List.of("PEANUT"), "TOSS", RecipeSearchRequestDto.InstructionMode.CONTAINS));
+
+        assertThat(deleted.ids()).containsExactly(salad.getId());
+        assertThat(deleted.ingredientNameCounts()).isEqualTo(Map.of("Lettuce", 1L, "Olive oil", 1L));
+    }
+
+    @Test
+    void deleteMatching_fullText() {
+        storedRecipe("Salad", true, "Toss the leaves", "Lettuce");
+        Recipe soup = storedRecipe("Soup", true, "Boil the onions", "Onion");
+        entityManager.clear();
+
+        DeletedRecipes deleted = recipeRepository.deleteMatching(new RecipeSearchRequestDto(
+                null, null, List.of("onion"), null, "boiling", RecipeSearchRequestDto.InstructionMode.FULLTEXT));
+
+        assertThat(deleted.ids()).containsExactly(soup.getId());
+    }
+}
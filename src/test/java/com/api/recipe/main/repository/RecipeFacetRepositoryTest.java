@@ -0,0 +1,119 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.entity.IngredientName;
+import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.projection.RecipeFacetProjection;
+import com.api.recipe.main.repository.RecipeFacetRepository.FacetCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.api.recipe.main.specification.RecipeSpecification.excludeIngredients;
+import static com.api.recipe.main.specification.RecipeSpecification.includeIngredients;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Facet counts against PostgreSQL with the Liquibase schema
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RecipeFacetRepositoryTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private IngredientNameRepository ingredientNameRepository;
+
+    private Recipe salad;
+    private Recipe soup;
+
+    private Recipe storedRecipe(boolean vegetarian, int servings, String... names) {
+        Map<String, IngredientName> ingredientNames = ingredientNameRepository.findOrCreateAll(List.of(names));
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Recipe");
+        recipe.setDescription("Recipe");
+        recipe.setInstruction("Cook");
+        recipe.setVegetarian(vegetarian);
+        recipe.setServings(servings);
+        recipe.replaceIngredients(List.of(names).stream().map(ingredientNames::get).toList());
+        recipe.setIngredientNames(List.of(names).stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(Recipe.INGREDIENT_NAMES_SEPARATOR)));
+        return recipeRepository.saveAndFlush(recipe);
+    }
+
+    @BeforeEach
+    void setUp() {
+        salad = storedRecipe(true, 2, "Lettuce", "Garlic", "garlic");
+        soup = storedRecipe(true, 2, "Onion", "Garlic");
+        storedRecipe(false, 4, "Chicken", "Onion", "Garlic");
+        storedRecipe(false, 4);
+    }
+
+    @Test
+    void countFacets_unfiltered_countsEveryRecipeOncePerGroup() {
+        FacetCounts counts = recipeRepository.countFacets(new RecipeSearchRequestDto(), null, 2);
+
+        assertThat(counts.byVegetarianAndServings())
+                .extracting(RecipeFacetProjection::getVegetarian, RecipeFacetProjection::getServings,
+                        RecipeFacetProjection::getCount)
+                .containsExactlyInAnyOrder(tuple(true, 2, 2L), tuple(false, 4, 2L));
+        // The salad lists garlic twice and counts once; names differing in case are one facet
+        assertThat(counts.topIngredients())
+                .extracting(IngredientCountProjection::getName, IngredientCountProjection::getCount)
+                .containsExactly(tuple("garlic", 3L), tuple("onion", 2L));
+    }
+
+    @Test
+    void countFacets_filtered_countsMatchingRecipesOnly() {
+        RecipeSearchRequestDto filter = new RecipeSearchRequestDto();
+        filter.setExcludedIngredients(List.of("chick"));
+
+        FacetCounts counts = recipeRepository.countFacets(filter, null, 10);
+
+        assertThat(counts.byVegetarianAndServings())
+                .extracting(RecipeFacetProjection::getVegetarian, RecipeFacetProjection::getCount)
+                .containsExactlyInAnyOrder(tuple(true, 2L), tuple(false, 1L));
+        assertThat(counts.topIngredients())
+                .extracting(IngredientCountProjection::getName, IngredientCountProjection::getCount)
+                .containsExactly(tuple("garlic", 2L), tuple("lettuce", 1L), tuple("onion", 1L));
+    }
+
+    @Test
+    void countFacets_withRecipeIds_countsThoseRecipes() {
+        RecipeSearchRequestDto filter = new RecipeSearchRequestDto();
+        filter.setIncludedIngredients(List.of("ignored in favour of the ids"));
+
+        FacetCounts counts = recipeRepository.countFacets(filter, List.of(salad.getId(), soup.getId()), 0);
+
+        assertThat(counts.byVegetarianAndServings()).singleElement()
+                .extracting(RecipeFacetProjection::getCount).isEqualTo(2L);
+        assertThat(counts.topIngredients()).isEmpty();
+    }
+
+    @Test
+    void blankIncludedIngredients_filterNothing() {
+        RecipeSearchRequestDto filter = new RecipeSearchRequestDto();
+        filter.setIncludedIngredients(List.of(" ", ""));
+        filter.setExcludedIngredients(List.of("chick"));
+
+        // Same recipes as the ingredient index gives, through the specifications and the native filter
+        assertThat(recipeRepository.findAll(includeIngredients(filter.getIncludedIngredients())
+                .and(excludeIngredients(filter.getExcludedIngredients()))))
+                .hasSize(3);
+        assertThat(recipeRepository.countFacets(filter, null, 0).byVegetarianAndServings())
+                .extracting(RecipeFacetProjection::getCount)
+                .containsExactlyInAnyOrder(2L, 1L);
+    }
+}
@@ -0,0 +1,80 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.entity.Recipe;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * COPY-based import against PostgreSQL with the Liquibase schema
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RecipeImportRepositoryTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private static RecipeRequestDto recipe(int number, String... names) {
+        RecipeRequestDto recipe = new RecipeRequestDto();
+        recipe.setTitle("Recipe " + number);
+        recipe.setDescription("Imported");
+        recipe.setInstruction("Cook");
+        recipe.setVegetarian(true);
+        recipe.setServings(2);
+        recipe.setIngredients(List.of(names).stream().map(name -> {
+            RecipeRequestDto.IngredientRequestDto ingredient = new RecipeRequestDto.IngredientRequestDto();
+            ingredient.setName(name);
+            return ingredient;
+        }).toList());
+        return recipe;
+    }
+
+    private long nextSequenceValue() {
+        return ((Number) entityManager.createNativeQuery("SELECT nextval('recipe_seq')")
+                .getSingleResult()).longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> column(String sql) {
+        return entityManager.createNativeQuery(sql).getResultList();
+    }
+
+    @Test
+    void importRecipes_reservesOneBlockOfIdsPerFiftyRecipes() {
+        long before = nextSequenceValue();
+
+        long imported = recipeRepository.importRecipes(IntStream.range(0, 120).mapToObj(number -> recipe(number, "Salt")));
+
+        assertThat(imported).isEqualTo(120);
+        // Three blocks of 50 after the value taken above, the recipes numbered in file order from the first one
+        assertThat(nextSequenceValue()).isEqualTo(before + 4 * 50);
+        assertThat(column("SELECT id FROM recipe WHERE description = 'Imported' ORDER BY id"))
+                .extracting(id -> ((Number) id).longValue())
+                .containsExactlyElementsOf(LongStream.rangeClosed(before + 1, before + 120).boxed().toList());
+        assertThat(column("SELECT title FROM recipe WHERE description = 'Imported' ORDER BY id"))
+                .containsExactlyElementsOf(IntStream.range(0, 120).mapToObj(number -> "Recipe " + number).toList());
+    }
+
+    @Test
+    void importRecipes_lowerCasesIngredientNamesLikeTheEntity() {
+        List<String> names = List.of("Crème FRAÎCHE", "ÇİĞ KÖFTE", "Salt");
+
+        recipeRepository.importRecipes(List.of(recipe(1, names.toArray(String[]::new))).stream());
+
+        assertThat(column("SELECT ingredient_names FROM recipe WHERE description = 'Imported'"))
+                .containsExactly(Recipe.joinIngredientNames(names));
+    }
+}
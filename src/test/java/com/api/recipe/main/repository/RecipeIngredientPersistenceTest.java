@@ -0,0 +1,179 @@
+package com.api.recipe.main.repository;
+
+import com.api.recipe.common.service.TranslatorService;
+import com.api.recipe.main.cache.RecipeFacetCache;
+import com.api.recipe.main.cache.RecipeSearchCache;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.dto.response.RecipeViewDto;
+import com.api.recipe.main.entity.IngredientName;
+import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.importer.RecipeImportReader;
+import com.api.recipe.main.mapper.RecipeMapper;
+import com.api.recipe.main.projection.RecipeIngredientProjection;
+import com.api.recipe.main.search.IngredientIndex;
+import com.api.recipe.main.search.IngredientSuggestIndex;
+import com.api.recipe.main.service.RecipeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Statements Hibernate sends for recipe loads, searches and ingredient list changes, against PostgreSQL with the
+ * Liquibase schema
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.api.recipe.main.repository.RecipeIngredientPersistenceTest$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RecipeIngredientPersistenceTest extends EmbeddedPostgresTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private IngredientNameRepository ingredientNameRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Map<String, IngredientName> ingredientNames;
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ingredientNames = ingredientNameRepository.findOrCreateAll(
+                List.of("salt", "pepper", "garlic", "onion", "oil", "butter"));
+    }
+
+    // Stored recipe with the given ingredients, reloaded in a new persistence context
+    private Recipe storedRecipe(String... names) {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Adobo");
+        recipe.setDescription("Braised chicken");
+        recipe.setInstruction("Simmer");
+        recipe.setVegetarian(false);
+        recipe.setServings(4);
+        recipe.replaceIngredients(ingredients(names));
+        recipe.setIngredientNames("");
+        recipeRepository.saveAndFlush(recipe);
+        entityManager.clear();
+
+        Recipe stored = recipeRepository.findEntityByUuid(recipe.getUuid()).orElseThrow();
+        assertThat(stored.getIngredients()).hasSize(names.length);
+        STATEMENTS.clear();
+        return stored;
+    }
+
+    private List<IngredientName> ingredients(String... names) {
+        return List.of(names).stream().map(ingredientNames::get).toList();
+    }
+
+    private List<String> ingredientStatements() {
+        return STATEMENTS.stream().filter(sql -> sql.contains("recipe_ingredient")).toList();
+    }
+
+    private List<String> storedNames(Recipe recipe) {
+        entityManager.clear();
+        return recipeRepository.findIngredientsByRecipeIdIn(List.of(recipe.getId())).stream()
+                .map(RecipeIngredientProjection::getName)
+                .toList();
+    }
+
+    // Statements run by a search of the first page of the given size, each recipe read with its ingredients
+    private int searchStatementCount(RecipeService recipeService, int pageSize) {
+        entityManager.clear();
+        STATEMENTS.clear();
+        Page<RecipeViewDto> page = recipeService.searchRecipes(new RecipeSearchRequestDto(),
+                PageRequest.of(0, pageSize));
+
+        assertThat(page.getContent()).hasSize(pageSize)
+                .allSatisfy(recipe -> assertThat(recipe.getIngredients()).hasSize(3));
+        assertThat(ingredientStatements()).hasSize(1);
+        return STATEMENTS.size();
+    }
+
+    @Test
+    void replaceIngredients_insertedInTheMiddle_insertsOneRow() {
+        Recipe recipe = storedRecipe("salt", "pepper", "onion", "oil");
+
+        recipe.replaceIngredients(ingredients("salt", "pepper", "garlic", "onion", "oil"));
+        entityManager.flush();
+
+        assertThat(ingredientStatements()).singleElement().asString().startsWith("insert into recipe_ingredient");
+        assertThat(storedNames(recipe)).containsExactly("salt", "pepper", "garlic", "onion", "oil");
+    }
+
+    @Test
+    void replaceIngredients_removedAndRenamed_writesOnlyTheirRows() {
+        Recipe recipe = storedRecipe("salt", "pepper", "onion", "oil");
+
+        recipe.replaceIngredients(ingredients("salt", "butter", "oil"));
+        entityManager.flush();
+
+        // pepper becomes butter in place, onion goes
+        assertThat(ingredientStatements()).hasSize(2)
+                .anyMatch(sql -> sql.startsWith("update recipe_ingredient"))
+                .anyMatch(sql -> sql.startsWith("delete from recipe_ingredient"));
+        assertThat(storedNames(recipe)).containsExactly("salt", "butter", "oil");
+    }
+
+    @Test
+    void findEntityByUuid_leavesIngredientNamesOut() {
+        Recipe recipe = storedRecipe("salt", "pepper");
+        entityManager.clear();
+
+        Recipe loaded = recipeRepository.findEntityByUuid(recipe.getUuid()).orElseThrow();
+
+        assertThat(STATEMENTS).filteredOn(sql -> sql.startsWith("select") && sql.contains("from recipe "))
+                .isNotEmpty()
+                .noneMatch(sql -> sql.contains("ingredient_names"));
+        loaded.setIngredientNames("salt\npepper");
+        entityManager.flush();
+        assertThat(STATEMENTS).anyMatch(sql -> sql.startsWith("update recipe ") && sql.contains("ingredient_names"));
+    }
+
+    @Test
+    void searchRecipes_runsTheSameStatementsWhateverThePageSize() {
+        for (int i = 0; i < 60; i++) {
+            storedRecipe("salt", "pepper", "garlic");
+        }
+        // Only the repositories are real; the ingredient index is disabled, so the search runs in SQL
+        RecipeService recipeService = new RecipeService(recipeRepository, ingredientNameRepository,
+                mock(TranslatorService.class), mock(ApplicationEventPublisher.class),
+                new IngredientIndex(recipeRepository, null, false, 0), mock(IngredientSuggestIndex.class),
+                new RecipeSearchCache(new SimpleMeterRegistry(), 0), mock(RecipeFacetCache.class),
+                mock(Validator.class), new ObjectMapper(), mock(RecipeImportReader.class),
+                Mappers.getMapper(RecipeMapper.class), new SimpleMeterRegistry());
+
+        // The page, its count and the ingredients of the whole page
+        assertThat(searchStatementCount(recipeService, 1)).isEqualTo(3);
+        assertThat(searchStatementCount(recipeService, 50)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,151 @@
+package com.api.recipe.main.search;
+
+import com.api.recipe.main.event.RecipeChangedEvent;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.api.recipe.main.projection.RecipeIngredientProjection;
+import com.api.recipe.main.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class IngredientIndexTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IngredientIndex ingredientIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(recipeRepository.streamAllIngredients()).thenAnswer(invocation -> Stream.of(
+                row(1L, "1 kg Chicken thighs"),
+                row(1L, "6 cloves garlic, minced"),
+                row(2L, "1 Cabbage"),
+                row(2L, "Garlic"),
+                row(3L, "2kg Beef")
+        ));
+        when(recipeRepository.streamAllIds()).thenAnswer(invocation -> Stream.of(1L, 2L, 3L, 5L));
+        ingredientIndex = new IngredientIndex(recipeRepository, transactionManager, true, 100);
+    }
+
+    private static RecipeIngredientProjection row(Long recipeId, String name) {
+        return new RecipeIngredientProjection() {
+            @Override
+            public Long getRecipeId() {
+                return recipeId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private Optional<List<Long>> matchIds(List<String> included, List<String> excluded) {
+        return ingredientIndex.match(included, excluded).map(IngredientIndex.Match::ids);
+    }
+
+    private static RecipeChangedEvent change(Long id, List<String> previousNames, List<String> names) {
+        return new RecipeChangedEvent(id, UUID.randomUUID(), previousNames, names);
+    }
+
+    @Test
+    void match_beforeRebuild_isEmpty() {
+        assertThat(ingredientIndex.isReady()).isFalse();
+        assertThat(ingredientIndex.match(List.of("garlic"), null)).isEmpty();
+    }
+
+    @Test
+    void match_includedAndExcluded_resolvesRecipeIds() {
+        ingredientIndex.rebuild();
+
+        assertThat(matchIds(List.of("GARLIC"), null)).contains(List.of(1L, 2L));
+        assertThat(matchIds(List.of("garlic", "beef"), List.of("chicken"))).contains(List.of(2L, 3L));
+        // Exclusions alone apply to every recipe, with or without ingredients
+        assertThat(matchIds(null, List.of("bbag"))).contains(List.of(1L, 3L, 5L));
+        // Terms shorter than a trigram scan the name dictionary
+        assertThat(matchIds(List.of("kg"), null)).contains(List.of(1L, 3L));
+        assertThat(matchIds(List.of("tofu"), null)).contains(List.of());
+        // Blank included terms filter nothing, as in SQL
+        assertThat(matchIds(List.of(" "), List.of("bbag"))).contains(List.of(1L, 3L, 5L));
+    }
+
+    @Test
+    void match_pagesOnRecipeIds() {
+        ingredientIndex.rebuild();
+        IngredientIndex.Match match = ingredientIndex.match(null, List.of("cabbage")).orElseThrow();
+
+        assertThat(match.count()).isEqualTo(3);
+        assertThat(match.page(0, 2)).containsExactly(1L, 3L);
+        assertThat(match.page(2, 2)).containsExactly(5L);
+        assertThat(match.page(4, 2)).isEmpty();
+    }
+
+    @Test
+    void match_fallsBackToSql() {
+        ingredientIndex.rebuild();
+
+        assertThat(ingredientIndex.match(List.of(" "), null)).isEmpty();
+        assertThat(ingredientIndex.match(List.of("gar%ic"), null)).isEmpty();
+
+        IngredientIndex smallIndex = new IngredientIndex(recipeRepository, transactionManager, true, 1);
+        smallIndex.rebuild();
+        assertThat(smallIndex.match(List.of("garlic"), null)).get().satisfies(match ->
+                assertThat(smallIndex.fitsInQuery(match)).isFalse());
+        assertThat(smallIndex.match(List.of("beef"), null)).get().satisfies(match ->
+                assertThat(smallIndex.fitsInQuery(match)).isTrue());
+
+        IngredientIndex disabledIndex = new IngredientIndex(recipeRepository, transactionManager, false, 100);
+        disabledIndex.onApplicationReady();
+        assertThat(disabledIndex.match(List.of("garlic"), null)).isEmpty();
+    }
+
+    @Test
+    void onRecipeChanged_updatesIndexIncrementally() {
+        ingredientIndex.rebuild();
+
+        ingredientIndex.onRecipeChanged(change(4L, List.of(), List.of("Tofu", "Garlic")));
+        ingredientIndex.onRecipeChanged(change(2L, List.of("1 Cabbage", "Garlic"), List.of("1 Cabbage")));
+        ingredientIndex.onRecipeChanged(change(3L, List.of("2kg Beef"), List.of()));
+
+        assertThat(matchIds(List.of("garlic"), null))
+                .contains(List.of(1L, 4L));
+        assertThat(matchIds(List.of("tofu"), null))
+                .contains(List.of(4L));
+        assertThat(matchIds(null, List.of("tofu"))).contains(List.of(1L, 2L, 3L, 5L));
+        assertThat(matchIds(List.of("beef"), null))
+                .isEqualTo(Optional.of(List.of()));
+    }
+
+    @Test
+    void onRecipesDeleted_dropsRecipesFromTheirNames() {
+        ingredientIndex.rebuild();
+
+        ingredientIndex.onRecipesDeleted(new RecipesDeletedEvent(List.of(2L, 3L),
+                List.of(UUID.randomUUID(), UUID.randomUUID()), Map.of("1 Cabbage", 1L, "Garlic", 1L, "2kg Beef", 1L)));
+
+        assertThat(matchIds(List.of("garlic"), null))
+                .contains(List.of(1L));
+        assertThat(matchIds(List.of("g"), null))
+                .contains(List.of(1L));
+        assertThat(matchIds(List.of("cabbage", "beef"), null))
+                .isEqualTo(Optional.of(List.of()));
+        assertThat(matchIds(null, List.of("chicken"))).contains(List.of(5L));
+    }
+}
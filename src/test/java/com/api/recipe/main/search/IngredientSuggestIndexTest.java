@@ -0,0 +1,146 @@
+package com.api.recipe.main.search;
+
+import com.api.recipe.main.event.RecipeChangedEvent;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class IngredientSuggestIndexTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IngredientSuggestIndex ingredientSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(recipeRepository.countIngredientsByName()).thenAnswer(invocation -> List.of(
+                row("garlic", 5),
+                row("Garlic", 2),
+                row("ginger", 4),
+                row("green beans", 4),
+                row("salt", 9)
+        ));
+        ingredientSuggestIndex = new IngredientSuggestIndex(recipeRepository, transactionManager, true);
+    }
+
+    private static IngredientCountProjection row(String name, long count) {
+        return new IngredientCountProjection() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private List<IngredientSuggestIndex.Suggestion> suggest(String prefix, int limit) {
+        return ingredientSuggestIndex.suggest(prefix, limit).orElseThrow();
+    }
+
+    @Test
+    void suggest_beforeRebuild_isEmpty() {
+        assertThat(ingredientSuggestIndex.isReady()).isFalse();
+        assertThat(ingredientSuggestIndex.suggest("g", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_prefix_returnsMostUsedNamesFirst() {
+        ingredientSuggestIndex.rebuild();
+
+        // Names differing in case share a count; equal counts are ordered by name
+        assertThat(suggest("G", 10)).containsExactly(
+                new IngredientSuggestIndex.Suggestion("garlic", 7),
+                new IngredientSuggestIndex.Suggestion("ginger", 4),
+                new IngredientSuggestIndex.Suggestion("green beans", 4));
+        assertThat(suggest("g", 2)).extracting(IngredientSuggestIndex.Suggestion::name)
+                .containsExactly("garlic", "ginger");
+        assertThat(suggest("gr", 10)).extracting(IngredientSuggestIndex.Suggestion::name)
+                .containsExactly("green beans");
+        // Longer prefixes scan the names instead of reading them ranked
+        assertThat(suggest("GAR", 10)).containsExactly(new IngredientSuggestIndex.Suggestion("garlic", 7));
+        assertThat(suggest("green b", 10)).extracting(IngredientSuggestIndex.Suggestion::name)
+                .containsExactly("green beans");
+        assertThat(suggest("pepper", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_longPrefix_keepsMostUsedOfScannedNames() {
+        when(recipeRepository.countIngredientsByName()).thenReturn(List.of(
+                row("soy milk", 1), row("soy beans", 3), row("soy sauce", 8), row("soybean oil", 3)));
+        ingredientSuggestIndex.rebuild();
+
+        assertThat(suggest("soy", 2)).containsExactly(
+                new IngredientSuggestIndex.Suggestion("soy sauce", 8),
+                new IngredientSuggestIndex.Suggestion("soy beans", 3));
+    }
+
+    @Test
+    void onRecipeChanged_movesCountsFromPreviousToCurrentNames() {
+        ingredientSuggestIndex.rebuild();
+
+        ingredientSuggestIndex.onRecipeChanged(new RecipeChangedEvent(1L, UUID.randomUUID(),
+                List.of("Salt"), List.of("Pepper", "ginger")));
+
+        assertThat(suggest("pe", 10)).containsExactly(new IngredientSuggestIndex.Suggestion("pepper", 1));
+        assertThat(suggest("gi", 10)).containsExactly(new IngredientSuggestIndex.Suggestion("ginger", 5));
+        assertThat(suggest("ging", 10)).containsExactly(new IngredientSuggestIndex.Suggestion("ginger", 5));
+        assertThat(suggest("s", 10)).containsExactly(new IngredientSuggestIndex.Suggestion("salt", 8));
+    }
+
+    @Test
+    void onRecipesDeleted_dropsNamesNoLongerUsed() {
+        ingredientSuggestIndex.rebuild();
+
+        ingredientSuggestIndex.onRecipesDeleted(new RecipesDeletedEvent(List.of(1L, 2L),
+                List.of(UUID.randomUUID(), UUID.randomUUID()),
+                Map.of("green beans", 3L, "Green Beans", 1L, "garlic", 1L)));
+
+        assertThat(suggest("g", 10)).extracting(IngredientSuggestIndex.Suggestion::name)
+                .containsExactly("garlic", "ginger");
+        assertThat(suggest("ga", 10)).containsExactly(new IngredientSuggestIndex.Suggestion("garlic", 6));
+        assertThat(suggest("gre", 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_replacesCountsChangedMeanwhile() {
+        ingredientSuggestIndex.rebuild();
+        ingredientSuggestIndex.onRecipeChanged(new RecipeChangedEvent(1L, UUID.randomUUID(),
+                List.of(), List.of("pepper")));
+        when(recipeRepository.countIngredientsByName()).thenReturn(List.of(row("pepper", 3)));
+
+        ingredientSuggestIndex.rebuild();
+
+        assertThat(suggest("", 10)).containsExactly(new IngredientSuggestIndex.Suggestion("pepper", 3));
+    }
+
+    @Test
+    void disabled_neverLoads() {
+        IngredientSuggestIndex disabled = new IngredientSuggestIndex(recipeRepository, transactionManager, false);
+
+        disabled.onApplicationReady();
+
+        assertThat(disabled.suggest("g", 10)).isEmpty();
+        verifyNoInteractions(recipeRepository);
+    }
+}
@@ -1,30 +1,90 @@
 package com.api.recipe.main.service;
 
+import com.api.recipe.common.config.ArrayFunctionContributor;
+import com.api.recipe.common.config.FullTextFunctionContributor;
+import com.api.recipe.common.exception.BatchTooLargeException;
+import com.api.recipe.common.exception.InvalidCursorException;
+import com.api.recipe.common.exception.PreconditionFailedException;
 import com.api.recipe.common.service.TranslatorService;
+import com.api.recipe.common.util.CursorUtil;
+import com.api.recipe.main.cache.RecipeFacetCache;
+import com.api.recipe.main.cache.RecipeSearchCache;
+import com.api.recipe.main.dto.request.RecipeDeleteRequestDto;
+import com.api.recipe.main.dto.request.RecipeFileFormat;
 import com.api.recipe.main.dto.request.RecipeRequestDto;
+import com.api.recipe.main.dto.request.RecipeSearchRequestDto;
+import com.api.recipe.main.dto.response.IngredientSuggestionDto;
+import com.api.recipe.main.dto.response.RecipeBatchItemDto;
 import com.api.recipe.main.dto.response.RecipeCreatedDto;
+import com.api.recipe.main.dto.response.RecipeFacetsDto;
+import com.api.recipe.main.dto.response.RecipeImportResultDto;
+import com.api.recipe.main.dto.response.RecipeSummaryDto;
 import com.api.recipe.main.dto.response.RecipeUpdatedDto;
 import com.api.recipe.main.dto.response.RecipeViewDto;
-import com.api.recipe.main.entity.Ingredient;
+import com.api.recipe.main.entity.IngredientName;
 import com.api.recipe.main.entity.Recipe;
+import com.api.recipe.main.event.RecipeChangedEvent;
+import com.api.recipe.main.event.RecipesDeletedEvent;
+import com.api.recipe.main.event.RecipesImportedEvent;
+import com.api.recipe.main.importer.RecipeImportReader;
+import com.api.recipe.main.mapper.RecipeMapper;
+import com.api.recipe.main.projection.IngredientCountProjection;
+import com.api.recipe.main.projection.RecipeExportProjection;
+import com.api.recipe.main.projection.RecipeFacetProjection;
+import com.api.recipe.main.projection.RecipeIngredientProjection;
+import com.api.recipe.main.projection.RecipeSummaryProjection;
 import com.api.recipe.main.projection.RecipeViewProjection;
+import com.api.recipe.main.repository.IngredientNameRepository;
+import com.api.recipe.main.repository.RecipeDeleteRepository.DeletedRecipes;
+import com.api.recipe.main.repository.RecipeFacetRepository;
 import com.api.recipe.main.repository.RecipeRepository;
+import com.api.recipe.main.search.IngredientIndex;
+import com.api.recipe.main.search.IngredientSuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.mockito.Spy;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -33,15 +93,70 @@ class RecipeServiceTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private IngredientNameRepository ingredientNameRepository;
+
     @Mock
     private TranslatorService translatorService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IngredientIndex ingredientIndex;
+
+    @Mock
+    private IngredientSuggestIndex ingredientSuggestIndex;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Spy
+    private RecipeMapper recipeMapper = Mappers.getMapper(RecipeMapper.class);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private RecipeSearchCache recipeSearchCache = new RecipeSearchCache(meterRegistry, 100);
+
+    @Mock
+    private RecipeFacetCache recipeFacetCache;
+
     @InjectMocks
     private RecipeService recipeService;
 
+    // Ingredient dictionary behind the mocked repository, ids assigned in order of first use
+    private final Map<String, IngredientName> ingredientNames = new HashMap<>();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(recipeService, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(recipeService, "maxReportedRejections", 2);
+        ReflectionTestUtils.setField(recipeService, "maxTopIngredients", 3);
+        ReflectionTestUtils.setField(recipeService, "maxSuggestions", 5);
+        ReflectionTestUtils.setField(recipeService, "recipeImportReader",
+                new RecipeImportReader(objectMapper, translatorService));
+        when(ingredientNameRepository.findOrCreateAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            Map<String, IngredientName> entries = new HashMap<>();
+            names.forEach(name -> entries.put(name, ingredientName(name)));
+            return entries;
+        });
+    }
+
+    private IngredientName ingredientName(String name) {
+        return ingredientNames.computeIfAbsent(name, key -> {
+            IngredientName ingredientName = new IngredientName();
+            ingredientName.setId(ingredientNames.size() + 1);
+            ingredientName.setName(key);
+            return ingredientName;
+        });
     }
 
     private static RecipeRequestDto getRecipeRequestDto() {
@@ -115,6 +230,77 @@ class RecipeServiceTest {
         verify(recipeRepository).save(any());
     }
 
+    @Test
+    void createRecipe_lowerCasesIngredientNamesWhateverTheDefaultLocale() {
+        RecipeRequestDto recipeRequestDto = getRecipeRequestDto();
+        RecipeRequestDto.IngredientRequestDto rice = new RecipeRequestDto.IngredientRequestDto();
+        rice.setName("1 CUP RICE");
+        recipeRequestDto.setIngredients(List.of(rice));
+        ArgumentCaptor<Recipe> saved = ArgumentCaptor.forClass(Recipe.class);
+        when(recipeRepository.save(saved.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            recipeService.createRecipe(recipeRequestDto);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        // Not the dotless "rıce" of the Turkish lower case, which a search for "rice" would miss
+        assertEquals("1 cup rice", saved.getValue().getIngredientNames());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createRecipes_savesValidItemsTogetherAndReportsInvalidOnes() {
+        RecipeRequestDto first = getRecipeRequestDto();
+        RecipeRequestDto invalid = getRecipeRequestDto();
+        invalid.setTitle(" ");
+        invalid.setServings(0);
+        RecipeRequestDto third = getRecipeRequestDto();
+        third.setTitle("Pork Adobo");
+
+        when(recipeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Recipe> recipes = invocation.getArgument(0);
+            recipes.forEach(recipe -> recipe.setUuid(UUID.randomUUID()));
+            return recipes;
+        });
+
+        List<RecipeBatchItemDto> results = recipeService.createRecipes(Arrays.asList(first, invalid, third));
+
+        assertThat(results).extracting(RecipeBatchItemDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(RecipeBatchItemDto::isCreated).containsExactly(true, false, true);
+        assertThat(results.get(0).getRecipe().getTitle()).isEqualTo("Chicken Adobo");
+        assertThat(results.get(2).getRecipe().getTitle()).isEqualTo("Pork Adobo");
+        assertThat(results.get(1).getRecipe()).isNull();
+        assertThat(results.get(1).getErrors()).hasSize(2)
+                .anyMatch(error -> error.startsWith("title: "))
+                .anyMatch(error -> error.startsWith("servings: "));
+
+        // One saveAll for the valid recipes instead of a save per recipe
+        ArgumentCaptor<List<Recipe>> saved = ArgumentCaptor.forClass(List.class);
+        verify(recipeRepository).saveAll(saved.capture());
+        verify(recipeRepository, never()).save(any());
+        assertThat(saved.getValue()).extracting(Recipe::getTitle).containsExactly("Chicken Adobo", "Pork Adobo");
+        verify(eventPublisher, times(2)).publishEvent(any(RecipeChangedEvent.class));
+        // The ingredient names of the whole batch are resolved together, and both recipes share the entries
+        verify(ingredientNameRepository, times(1)).findOrCreateAll(anyCollection());
+        assertThat(saved.getValue().get(0).getIngredients())
+                .containsExactlyEntriesOf(saved.getValue().get(1).getIngredients());
+        assertThat(saved.getValue().get(0).getIngredientNames())
+                .startsWith("1 kg chicken thighs or drumsticks\n1/2 cup soy sauce\n")
+                .isEqualTo(saved.getValue().get(0).getIngredientNames().toLowerCase());
+    }
+
+    @Test
+    void createRecipes_tooManyItems_throwsException() {
+        List<RecipeRequestDto> recipes = Collections.nCopies(4, getRecipeRequestDto());
+
+        assertThrows(BatchTooLargeException.class, () -> recipeService.createRecipes(recipes));
+        verifyNoInteractions(recipeRepository);
+    }
+
     @Test
     void updateRecipe_success() {
         RecipeRequestDto recipeRequestDto = getRecipeRequestDto();
@@ -123,7 +309,6 @@ class RecipeServiceTest {
         OffsetDateTime updatedAt = OffsetDateTime.now();
 
         Recipe existingRecipe = new Recipe();
-        existingRecipe.setIngredients(new ArrayList<>());
 
         Recipe savedRecipe = new Recipe();
         savedRecipe.setUuid(uuid);
@@ -131,15 +316,185 @@ class RecipeServiceTest {
         savedRecipe.setTitle(recipeRequestDto.getTitle());
 
         when(recipeRepository.findEntityByUuid(uuid)).thenReturn(Optional.of(existingRecipe));
-        when(recipeRepository.save(any(Recipe.class))).thenReturn(savedRecipe);
+        when(recipeRepository.saveAndFlush(any(Recipe.class))).thenReturn(savedRecipe);
 
-        RecipeUpdatedDto result = recipeService.updateRecipe(recipeRequestDto, uuid);
+        RecipeUpdatedDto result = recipeService.updateRecipe(recipeRequestDto, uuid, null);
 
         assertNotNull(result);
         assertEquals(recipeRequestDto.getTitle(), result.getTitle());
         assertNotNull(result.getUuid());
         assertNotNull(result.getUpdatedAt());
-        verify(recipeRepository).save(any());
+        assertTrue(result.isModified());
+        verify(recipeRepository).saveAndFlush(any());
+        verify(eventPublisher).publishEvent(any(RecipeChangedEvent.class));
+    }
+
+    // Managed recipe as stored for the request, linked to the dictionary entries of its ingredients
+    private Recipe storedRecipeOf(RecipeRequestDto recipeRequestDto, UUID uuid) {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setUuid(uuid);
+        BeanUtils.copyProperties(recipeRequestDto, recipe);
+        recipe.replaceIngredients(recipeRequestDto.getIngredients().stream()
+                .map(ingredient -> ingredientName(ingredient.getName()))
+                .toList());
+        return recipe;
+    }
+
+    @Test
+    void updateRecipe_unchanged_writesNothing() {
+        RecipeRequestDto recipeRequestDto = getRecipeRequestDto();
+        UUID uuid = UUID.randomUUID();
+        Recipe storedRecipe = storedRecipeOf(recipeRequestDto, uuid);
+        Map<Integer, IngredientName> storedIngredients = Map.copyOf(storedRecipe.getIngredients());
+        when(recipeRepository.findEntityByUuid(uuid)).thenReturn(Optional.of(storedRecipe));
+
+        RecipeUpdatedDto result = recipeService.updateRecipe(recipeRequestDto, uuid, null);
+
+        assertFalse(result.isModified());
+        assertEquals(uuid, result.getUuid());
+        assertThat(storedRecipe.getIngredients()).isEqualTo(storedIngredients);
+        verify(recipeRepository, never()).saveAndFlush(any());
+        verify(ingredientNameRepository, never()).findOrCreateAll(anyCollection());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateRecipe_changedIngredients_keepsUnchangedPositions() {
+        RecipeRequestDto recipeRequestDto = getRecipeRequestDto();
+        UUID uuid = UUID.randomUUID();
+        Recipe storedRecipe = storedRecipeOf(recipeRequestDto, uuid);
+        List<IngredientName> storedIngredients = List.copyOf(storedRecipe.getIngredients().values());
+        when(recipeRepository.findEntityByUuid(uuid)).thenReturn(Optional.of(storedRecipe));
+        when(recipeRepository.saveAndFlush(storedRecipe)).thenReturn(storedRecipe);
+
+        // Rename the second ingredient and drop the last three
+        List<RecipeRequestDto.IngredientRequestDto> requestedIngredients =
+                new ArrayList<>(recipeRequestDto.getIngredients().subList(0, 5));
+        RecipeRequestDto.IngredientRequestDto coconutVinegar = new RecipeRequestDto.IngredientRequestDto();
+        coconutVinegar.setName("1/2 cup coconut vinegar");
+        requestedIngredients.set(1, coconutVinegar);
+        recipeRequestDto.setIngredients(requestedIngredients);
+
+        RecipeUpdatedDto result = recipeService.updateRecipe(recipeRequestDto, uuid, null);
+
+        assertTrue(result.isModified());
+        // The renamed ingredient keeps its position, the dropped ones free theirs
+        assertThat(storedRecipe.getIngredients()).containsExactly(
+                entry(1024, storedIngredients.get(0)), entry(2048, ingredientName("1/2 cup coconut vinegar")),
+                entry(3072, storedIngredients.get(2)), entry(4096, storedIngredients.get(3)),
+                entry(5120, storedIngredients.get(4)));
+        assertThat(storedRecipe.getIngredients().values()).extracting(IngredientName::getName)
+                .containsExactly("1 kg chicken thighs or drumsticks", "1/2 cup coconut vinegar",
+                        "1/2 cup vinegar", "6 cloves garlic, minced", "3 bay leaves");
+        // The searchable names follow the new list
+        assertThat(storedRecipe.getIngredientNames()).isEqualTo("1 kg chicken thighs or drumsticks\n"
+                + "1/2 cup coconut vinegar\n1/2 cup vinegar\n6 cloves garlic, minced\n3 bay leaves");
+        // The recipe row is touched too, so its version moves with its ingredients
+        assertNotNull(storedRecipe.getUpdatedAt());
+        verify(recipeRepository).saveAndFlush(storedRecipe);
+        verify(eventPublisher).publishEvent(any(RecipeChangedEvent.class));
+    }
+
+    @Test
+    void updateRecipe_addedIngredient_appendsNewRow() {
+        RecipeRequestDto recipeRequestDto = getRecipeRequestDto();
+        UUID uuid = UUID.randomUUID();
+        Recipe storedRecipe = storedRecipeOf(recipeRequestDto, uuid);
+        Map<Integer, IngredientName> storedIngredients = Map.copyOf(storedRecipe.getIngredients());
+        when(recipeRepository.findEntityByUuid(uuid)).thenReturn(Optional.of(storedRecipe));
+        when(recipeRepository.saveAndFlush(storedRecipe)).thenReturn(storedRecipe);
+
+        RecipeRequestDto.IngredientRequestDto sugar = new RecipeRequestDto.IngredientRequestDto();
+        sugar.setName("1 tbsp brown sugar");
+        List<RecipeRequestDto.IngredientRequestDto> requestedIngredients = new ArrayList<>(recipeRequestDto.getIngredients());
+        requestedIngredients.add(sugar);
+        recipeRequestDto.setIngredients(requestedIngredients);
+
+        RecipeUpdatedDto result = recipeService.updateRecipe(recipeRequestDto, uuid, null);
+
+        assertTrue(result.isModified());
+        assertThat(storedRecipe.getIngredients()).hasSize(9).containsAllEntriesOf(storedIngredients);
+        assertThat(storedRecipe.getIngredients().get(9 * 1024).getName()).isEqualTo("1 tbsp brown sugar");
+    }
+
+    @Test
+    void updateRecipe_insertedIngredients_takeFreePositionsBetweenNeighbours() {
+        RecipeRequestDto recipeRequestDto = getRecipeRequestDto();
+        UUID uuid = UUID.randomUUID();
+        Recipe storedRecipe = storedRecipeOf(recipeRequestDto, uuid);
+        Map<Integer, IngredientName> storedIngredients = Map.copyOf(storedRecipe.getIngredients());
+        when(recipeRepository.findEntityByUuid(uuid)).thenReturn(Optional.of(storedRecipe));
+        when(recipeRepository.saveAndFlush(storedRecipe)).thenReturn(storedRecipe);
+
+        // One ingredient before the first, three after the second, and the third one moved to the end
+        List<String> requestedNames = new ArrayList<>(recipeRequestDto.getIngredients().stream()
+                .map(RecipeRequestDto.IngredientRequestDto::getName)
+                .toList());
+        String moved = requestedNames.remove(2);
+        requestedNames.add(moved);
+        requestedNames.addAll(2, List.of("1 tbsp fish sauce", "1 tbsp brown sugar", "2 tbsp oil"));
+        requestedNames.add(0, "1 cup water");
+        recipeRequestDto.setIngredients(requestedNames.stream().map(name -> {
+            RecipeRequestDto.IngredientRequestDto ingredient = new RecipeRequestDto.IngredientRequestDto();
+            ingredient.setName(name);
+            return ingredient;
+        }).toList());
+
+        recipeService.updateRecipe(recipeRequestDto, uuid, null);
+
+        // The other ingredients keep their positions; the first added one reuses the position the moved one left
+        Map<Integer, IngredientName> changed = new HashMap<>(storedRecipe.getIngredients());
+        changed.entrySet().removeAll(storedIngredients.entrySet());
+        assertThat(changed).containsOnly(entry(512, ingredientName("1 cup water")),
+                entry(3072, ingredientName("1 tbsp fish sauce")), entry(3413, ingredientName("1 tbsp brown sugar")),
+                entry(3754, ingredientName("2 tbsp oil")), entry(9216, ingredientName(moved)));
+        assertThat(storedRecipe.getIngredients().values()).extracting(IngredientName::getName)
+                .containsExactlyElementsOf(requestedNames);
+    }
+
+    @Test
+    void updateRecipe_staleVersion_throwsPreconditionFailed() {
+        RecipeRequestDto recipeRequestDto = getRecipeRequestDto();
+        UUID uuid = UUID.randomUUID();
+        Recipe storedRecipe = storedRecipeOf(recipeRequestDto, uuid);
+        storedRecipe.setVersion(4L);
+        recipeRequestDto.setTitle("Chicken Adobo sa Gata");
+        when(recipeRepository.findEntityByUuid(uuid)).thenReturn(Optional.of(storedRecipe));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> recipeService.updateRecipe(recipeRequestDto, uuid, 3L));
+        assertNotEquals("Chicken Adobo sa Gata", storedRecipe.getTitle());
+        verify(recipeRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateRecipe_currentVersion_updates() {
+        RecipeRequestDto recipeRequestDto = getRecipeRequestDto();
+        UUID uuid = UUID.randomUUID();
+        Recipe storedRecipe = storedRecipeOf(recipeRequestDto, uuid);
+        storedRecipe.setVersion(4L);
+        recipeRequestDto.setTitle("Chicken Adobo sa Gata");
+        when(recipeRepository.findEntityByUuid(uuid)).thenReturn(Optional.of(storedRecipe));
+        when(recipeRepository.saveAndFlush(storedRecipe)).thenAnswer(invocation -> {
+            storedRecipe.setVersion(5L);
+            return storedRecipe;
+        });
+
+        RecipeUpdatedDto result = recipeService.updateRecipe(recipeRequestDto, uuid, 4L);
+
+        assertTrue(result.isModified());
+        assertEquals(5L, result.getVersion());
+    }
+
+    @Test
+    void getRecipeVersion_notFound_throwsException() {
+        UUID uuid = UUID.randomUUID();
+        when(recipeRepository.findVersionByUuid(uuid)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> recipeService.getRecipeVersion(uuid));
+        verify(recipeRepository, never()).findByUuid(any());
     }
 
     @Test
@@ -148,7 +503,7 @@ class RecipeServiceTest {
         RecipeViewProjection projection = mock(RecipeViewProjection.class);
 
         when(recipeRepository.findByUuid(uuid)).thenReturn(Optional.of(projection));
-        when(projection.getIngredients()).thenReturn(Collections.emptyList());
+        when(projection.getIngredients()).thenReturn(Collections.emptySortedMap());
 
         RecipeViewDto result = recipeService.getRecipe(uuid);
         assertNotNull(result);
@@ -167,11 +522,121 @@ class RecipeServiceTest {
     @Test
     void deleteRecipe_success() {
         UUID uuid = UUID.randomUUID();
-        Recipe recipe = new Recipe();
-        when(recipeRepository.findEntityByUuid(uuid)).thenReturn(Optional.of(recipe));
+        when(recipeRepository.deleteByUuid(uuid, null))
+                .thenReturn(new DeletedRecipes(List.of(1L), List.of(uuid), Map.of("Garlic", 1L, "salt", 2L)));
+
+        recipeService.deleteRecipe(uuid, null);
+
+        verify(recipeRepository, never()).findEntityByUuid(any());
+        ArgumentCaptor<RecipesDeletedEvent> event = ArgumentCaptor.forClass(RecipesDeletedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(1L), event.getValue().getIds());
+        assertEquals(List.of(uuid), event.getValue().getUuids());
+        assertEquals(Map.of("Garlic", 1L, "salt", 2L), event.getValue().getIngredientNameCounts());
+    }
+
+    @Test
+    void deleteRecipe_notFound() {
+        UUID uuid = UUID.randomUUID();
+        when(recipeRepository.deleteByUuid(uuid, null)).thenReturn(noneDeleted());
+
+        assertThrows(EntityNotFoundException.class, () -> recipeService.deleteRecipe(uuid, null));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteRecipe_withVersion_deletesOnlyThatVersion() {
+        UUID uuid = UUID.randomUUID();
+        when(recipeRepository.deleteByUuid(uuid, 3L))
+                .thenReturn(new DeletedRecipes(List.of(1L), List.of(uuid), Map.of()));
+
+        recipeService.deleteRecipe(uuid, 3L);
+
+        verify(recipeRepository, never()).findVersionByUuid(any());
+        verify(eventPublisher).publishEvent(any(RecipesDeletedEvent.class));
+    }
+
+    @Test
+    void deleteRecipe_versionChanged_throwsPreconditionFailed() {
+        UUID uuid = UUID.randomUUID();
+        when(recipeRepository.deleteByUuid(uuid, 3L)).thenReturn(noneDeleted());
+        when(recipeRepository.findVersionByUuid(uuid)).thenReturn(Optional.of(4L));
+
+        assertThrows(PreconditionFailedException.class, () -> recipeService.deleteRecipe(uuid, 3L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteRecipe_withVersion_notFound() {
+        UUID uuid = UUID.randomUUID();
+        when(recipeRepository.deleteByUuid(uuid, 3L)).thenReturn(noneDeleted());
+        when(recipeRepository.findVersionByUuid(uuid)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> recipeService.deleteRecipe(uuid, 3L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteRecipes_byUuids_publishesOneEvent() {
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        List<UUID> uuids = ids.stream().map(id -> UUID.randomUUID()).toList();
+        when(recipeRepository.deleteByUuidIn(uuids)).thenReturn(new DeletedRecipes(ids, uuids, Map.of()));
+        RecipeDeleteRequestDto request = new RecipeDeleteRequestDto();
+        request.setUuids(uuids);
+
+        int deleted = recipeService.deleteRecipes(request);
+
+        assertEquals(2500, deleted);
+        verify(recipeRepository, never()).deleteMatching(any());
+        verify(eventPublisher, times(1)).publishEvent(any(RecipesDeletedEvent.class));
+    }
+
+    @Test
+    void deleteRecipes_byFilter_deletesMatching() {
+        RecipeSearchRequestDto filter = new RecipeSearchRequestDto(true, null, null, null, null, null);
+        when(recipeRepository.deleteMatching(filter))
+                .thenReturn(new DeletedRecipes(List.of(7L), List.of(UUID.randomUUID()), Map.of("tofu", 1L)));
+        RecipeDeleteRequestDto request = new RecipeDeleteRequestDto();
+        request.setFilter(filter);
+
+        int deleted = recipeService.deleteRecipes(request);
+
+        assertEquals(1, deleted);
+        verify(recipeRepository, never()).deleteByUuidIn(any());
+        verify(eventPublisher).publishEvent(any(RecipesDeletedEvent.class));
+    }
+
+    @Test
+    void deleteRecipes_nothingMatching_publishesNothing() {
+        RecipeSearchRequestDto filter = new RecipeSearchRequestDto(null, 12, null, null, null, null);
+        when(recipeRepository.deleteMatching(filter)).thenReturn(noneDeleted());
+        RecipeDeleteRequestDto request = new RecipeDeleteRequestDto();
+        request.setFilter(filter);
+
+        assertEquals(0, recipeService.deleteRecipes(request));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteRequest_requiresUuidsOrFilterCriteria() {
+        RecipeDeleteRequestDto request = new RecipeDeleteRequestDto();
+        assertFalse(request.isCriteriaValid());
+
+        request.setFilter(new RecipeSearchRequestDto(null, null, List.of(" "), null, "", null));
+        assertFalse(request.isCriteriaValid());
 
-        recipeService.deleteRecipe(uuid);
-        verify(recipeRepository).delete(recipe);
+        request.setFilter(new RecipeSearchRequestDto(null, 4, null, null, null, null));
+        assertTrue(request.isCriteriaValid());
+
+        request.setUuids(List.of(UUID.randomUUID()));
+        assertFalse(request.isCriteriaValid());
+
+        request.setFilter(null);
+        assertTrue(request.isCriteriaValid());
+    }
+
+    private static DeletedRecipes noneDeleted() {
+        return new DeletedRecipes(List.of(), List.of(), Map.of());
     }
 
     @Test
@@ -183,34 +648,86 @@ class RecipeServiceTest {
                 .thenReturn(Page.empty());
 
         Page<RecipeViewDto> result = recipeService.searchRecipes(
-                null, null, null, null, null, PageRequest.of(0, 10));
+                new RecipeSearchRequestDto(null, null, null, null, null, null), PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void searchRecipes_recordsLatencyTaggedWithFiltersUsed() {
+        when(recipeRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+        when(recipeRepository.findBy(any(Specification.class), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        recipeService.searchRecipes(new RecipeSearchRequestDto(true, null, List.of("garlic", " ", "onion"),
+                null, "simmer", RecipeSearchRequestDto.InstructionMode.FULLTEXT), PageRequest.of(0, 10));
+        recipeService.sliceRecipes(new RecipeSearchRequestDto(null, 4, List.of("garlic"),
+                List.of("a", "b", "c", "d", "e", "f"), "oven", null), PageRequest.of(0, 10));
+
+        assertEquals(1, meterRegistry.get("recipe.search").tags("pagination", "page", "view", "full")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("recipe.search").tags("pagination", "slice", "view", "full")
+                .timer().count());
+        assertThat(meterRegistry.get("recipe.search").timer().getId().getTags()).hasSize(2);
+        assertEquals(1, meterRegistry.get("recipe.search.filters")
+                .tags("vegetarian", "true", "servings", "none", "included.ingredients", "many",
+                        "excluded.ingredients", "0", "instruction", "fulltext")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("recipe.search.filters")
+                .tags("vegetarian", "none", "servings", "set", "included.ingredients", "1",
+                        "excluded.ingredients", "many", "instruction", "contains")
+                .timer().count());
+    }
+
+    private static RecipeIngredientProjection ingredientRow(Long recipeId, String name) {
+        return new RecipeIngredientProjection() {
+            @Override
+            public Long getRecipeId() {
+                return recipeId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    // Serve the batched ingredient query from the ingredients attached to the mock recipes
+    private void stubIngredientsOf(List<Recipe> recipes) {
+        when(recipeRepository.findIngredientsByRecipeIdIn(anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<Long> recipeIds = invocation.getArgument(0);
+                    return recipes.stream()
+                            .filter(recipe -> recipeIds.contains(recipe.getId()))
+                            .flatMap(recipe -> recipe.getIngredients().values().stream()
+                                    .map(ingredient -> ingredientRow(recipe.getId(), ingredient.getName())))
+                            .toList();
+                });
+    }
+
     private Page<Recipe> prepareMockRecipes() {
         Recipe vegetarianRecipe = new Recipe();
+        vegetarianRecipe.setId(1L);
         vegetarianRecipe.setTitle("Vegetarian Dish");
         vegetarianRecipe.setVegetarian(true);
         vegetarianRecipe.setServings(2);
         vegetarianRecipe.setInstruction("Boil gently.");
 
-        Ingredient garlic = new Ingredient();
-        garlic.setName("1 Cabbage");
-        vegetarianRecipe.setIngredients(List.of(garlic));
+        vegetarianRecipe.replaceIngredients(List.of(ingredientName("1 Cabbage")));
 
         Recipe nonVegetarianRecipe = new Recipe();
+        nonVegetarianRecipe.setId(2L);
         nonVegetarianRecipe.setTitle("Non-Vegetarian Dish");
         nonVegetarianRecipe.setVegetarian(false);
         nonVegetarianRecipe.setServings(5);
         nonVegetarianRecipe.setInstruction("Grill heavily.");
 
-        Ingredient beef = new Ingredient();
-        beef.setName("2kg Beef");
-        nonVegetarianRecipe.setIngredients(List.of(beef));
+        nonVegetarianRecipe.replaceIngredients(List.of(ingredientName("2kg Beef")));
 
-        return new PageImpl<>(List.of(vegetarianRecipe, nonVegetarianRecipe), PageRequest.of(0, 10), 2);
+        List<Recipe> recipes = List.of(vegetarianRecipe, nonVegetarianRecipe);
+        stubIngredientsOf(recipes);
+        return new PageImpl<>(recipes, PageRequest.of(0, 10), 2);
     }
 
 
@@ -229,13 +746,36 @@ class RecipeServiceTest {
                     return new PageImpl<>(filtered, pageable, filtered.size());
                 });
 
-        Page<RecipeViewDto> result = recipeService.searchRecipes(true, null, null,
-                null, null, PageRequest.of(0, 10));
+        Page<RecipeViewDto> result = recipeService.searchRecipes(
+                new RecipeSearchRequestDto(true, null, null, null, null, null), PageRequest.of(0, 10));
 
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getVegetarian()).isTrue();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchRecipes_sameFiltersAgain_servedFromCacheUntilWrite() {
+        Page<Recipe> recipes = prepareMockRecipes();
+        when(recipeRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(recipes);
+
+        Page<RecipeViewDto> first = recipeService.searchRecipes(new RecipeSearchRequestDto(true, 4,
+                List.of("Garlic", "salt"), null, null, null), PageRequest.of(0, 10));
+        // Same filters in another order and case
+        Page<RecipeViewDto> second = recipeService.searchRecipes(new RecipeSearchRequestDto(true, 4,
+                List.of("SALT", "garlic", " "), null, null, null), PageRequest.of(0, 10));
+
+        assertThat(second).isSameAs(first);
+        verify(recipeRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+
+        // A committed write makes the next search read the database again
+        recipeSearchCache.onRecipeChanged(new RecipeChangedEvent(1L, UUID.randomUUID(), List.of(), List.of()));
+        recipeService.searchRecipes(new RecipeSearchRequestDto(true, 4,
+                List.of("Garlic", "salt"), null, null, null), PageRequest.of(0, 10));
+
+        verify(recipeRepository, times(2)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
     @Test
     void searchRecipes_withServings_shouldReturnOnlyMatching() {
         List<Recipe> allRecipes = prepareMockRecipes().getContent();
@@ -250,8 +790,7 @@ class RecipeServiceTest {
                 });
 
         Page<RecipeViewDto> result = recipeService.searchRecipes(
-                null, 2, null, null, null,
-                PageRequest.of(0, 10));
+                new RecipeSearchRequestDto(null, 2, null, null, null, null), PageRequest.of(0, 10));
 
         assertThat(result).hasSize(1);
         assertThat(result.getContent().get(0).getServings()).isEqualTo(2);
@@ -275,7 +814,7 @@ class RecipeServiceTest {
                 });
 
         Page<RecipeViewDto> result = recipeService.searchRecipes(
-                null, null, null, null, "boil", PageRequest.of(0, 10));
+                new RecipeSearchRequestDto(null, null, null, null, "boil", null), PageRequest.of(0, 10));
 
         assertThat(result).hasSize(1);
         assertThat(result.getContent().get(0).getInstruction().toLowerCase()).contains("boil");
@@ -291,7 +830,7 @@ class RecipeServiceTest {
                     Pageable pageable = invocation.getArgument(1);
 
                     List<Recipe> filtered = allRecipes.stream()
-                            .filter(recipe -> recipe.getIngredients().stream()
+                            .filter(recipe -> recipe.getIngredients().values().stream()
                                     .anyMatch(ing ->
                                             included.stream().anyMatch(filter ->
                                                     ing.getName().toLowerCase().contains(filter.toLowerCase())
@@ -303,7 +842,7 @@ class RecipeServiceTest {
                 });
 
         Page<RecipeViewDto> result = recipeService.searchRecipes(
-                null, null, included, null, null, PageRequest.of(0, 10));
+                new RecipeSearchRequestDto(null, null, included, null, null, null), PageRequest.of(0, 10));
 
         assertThat(result).hasSize(1);
         assertThat(result.getContent().get(0).getIngredients().get(0).getName().toLowerCase()).contains("cabbage");
@@ -319,7 +858,7 @@ class RecipeServiceTest {
                     Pageable pageable = invocation.getArgument(1);
 
                     List<Recipe> filtered = allRecipes.stream()
-                            .filter(recipe -> recipe.getIngredients().stream()
+                            .filter(recipe -> recipe.getIngredients().values().stream()
                                     .noneMatch(ing ->
                                             excluded.stream().anyMatch(filter ->
                                                     ing.getName().toLowerCase().contains(filter.toLowerCase())
@@ -331,7 +870,7 @@ class RecipeServiceTest {
                 });
 
         Page<RecipeViewDto> result = recipeService.searchRecipes(
-                null, null, null, excluded, null, PageRequest.of(0, 10));
+                new RecipeSearchRequestDto(null, null, null, excluded, null, null), PageRequest.of(0, 10));
 
         assertThat(result).hasSize(1);
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Vegetarian Dish");
@@ -355,10 +894,10 @@ class RecipeServiceTest {
                             .filter(r -> Boolean.TRUE.equals(r.getVegetarian()))
                             .filter(r -> Objects.equals(r.getServings(), servings))
                             .filter(r -> r.getInstruction().toLowerCase().contains(instruction))
-                            .filter(r -> r.getIngredients().stream()
+                            .filter(r -> r.getIngredients().values().stream()
                                     .anyMatch(i -> included.stream()
                                             .anyMatch(inc -> i.getName().toLowerCase().contains(inc))))
-                            .filter(r -> r.getIngredients().stream()
+                            .filter(r -> r.getIngredients().values().stream()
                                     .noneMatch(i -> excluded.stream()
                                             .anyMatch(exc -> i.getName().toLowerCase().contains(exc))))
                             .toList();
@@ -367,9 +906,537 @@ class RecipeServiceTest {
                 });
 
         Page<RecipeViewDto> result = recipeService.searchRecipes(
-                vegetarian, servings, included, excluded, instruction, PageRequest.of(0, 10));
+                new RecipeSearchRequestDto(vegetarian, servings, included, excluded, instruction, null), PageRequest.of(0, 10));
 
         assertThat(result).hasSize(1);
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Vegetarian Dish");
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void searchRecipes_loadsIngredientsWithFixedNumberOfQueries(int pageSize) {
+        // Ingredient collections are left null: touching them per recipe would fail the test
+        List<Recipe> recipes = IntStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> {
+                    Recipe recipe = new Recipe();
+                    recipe.setId((long) id);
+                    recipe.setTitle("Recipe " + id);
+                    return recipe;
+                })
+                .toList();
+        List<RecipeIngredientProjection> ingredientRows = recipes.stream()
+                .map(recipe -> ingredientRow(recipe.getId(), "Ingredient of " + recipe.getTitle()))
+                .toList();
+
+        when(recipeRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(recipes, invocation.getArgument(1), recipes.size()));
+        when(recipeRepository.findIngredientsByRecipeIdIn(anyCollection())).thenReturn(ingredientRows);
+
+        Page<RecipeViewDto> result = recipeService.searchRecipes(
+                new RecipeSearchRequestDto(null, null, null, null, null, null), PageRequest.of(0, pageSize));
+
+        assertThat(result.getContent()).hasSize(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            RecipeViewDto recipe = result.getContent().get(i);
+            assertThat(recipe.getTitle()).isEqualTo("Recipe " + (i + 1));
+            assertThat(recipe.getIngredients()).extracting(RecipeViewDto.IngredientViewDto::getName)
+                    .containsExactly("Ingredient of Recipe " + (i + 1));
+        }
+
+        // One page query (plus its count) and one ingredient query, whatever the page size
+        verify(recipeRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+        verify(recipeRepository, times(1)).findIngredientsByRecipeIdIn(anyCollection());
+        verifyNoMoreInteractions(recipeRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchRecipes_withIngredientIndex_filtersByRecipeIds() {
+        List<String> included = List.of("cabbage");
+        List<String> excluded = List.of("beef");
+        IngredientIndex.Match match = new IngredientIndex.Match(Roaring64Bitmap.bitmapOf(1L));
+        when(ingredientIndex.match(included, excluded)).thenReturn(Optional.of(match));
+        when(ingredientIndex.fitsInQuery(match)).thenReturn(true);
+        ArgumentCaptor<Specification<Recipe>> specification = ArgumentCaptor.forClass(Specification.class);
+        when(recipeRepository.findAll(specification.capture(), any(Pageable.class))).thenReturn(Page.empty());
+
+        recipeService.searchRecipes(
+                new RecipeSearchRequestDto(true, null, included, excluded, null, null), PageRequest.of(0, 10));
+
+        // The captured specification filters on the ids bound as one array, without joining the ingredients
+        Root<Recipe> root = mock(Root.class);
+        Path<Object> idPath = mock(Path.class);
+        when(root.get("id")).thenReturn(idPath);
+        HibernateCriteriaBuilder cb = mock(HibernateCriteriaBuilder.class);
+        specification.getValue().toPredicate(root, mock(CriteriaQuery.class), cb);
+        verify(cb).value(new Long[]{1L});
+        verify(cb).function(eq(ArrayFunctionContributor.ANY_OF), eq(Boolean.class), eq(idPath), any());
+        verify(root, never()).join(anyString());
+    }
+
+    @Test
+    void searchRecipes_withIngredientIndexAlone_pagesOnMatchedIds() {
+        List<String> included = List.of("garlic");
+        IngredientIndex.Match match = new IngredientIndex.Match(Roaring64Bitmap.bitmapOf(1L, 4L, 7L, 9L, 12L));
+        when(ingredientIndex.match(included, null)).thenReturn(Optional.of(match));
+        Recipe recipe7 = new Recipe();
+        recipe7.setId(7L);
+        Recipe recipe9 = new Recipe();
+        recipe9.setId(9L);
+        when(recipeRepository.findAll(any(Specification.class), eq(Sort.by("id"))))
+                .thenReturn(List.of(recipe7, recipe9));
+
+        Page<RecipeViewDto> page = recipeService.searchRecipes(
+                new RecipeSearchRequestDto(null, null, included, null, null, null), PageRequest.of(1, 2));
+
+        // Only the recipes of the page are loaded, the total comes from the index
+        assertEquals(5, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        verify(recipeRepository).findIngredientsByRecipeIdIn(List.of(7L, 9L));
+        verify(recipeRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(ingredientIndex, never()).fitsInQuery(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchRecipes_withFullTextInstruction_matchesAndRanksTsvector() {
+        ArgumentCaptor<Specification<Recipe>> specification = ArgumentCaptor.forClass(Specification.class);
+        when(recipeRepository.findAll(specification.capture(), any(Pageable.class))).thenReturn(Page.empty());
+
+        recipeService.searchRecipes(new RecipeSearchRequestDto(null, null, null, null, "simmer garlic",
+                RecipeSearchRequestDto.InstructionMode.FULLTEXT), PageRequest.of(0, 10));
+
+        Root<Recipe> root = mock(Root.class);
+        Path<Object> documentPath = mock(Path.class);
+        when(root.get(Recipe.Fields.INSTRUCTION)).thenReturn(documentPath);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        HibernateCriteriaBuilder cb = mock(HibernateCriteriaBuilder.class);
+        specification.getValue().toPredicate(root, query, cb);
+
+        verify(cb).value("simmer garlic");
+        verify(cb).function(eq(FullTextFunctionContributor.FULLTEXT_MATCH), eq(Boolean.class), eq(documentPath), any());
+        verify(cb).function(eq(FullTextFunctionContributor.FULLTEXT_RANK), eq(Double.class), eq(documentPath), any());
+        verify(query).orderBy(any(jakarta.persistence.criteria.Order[].class));
+        verify(cb, never()).like(any(), anyString());
+        verify(query, never()).distinct(true);
+    }
+
+    @Test
+    void searchRecipes_emptyPage_skipsIngredientQuery() {
+        when(recipeRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        recipeService.searchRecipes(
+                new RecipeSearchRequestDto(null, null, null, null, null, null), PageRequest.of(0, 10));
+
+        verify(recipeRepository, never()).findIngredientsByRecipeIdIn(anyCollection());
+    }
+
+    // Run the fluent query function the service hands to findBy against a mock query
+    @SuppressWarnings("unchecked")
+    private JpaSpecificationExecutor.SpecificationFluentQuery<Recipe> stubFluentQuery() {
+        JpaSpecificationExecutor.SpecificationFluentQuery<Recipe> fluentQuery =
+                mock(JpaSpecificationExecutor.SpecificationFluentQuery.class, RETURNS_SELF);
+        when(recipeRepository.findBy(any(Specification.class), any()))
+                .thenAnswer(invocation -> {
+                    Function<Object, Object> queryFunction = invocation.getArgument(1);
+                    return queryFunction.apply(fluentQuery);
+                });
+        return fluentQuery;
+    }
+
+    private ArgumentCaptor<ScrollPosition> stubScroll(Window<Recipe> window) {
+        JpaSpecificationExecutor.SpecificationFluentQuery<Recipe> fluentQuery = stubFluentQuery();
+        ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+        when(fluentQuery.scroll(position.capture())).thenReturn(window);
+        return position;
+    }
+
+    @Test
+    void sliceRecipes_returnsPageWithoutCounting() {
+        List<Recipe> recipes = prepareMockRecipes().getContent();
+        Pageable pageable = PageRequest.of(0, 1);
+        JpaSpecificationExecutor.SpecificationFluentQuery<Recipe> fluentQuery = stubFluentQuery();
+        when(fluentQuery.slice(pageable)).thenReturn(new SliceImpl<>(recipes.subList(0, 1), pageable, true));
+
+        Slice<RecipeViewDto> result = recipeService.sliceRecipes(new RecipeSearchRequestDto(), pageable);
+
+        assertThat(result.getContent()).extracting(RecipeViewDto::getTitle).containsExactly("Vegetarian Dish");
+        assertThat(result.getContent().get(0).getIngredients()).hasSize(1);
+        assertThat(result.hasNext()).isTrue();
+        verify(fluentQuery, never()).page(any());
+        verify(fluentQuery, never()).count();
+        verify(recipeRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchRecipeSummaries_projectsSummaryColumnsWithoutIngredients() {
+        RecipeSummaryProjection row = mock(RecipeSummaryProjection.class);
+        when(row.getUuid()).thenReturn(new UUID(0, 1));
+        when(row.getTitle()).thenReturn("Adobo");
+        when(row.getVegetarian()).thenReturn(false);
+        when(row.getServings()).thenReturn(4);
+        Pageable pageable = PageRequest.of(0, 10);
+        JpaSpecificationExecutor.SpecificationFluentQuery<Recipe> fluentQuery = stubFluentQuery();
+        // as() returns the same mock, now answering with projection rows
+        doReturn(new PageImpl<>(List.of(row), pageable, 1)).when(fluentQuery).page(pageable);
+
+        Page<RecipeSummaryDto> result = recipeService.searchRecipeSummaries(new RecipeSearchRequestDto(), pageable);
+
+        assertThat(result.getContent()).singleElement().satisfies(summary -> {
+            assertEquals(new UUID(0, 1), summary.getUuid());
+            assertEquals("Adobo", summary.getTitle());
+            assertFalse(summary.getVegetarian());
+            assertEquals(4, summary.getServings());
+        });
+        assertEquals(1, result.getTotalElements());
+        verify(fluentQuery).as(RecipeSummaryProjection.class);
+        verify(recipeRepository, never()).findIngredientsByRecipeIdIn(anyCollection());
+        assertEquals(1, meterRegistry.get("recipe.search").tags("pagination", "page", "view", "summary")
+                .timer().count());
+    }
+
+    @Test
+    void sliceRecipeSummaries_returnsPageWithoutCounting() {
+        Pageable pageable = PageRequest.of(0, 1);
+        JpaSpecificationExecutor.SpecificationFluentQuery<Recipe> fluentQuery = stubFluentQuery();
+        doReturn(new SliceImpl<>(List.of(mock(RecipeSummaryProjection.class)), pageable, true))
+                .when(fluentQuery).slice(pageable);
+
+        Slice<RecipeSummaryDto> result = recipeService.sliceRecipeSummaries(new RecipeSearchRequestDto(), pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.hasNext()).isTrue();
+        verify(fluentQuery).as(RecipeSummaryProjection.class);
+        verify(fluentQuery, never()).page(any());
+        verify(recipeRepository, never()).findIngredientsByRecipeIdIn(anyCollection());
+    }
+
+    @Test
+    void scrollRecipeSummaries_withCursor_seeksPastLastRow() {
+        String cursor = CursorUtil.encode(ScrollPosition.forward(Map.of("id", 5L)));
+        JpaSpecificationExecutor.SpecificationFluentQuery<Recipe> fluentQuery = stubFluentQuery();
+        ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+        when(fluentQuery.scroll(position.capture())).thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        Window<RecipeSummaryDto> result = recipeService.scrollRecipeSummaries(
+                new RecipeSearchRequestDto(), cursor, PageRequest.of(0, 10));
+
+        assertThat(result.isEmpty()).isTrue();
+        assertThat(((KeysetScrollPosition) position.getValue()).getKeys()).containsEntry("id", 5L);
+        verify(fluentQuery).as(RecipeSummaryProjection.class);
+    }
+
+    @Test
+    void scrollRecipes_withoutCursor_startsFromFirstRow() {
+        Recipe recipe = new Recipe();
+        recipe.setId(1L);
+        recipe.setTitle("Adobo");
+        Window<Recipe> window = Window.from(List.of(recipe),
+                index -> ScrollPosition.forward(Map.of("id", recipe.getId())), true);
+        ArgumentCaptor<ScrollPosition> position = stubScroll(window);
+        stubIngredientsOf(List.of(recipe));
+
+        Window<RecipeViewDto> result = recipeService.scrollRecipes(
+                new RecipeSearchRequestDto(), "", PageRequest.of(0, 1));
+
+        assertThat(result.getContent()).extracting(RecipeViewDto::getTitle).containsExactly("Adobo");
+        assertThat(result.hasNext()).isTrue();
+        assertThat(position.getValue().isInitial()).isTrue();
+    }
+
+    @Test
+    void scrollRecipes_withCursor_seeksPastLastRow() {
+        Map<String, Object> lastRow = new LinkedHashMap<>();
+        lastRow.put("title", "Adobo");
+        lastRow.put("id", 5L);
+        String cursor = CursorUtil.encode(ScrollPosition.forward(lastRow));
+        ArgumentCaptor<ScrollPosition> position = stubScroll(Window.from(List.of(), ScrollPosition::offset));
+
+        Window<RecipeViewDto> result = recipeService.scrollRecipes(
+                new RecipeSearchRequestDto(), cursor, PageRequest.of(0, 10, Sort.by("title")));
+
+        assertThat(result.isEmpty()).isTrue();
+        assertThat(position.getValue()).isInstanceOf(KeysetScrollPosition.class);
+        assertThat(((KeysetScrollPosition) position.getValue()).getKeys())
+                .containsEntry("title", "Adobo")
+                .containsEntry("id", 5L);
+        verify(recipeRepository, never()).findIngredientsByRecipeIdIn(anyCollection());
+    }
+
+    @Test
+    void scrollRecipes_cursorFromAnotherSort_throwsException() {
+        String cursor = CursorUtil.encode(ScrollPosition.forward(Map.of("id", 5L)));
+
+        assertThrows(InvalidCursorException.class, () -> recipeService.scrollRecipes(
+                new RecipeSearchRequestDto(), cursor, PageRequest.of(0, 10, Sort.by("title"))));
+        assertThrows(InvalidCursorException.class, () -> recipeService.scrollRecipes(
+                new RecipeSearchRequestDto(), "not-a-cursor", PageRequest.of(0, 10)));
+        verifyNoInteractions(recipeRepository);
+    }
+
+    private static RecipeExportProjection exportRow(Long id, String title, String instruction) {
+        RecipeExportProjection row = mock(RecipeExportProjection.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getUuid()).thenReturn(new UUID(0, id));
+        when(row.getCreatedAt()).thenReturn(OffsetDateTime.of(2025, 6, 1, 8, 0, 0, 0, ZoneOffset.UTC));
+        when(row.getTitle()).thenReturn(title);
+        when(row.getDescription()).thenReturn("Description");
+        when(row.getInstruction()).thenReturn(instruction);
+        when(row.getVegetarian()).thenReturn(true);
+        when(row.getServings()).thenReturn(2);
+        return row;
+    }
+
+    private String export(RecipeFileFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recipeService.exportRecipes(new RecipeSearchRequestDto(), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void getSearchFacets_withFilters_sumsGroupedCountsPerFacet() {
+        RecipeFacetProjection vegetarianForTwo = facetRow(true, 2, 3);
+        RecipeFacetProjection vegetarianForFour = facetRow(true, 4, 1);
+        RecipeFacetProjection meatForFour = facetRow(false, 4, 5);
+        IngredientCountProjection garlic = mock(IngredientCountProjection.class);
+        when(garlic.getName()).thenReturn("garlic");
+        when(garlic.getCount()).thenReturn(6L);
+        when(recipeRepository.countFacets(any(), any(), anyInt())).thenReturn(new RecipeFacetRepository.FacetCounts(
+                List.of(vegetarianForFour, meatForFour, vegetarianForTwo), List.of(garlic)));
+        RecipeSearchRequestDto search = new RecipeSearchRequestDto();
+        search.setIncludedIngredients(List.of("garlic"));
+
+        RecipeFacetsDto facets = recipeService.getSearchFacets(search, 100);
+
+        assertEquals(9, facets.getTotal());
+        assertThat(facets.getVegetarian()).extracting(RecipeFacetsDto.FacetCountDto::getValue,
+                        RecipeFacetsDto.FacetCountDto::getCount)
+                .containsExactly(tuple(false, 5L), tuple(true, 4L));
+        assertThat(facets.getServings()).extracting(RecipeFacetsDto.FacetCountDto::getValue,
+                        RecipeFacetsDto.FacetCountDto::getCount)
+                .containsExactly(tuple(2, 3L), tuple(4, 6L));
+        assertThat(facets.getIngredients()).extracting(RecipeFacetsDto.FacetCountDto::getValue,
+                        RecipeFacetsDto.FacetCountDto::getCount)
+                .containsExactly(tuple("garlic", 6L));
+        // One statement, filtering ingredients in SQL while the index cannot, with the limit capped at the maximum
+        verify(recipeRepository).countFacets(search, null, 3);
+        verifyNoInteractions(recipeFacetCache);
+    }
+
+    @Test
+    void getSearchFacets_withIngredientIndex_countsOnMatchedIds() {
+        IngredientIndex.Match match = new IngredientIndex.Match(Roaring64Bitmap.bitmapOf(3L, 8L));
+        when(ingredientIndex.match(List.of("garlic"), null)).thenReturn(Optional.of(match));
+        when(ingredientIndex.fitsInQuery(match)).thenReturn(true);
+        RecipeFacetProjection row = facetRow(true, 2, 2);
+        when(recipeRepository.countFacets(any(), any(), anyInt()))
+                .thenReturn(new RecipeFacetRepository.FacetCounts(List.of(row), List.of()));
+        RecipeSearchRequestDto search = new RecipeSearchRequestDto();
+        search.setIncludedIngredients(List.of("garlic"));
+
+        RecipeFacetsDto facets = recipeService.getSearchFacets(search, 2);
+
+        assertEquals(2, facets.getTotal());
+        verify(recipeRepository).countFacets(search, List.of(3L, 8L), 2);
+    }
+
+    @Test
+    void getSearchFacets_withoutFilters_servedFromFacetCache() {
+        RecipeFacetsDto cached = new RecipeFacetsDto();
+        cached.setTotal(42);
+        when(recipeFacetCache.get(2)).thenReturn(Optional.of(cached));
+
+        assertSame(cached, recipeService.getSearchFacets(new RecipeSearchRequestDto(), 2));
+        verify(recipeRepository, never()).countFacets(any(), any(), anyInt());
+    }
+
+    @Test
+    void getSearchFacets_withoutFiltersBeforeCacheLoaded_countsInDatabase() {
+        RecipeFacetProjection row = facetRow(false, 4, 2);
+        when(recipeRepository.countFacets(any(), any(), anyInt()))
+                .thenReturn(new RecipeFacetRepository.FacetCounts(List.of(row), List.of()));
+
+        RecipeFacetsDto facets = recipeService.getSearchFacets(new RecipeSearchRequestDto(), 2);
+
+        assertEquals(2, facets.getTotal());
+        verify(recipeRepository).countFacets(any(), isNull(), eq(2));
+    }
+
+    private static RecipeFacetProjection facetRow(boolean vegetarian, int servings, long count) {
+        RecipeFacetProjection row = mock(RecipeFacetProjection.class);
+        when(row.getVegetarian()).thenReturn(vegetarian);
+        when(row.getServings()).thenReturn(servings);
+        when(row.getCount()).thenReturn(count);
+        return row;
+    }
+
+    @Test
+    void suggestIngredients_servedFromIndexWithCappedLimit() {
+        when(ingredientSuggestIndex.suggest("Ga", 5)).thenReturn(Optional.of(List.of(
+                new IngredientSuggestIndex.Suggestion("garlic", 7))));
+
+        List<IngredientSuggestionDto> suggestions = recipeService.suggestIngredients("Ga", 100);
+
+        assertThat(suggestions).singleElement().satisfies(suggestion -> {
+            assertEquals("garlic", suggestion.getName());
+            assertEquals(7, suggestion.getCount());
+        });
+        verify(recipeRepository, never()).findTopIngredientsByPrefix(any(), anyInt());
+    }
+
+    @Test
+    void suggestIngredients_indexNotReady_queriesEscapedPrefix() {
+        IngredientCountProjection count = mock(IngredientCountProjection.class);
+        when(count.getName()).thenReturn("50% cream");
+        when(count.getCount()).thenReturn(2L);
+        when(recipeRepository.findTopIngredientsByPrefix("50\\%\\_c%", 3)).thenReturn(List.of(count));
+
+        List<IngredientSuggestionDto> suggestions = recipeService.suggestIngredients("50%_C", 3);
+
+        assertThat(suggestions).extracting(IngredientSuggestionDto::getName).containsExactly("50% cream");
+    }
+
+    @Test
+    void suggestIngredients_emptyPrefix_returnsNothing() {
+        assertThat(recipeService.suggestIngredients("", 10)).isEmpty();
+        verifyNoInteractions(ingredientSuggestIndex);
+        verify(recipeRepository, never()).findTopIngredientsByPrefix(any(), anyInt());
+    }
+
+    @Test
+    void exportRecipes_ndjson_writesOneRecipePerLine() throws Exception {
+        List<RecipeExportProjection> rows = List.of(exportRow(1L, "Adobo", "Simmer"), exportRow(2L, "Sinigang", "Boil"));
+        when(recipeRepository.streamForExport(any())).thenReturn(rows.stream());
+        when(recipeRepository.findIngredientsByRecipeIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(ingredientRow(1L, "chicken"), ingredientRow(1L, "vinegar")));
+
+        String[] lines = export(RecipeFileFormat.NDJSON).split("\n", -1);
+
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        RecipeViewDto first = objectMapper.readValue(lines[0], RecipeViewDto.class);
+        assertEquals("Adobo", first.getTitle());
+        assertThat(first.getIngredients()).extracting(RecipeViewDto.IngredientViewDto::getName)
+                .containsExactly("chicken", "vinegar");
+        assertThat(objectMapper.readValue(lines[1], RecipeViewDto.class).getIngredients()).isEmpty();
+    }
+
+    @Test
+    void exportRecipes_loadsIngredientsPerChunk() throws Exception {
+        List<RecipeExportProjection> rows = LongStream.rangeClosed(1, 1200)
+                .mapToObj(id -> exportRow(id, "Recipe " + id, "Cook"))
+                .toList();
+        when(recipeRepository.streamForExport(any())).thenReturn(rows.stream());
+        when(recipeRepository.findIngredientsByRecipeIdIn(anyCollection())).thenReturn(List.of());
+
+        String export = export(RecipeFileFormat.NDJSON);
+
+        assertEquals(1200, export.lines().count());
+        verify(recipeRepository, times(3)).findIngredientsByRecipeIdIn(anyCollection());
+    }
+
+    @Test
+    void exportRecipes_csv_quotesValuesAndListsIngredientsAsJson() throws Exception {
+        RecipeExportProjection row = exportRow(1L, "Adobo", "Simmer, then \"fry\"");
+        when(recipeRepository.streamForExport(any())).thenReturn(Stream.of(row));
+        when(recipeRepository.findIngredientsByRecipeIdIn(List.of(1L)))
+                .thenReturn(List.of(ingredientRow(1L, "chicken"), ingredientRow(1L, "soy sauce")));
+
+        List<String> lines = export(RecipeFileFormat.CSV).lines().toList();
+
+        assertThat(lines).containsExactly(
+                "uuid,createdAt,title,description,ingredients,instruction,vegetarian,servings",
+                "\"00000000-0000-0000-0000-000000000001\",2025-06-01T08:00Z,Adobo,Description,"
+                        + "\"[\"\"chicken\"\",\"\"soy sauce\"\"]\",\"Simmer, then \"\"fry\"\"\",true,2");
+    }
+
+    @Test
+    void exportRecipes_noMatch_writesCsvHeaderOnly() throws Exception {
+        when(recipeRepository.streamForExport(any())).thenAnswer(invocation -> Stream.empty());
+
+        assertEquals("", export(RecipeFileFormat.NDJSON));
+        assertThat(export(RecipeFileFormat.CSV).lines().toList())
+                .containsExactly("uuid,createdAt,title,description,ingredients,instruction,vegetarian,servings");
+        verify(recipeRepository, never()).findIngredientsByRecipeIdIn(any());
+    }
+
+    private static final String IMPORT_LINE =
+            "{\"title\":\"%s\",\"description\":\"Desc\",\"ingredients\":[{\"name\":\"salt\"}]," +
+                    "\"instruction\":\"Cook\",\"vegetarian\":true,\"servings\":%d}";
+
+    // The mocked bulk insert drains the stream of valid recipes like the real one, keeping them for assertions
+    private List<RecipeRequestDto> stubImport() {
+        List<RecipeRequestDto> imported = new ArrayList<>();
+        when(recipeRepository.importRecipes(any())).thenAnswer(invocation -> {
+            invocation.<java.util.stream.Stream<RecipeRequestDto>>getArgument(0).forEach(imported::add);
+            return (long) imported.size();
+        });
+        return imported;
+    }
+
+    private RecipeImportResultDto importNdjson(String... lines) throws Exception {
+        return recipeService.importRecipes(
+                new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)),
+                RecipeFileFormat.NDJSON);
+    }
+
+    @Test
+    void importRecipes_skipsAndReportsInvalidLines() throws Exception {
+        List<RecipeRequestDto> imported = stubImport();
+        when(translatorService.process(eq("recipe.import.line.unreadable"), any(Object[].class)))
+                .thenReturn("Line is not a valid recipe");
+
+        RecipeImportResultDto result = importNdjson(
+                IMPORT_LINE.formatted("Adobo", 4),
+                IMPORT_LINE.formatted("", 0),
+                "{broken",
+                IMPORT_LINE.formatted("Sinigang", 6));
+
+        assertThat(imported).extracting(RecipeRequestDto::getTitle).containsExactly("Adobo", "Sinigang");
+        assertEquals(4, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertThat(result.getRejectedLines()).extracting(RecipeImportResultDto.RejectedLineDto::getLine)
+                .containsExactly(2L, 3L);
+        assertThat(result.getRejectedLines().get(0).getErrors()).hasSize(2);
+        assertThat(result.getRejectedLines().get(1).getErrors()).containsExactly("Line is not a valid recipe");
+        assertThat(result.getRecipesPerSecond()).isPositive();
+        verify(eventPublisher).publishEvent(any(RecipesImportedEvent.class));
+    }
+
+    @Test
+    void importRecipes_capsReportedRejectionsAndRejectsNulCharacters() throws Exception {
+        List<RecipeRequestDto> imported = stubImport();
+        when(translatorService.process("recipe.import.nul.character")).thenReturn("NUL");
+
+        RecipeImportResultDto result = importNdjson(
+                IMPORT_LINE.formatted("Nul \\u0000", 1),
+                IMPORT_LINE.formatted("", 1),
+                IMPORT_LINE.formatted("", 1));
+
+        assertThat(imported).isEmpty();
+        assertEquals(3, result.getRejected());
+        assertThat(result.getRejectedLines()).hasSize(2);
+        assertThat(result.getRejectedLines().get(0).getErrors()).containsExactly("NUL");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void importRecipes_nullIngredient_rejectsThatLineOnly() throws Exception {
+        List<RecipeRequestDto> imported = stubImport();
+
+        RecipeImportResultDto result = importNdjson(
+                IMPORT_LINE.formatted("Adobo", 4),
+                "{\"title\":\"Sinigang\",\"description\":\"Desc\",\"ingredients\":[{\"name\":\"salt\"},null]," +
+                        "\"instruction\":\"Cook\",\"vegetarian\":true,\"servings\":6}",
+                IMPORT_LINE.formatted("Tinola", 4));
+
+        assertThat(imported).extracting(RecipeRequestDto::getTitle).containsExactly("Adobo", "Tinola");
+        assertEquals(1, result.getRejected());
+        assertThat(result.getRejectedLines()).singleElement().satisfies(line -> {
+            assertEquals(2L, line.getLine());
+            assertThat(line.getErrors()).singleElement().asString().startsWith("ingredients[1]");
+        });
+    }
 }